@@ -0,0 +1,95 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.CollisionModel;
+import com.physicalapp.physics.collision.CollisionEngine;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    private CollisionModel collision;
+
+    @Setup
+    public void setup() {
+        collision = new CollisionModel();
+        collision.setWidth(700);
+    }
+
+    @Benchmark
+    public double twoBodyStep() {
+        collision.step(1.0 / 60);
+        return collision.getMomentum();
+    }
+
+    // Hard-disk gas at 5% area fraction with Gaussian velocities; one op is one 60 Hz frame
+    private static CollisionEngine createGas(int particles, boolean grid) {
+        Random random = new Random(42);
+        double radius = 2;
+        double side = Math.sqrt(particles * Math.PI * radius * radius / 0.05);
+        int columns = (int) Math.ceil(Math.sqrt(particles));
+        double spacing = side / columns;
+        CollisionEngine engine = new CollisionEngine(particles, side, side);
+        engine.setGridEnabled(grid);
+        for (int i = 0; i < particles; i++) {
+            engine.add((i % columns + 0.5) * spacing, (i / columns + 0.5) * spacing,
+                random.nextGaussian() * 50, random.nextGaussian() * 50, radius, 1);
+        }
+        engine.advance(0);
+        return engine;
+    }
+
+    @State(Scope.Thread)
+    public static class Gas {
+        @Param({"1000", "4000", "100000"})
+        private int particles;
+
+        private CollisionEngine engine;
+
+        @Setup
+        public void setup() {
+            engine = createGas(particles, true);
+        }
+    }
+
+    // All-pairs partner search for comparison; kept small because every event costs O(N)
+    @State(Scope.Thread)
+    public static class BruteForceGas {
+        @Param({"1000", "4000"})
+        private int particles;
+
+        private CollisionEngine engine;
+
+        @Setup
+        public void setup() {
+            engine = createGas(particles, false);
+        }
+    }
+
+    @Benchmark
+    public long gasFrame(Gas gas) {
+        gas.engine.advance(1.0 / 60);
+        return gas.engine.getEventCount();
+    }
+
+    @Benchmark
+    public long gasFrameBruteForce(BruteForceGas gas) {
+        gas.engine.advance(1.0 / 60);
+        return gas.engine.getEventCount();
+    }
+}
@@ -0,0 +1,42 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.DoublePendulumEnsemble;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EnsembleBenchmark {
+    @Param({"100000", "1000000"})
+    private int count;
+
+    private DoublePendulumEnsemble ensemble;
+
+    @Setup
+    public void setup() {
+        ensemble = new DoublePendulumEnsemble();
+        ensemble.initialize(count, 2, 2, 1e-4);
+        ensemble.setDensityGrid(700, 400, 350, 133, 100);
+    }
+
+    // One rendered frame: two sub-steps of 1/120 s for every pendulum.
+    @Benchmark
+    public double frame() {
+        ensemble.step(1.0 / 120, 2);
+        return ensemble.getAngle1()[0];
+    }
+}
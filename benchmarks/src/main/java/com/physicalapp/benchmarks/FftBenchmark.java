@@ -0,0 +1,67 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.wave.Fft;
+import com.physicalapp.physics.wave.PulseSpectrum;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The spectrum inset recomputes on every width or type change, so a 64k pulseSpectrum
+// must fit comfortably in a 16.7 ms frame.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FftBenchmark {
+    @Param({"1024", "65536"})
+    private int size;
+
+    private Fft fft;
+    private PulseSpectrum spectrum;
+    private double[] signal;
+    private double[] re;
+    private double[] im;
+    private final double[] columns = new double[240];
+    private int type;
+
+    @Setup
+    public void setup() {
+        fft = new Fft(size);
+        spectrum = new PulseSpectrum(size);
+        Random random = new Random(42);
+        signal = new double[size];
+        for (int i = 0; i < size; i++) {
+            signal[i] = random.nextGaussian();
+        }
+        re = new double[size];
+        im = new double[size];
+    }
+
+    @Benchmark
+    public double[] transform() {
+        System.arraycopy(signal, 0, re, 0, size);
+        Arrays.fill(im, 0);
+        fft.transform(re, im);
+        return re;
+    }
+
+    @Benchmark
+    public double[] pulseSpectrum() {
+        type = (type + 1) & 3;
+        spectrum.compute(type, 50, 4, columns);
+        return columns;
+    }
+}
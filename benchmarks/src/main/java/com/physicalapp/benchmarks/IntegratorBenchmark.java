@@ -0,0 +1,56 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.DoublePendulumModel;
+import com.physicalapp.physics.integrator.IntegratorType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Cost of one simulated second of a chaotic double pendulum per integrator. Fixed-step
+// integrators advance in 1 ms steps; Dormand-Prince takes one 60 Hz frame per call and
+// picks its own internal steps.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IntegratorBenchmark {
+    private static final double FIXED_DT = 1e-3;
+    private static final double FRAME_DT = 1.0 / 60;
+
+    @Param({"RK4", "DORMAND_PRINCE", "VELOCITY_VERLET", "YOSHIDA4", "SEMI_IMPLICIT_EULER"})
+    public IntegratorType integrator;
+
+    private DoublePendulumModel model;
+    private double dt;
+    private int steps;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        model = new DoublePendulumModel();
+        model.setParameter("integrator", integrator.ordinal());
+        model.setParameter("angle1", 120);
+        model.setParameter("angle2", 120);
+        dt = integrator == IntegratorType.DORMAND_PRINCE ? FRAME_DT : FIXED_DT;
+        steps = (int) Math.round(1.0 / dt);
+    }
+
+    @Benchmark
+    public double simulatedSecond() {
+        for (int i = 0; i < steps; i++) {
+            model.step(dt);
+        }
+        return model.getAngle2();
+    }
+}
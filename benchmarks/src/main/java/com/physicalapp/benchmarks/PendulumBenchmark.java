@@ -0,0 +1,49 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.DoublePendulumModel;
+import com.physicalapp.physics.SimplePendulumModel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PendulumBenchmark {
+    private static final double DT = 1e-3;
+
+    private SimplePendulumModel simplePendulum;
+    private DoublePendulumModel doublePendulum;
+
+    @Setup
+    public void setup() {
+        simplePendulum = new SimplePendulumModel();
+        simplePendulum.setParameter("damping", 0);
+        doublePendulum = new DoublePendulumModel();
+        doublePendulum.setParameter("angle1", 120);
+        doublePendulum.setParameter("angle2", 120);
+    }
+
+    @Benchmark
+    public double simplePendulumRk4() {
+        simplePendulum.step(DT);
+        return simplePendulum.getAngle();
+    }
+
+    @Benchmark
+    public double doublePendulum() {
+        doublePendulum.step(DT);
+        return doublePendulum.getAngle2();
+    }
+}
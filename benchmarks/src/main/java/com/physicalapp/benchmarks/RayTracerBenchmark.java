@@ -0,0 +1,70 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.optics.MirrorScene;
+import com.physicalapp.physics.optics.RayTracer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Rays in a closed box of mirrors, so every ray uses all of its bounces: the worst case for
+// the mirror-reflection beam. One op = one full trace of the batch.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RayTracerBenchmark {
+    @Param({"1000", "100000"})
+    private int rays;
+
+    @Param({"8"})
+    private int bounces;
+
+    private final MirrorScene scene = new MirrorScene();
+    private final RayTracer tracer = new RayTracer();
+    private double[] ox;
+    private double[] oy;
+    private double[] dx;
+    private double[] dy;
+
+    @Setup
+    public void setup() {
+        scene.addFlat(0, 0, 700, 0);
+        scene.addFlat(700, 0, 700, 400);
+        scene.addFlat(700, 400, 0, 400);
+        scene.addFlat(0, 400, 0, 0);
+        scene.addArc(350, 400, 200, -Math.PI / 2 - Math.PI / 3, -Math.PI / 2 + Math.PI / 3);
+        scene.addParabola(150, 300, 0, -1, 40, -80, 80);
+        scene.addArc(550, 100, 60, 0, Math.PI);
+
+        Random random = new Random(42);
+        ox = new double[rays];
+        oy = new double[rays];
+        dx = new double[rays];
+        dy = new double[rays];
+        for (int i = 0; i < rays; i++) {
+            ox[i] = 20 + random.nextDouble() * 660;
+            oy[i] = 380;
+            double angle = -Math.PI * (0.1 + 0.8 * random.nextDouble());
+            dx[i] = Math.cos(angle);
+            dy[i] = Math.sin(angle);
+        }
+    }
+
+    @Benchmark
+    public RayTracer trace() {
+        tracer.trace(scene, ox, oy, dx, dy, rays, bounces, 2000);
+        return tracer;
+    }
+}
@@ -0,0 +1,62 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.record.RunRecorder;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Appending double pendulum rows (time plus four state values) to a fresh file per
+// iteration. One op = one row, so values/s is five times the reported rate.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RecorderBenchmark {
+    private static final int ROWS = 1 << 20;
+    private static final String[] NAMES = {"angle1", "angle2", "velocity1", "velocity2"};
+
+    private final double[] state = new double[NAMES.length];
+    private Path file;
+    private RunRecorder recorder;
+    private double time;
+
+    @Setup(Level.Iteration)
+    public void open() throws IOException {
+        file = Files.createTempFile("recorder-benchmark", ".psrc");
+        recorder = new RunRecorder(file, NAMES, 1e-3);
+    }
+
+    @TearDown(Level.Iteration)
+    public void close() throws IOException {
+        recorder.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long append() {
+        for (int i = 0; i < ROWS; i++) {
+            time += 1e-3;
+            state[0] = time;
+            state[2] = -time;
+            recorder.append(time, state);
+        }
+        return recorder.getSampleCount();
+    }
+}
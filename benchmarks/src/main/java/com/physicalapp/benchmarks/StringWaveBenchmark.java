@@ -0,0 +1,48 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.wave.StringWaveModel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// One op is one 60 Hz frame of the finite-difference string; real time means under 16.7 ms.
+// The fork adds the incubating vector module so both kernels can be compared.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class StringWaveBenchmark {
+    @Param({"701", "1000000"})
+    private int nodes;
+
+    @Param({"true", "false"})
+    private boolean vectorized;
+
+    private StringWaveModel model;
+
+    @Setup
+    public void setup() {
+        model = new StringWaveModel(nodes, 0.01);
+        model.setVectorized(vectorized);
+        if (model.isVectorized() != vectorized) {
+            throw new IllegalStateException("jdk.incubator.vector is not available");
+        }
+    }
+
+    @Benchmark
+    public double frame() {
+        model.step(1.0 / 60);
+        return model.getDisplacement(1);
+    }
+}
@@ -0,0 +1,118 @@
+package com.physicalapp.benchmarks;
+
+import com.physicalapp.physics.Waves;
+import com.physicalapp.physics.wave.PulseShapeCache;
+import com.physicalapp.physics.wave.StandingWaveModel;
+import com.physicalapp.render.CurvePath;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Per-pixel curve sampling of the wave phenomena, one op = one frame of one curve.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WaveBenchmark {
+    @Param({"700", "3840"})
+    private int width;
+
+    private double[] ys;
+    private double time;
+
+    @Setup
+    public void setup() {
+        ys = new double[width + 1];
+    }
+
+    @Benchmark
+    public double[] stringWaveFrame() {
+        time += 1.0 / 60;
+        for (int x = 0; x <= width; x++) {
+            ys[x] = Waves.stringWave(x, time, 50, 50, 1);
+        }
+        return ys;
+    }
+
+    @Benchmark
+    public double[] standingWaveFrame() {
+        time += 1.0 / 60;
+        for (int x = 0; x <= width; x++) {
+            ys[x] = Waves.standingWave(x, time, width, 3, 5, 50);
+        }
+        return ys;
+    }
+
+    @State(Scope.Thread)
+    public static class Modes {
+        @Param({"1", "8", "64"})
+        private int count;
+
+        private final StandingWaveModel model = new StandingWaveModel();
+        private final CurvePath curve = new CurvePath();
+
+        @Setup
+        public void setup() {
+            model.setModes(3, count);
+            model.setSpeed(5);
+            model.setAmplitude(50);
+        }
+    }
+
+    // Same curve as standingWaveFrame for one mode, from precomputed mode tables
+    @Benchmark
+    public double[] standingWaveModalFrame(Modes modes) {
+        time += 1.0 / 60;
+        modes.model.setSampling(width + 1, width);
+        modes.model.evaluate(time, ys, 0);
+        return ys;
+    }
+
+    // Modal frame thinned to the vertices a half-pixel tolerance needs
+    @Benchmark
+    public CurvePath standingWaveDecimatedFrame(Modes modes) {
+        time += 1.0 / 60;
+        modes.model.setSampling(width + 1, width);
+        modes.model.evaluate(time, ys, 0);
+        modes.curve.setSamples(0, 1, ys, width + 1);
+        return modes.curve;
+    }
+
+    @State(Scope.Thread)
+    public static class Impulse {
+        // 0: Gaussian, 1: Square, 2: Triangular, 3: Sinc
+        @Param({"0", "1", "2", "3"})
+        private int type;
+
+        private final PulseShapeCache shapes = new PulseShapeCache(8);
+    }
+
+    @Benchmark
+    public double[] impulseFrame(Impulse impulse) {
+        time += 1.0 / 60;
+        double t0 = (time * 5) % (width * 1.5) - width * 0.25;
+        for (int x = 0; x <= width; x++) {
+            ys[x] = Waves.impulse(impulse.type, (x - t0) / 50.0);
+        }
+        return ys;
+    }
+
+    @Benchmark
+    public double[] impulseCachedFrame(Impulse impulse) {
+        time += 1.0 / 60;
+        double t0 = (time * 5) % (width * 1.5) - width * 0.25;
+        impulse.shapes.sample(impulse.type, 50.0, width, t0, ys);
+        return ys;
+    }
+}
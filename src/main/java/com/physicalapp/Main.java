@@ -1,5 +1,6 @@
 package com.physicalapp;
 
+import com.physicalapp.headless.HeadlessRunner;
 import com.physicalapp.view.MainWindow;
 import com.physicalapp.model.Phenomenon;
 import javafx.application.Application;
@@ -13,7 +14,12 @@ public class Main extends Application {
         mainWindow.show();
     }
 
+    // --headless runs the physics from the command line instead; see HeadlessRunner
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--headless")) {
+            HeadlessRunner.main(args);
+            return;
+        }
         launch(args);
     }
 } 
\ No newline at end of file
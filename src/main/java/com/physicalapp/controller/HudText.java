@@ -0,0 +1,50 @@
+package com.physicalapp.controller;
+
+import java.text.DecimalFormatSymbols;
+
+// One HUD line of the form prefix + value with two decimals + suffix. The text is built
+// in a reusable buffer and a new String is made only when the shown digits change, so a
+// steady readout costs no allocation per frame.
+final class HudText {
+    private final String prefix;
+    private final String suffix;
+    private final char decimalSeparator = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+    private final StringBuilder buffer = new StringBuilder(64);
+    private long shownCents = -1;
+    private boolean shownNegative;
+    private String text;
+
+    HudText(String prefix, String suffix) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    String format(double value) {
+        // Same rounding and sign as String.format("%.2f"), including "-0.00". The formatter
+        // rounds the shortest decimal form half up, so a value rounds up exactly when it is not
+        // below the double nearest to the halfway point; abs * 100 alone misrounds 1.005.
+        boolean negative = value < 0 || (value == 0 && 1 / value < 0);
+        double abs = Math.abs(value);
+        long cents = (long) Math.floor(abs * 100);
+        if (abs >= (2 * cents + 1) / 200.0) {
+            cents++;
+        }
+        if (text == null || cents != shownCents || negative != shownNegative) {
+            shownCents = cents;
+            shownNegative = negative;
+            buffer.setLength(0);
+            buffer.append(prefix);
+            if (negative) {
+                buffer.append('-');
+            }
+            long fraction = cents % 100;
+            buffer.append(cents / 100).append(decimalSeparator);
+            if (fraction < 10) {
+                buffer.append('0');
+            }
+            buffer.append(fraction).append(suffix);
+            text = buffer.toString();
+        }
+        return text;
+    }
+}
@@ -1,28 +1,82 @@
 package com.physicalapp.controller;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import javafx.animation.AnimationTimer;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.Paint;
 import javafx.scene.paint.Stop;
 import javafx.scene.paint.RadialGradient;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.shape.StrokeLineCap;
 import javafx.scene.shape.StrokeLineJoin;
 import com.physicalapp.model.Phenomenon;
-import java.util.HashMap;
-import java.util.Map;
+import com.physicalapp.physics.CollisionModel;
+import com.physicalapp.physics.DoublePendulumModel;
+import com.physicalapp.physics.FixedStepLoop;
+import com.physicalapp.physics.ParameterSchemas;
+import com.physicalapp.physics.ParameterSchemas.Collisions;
+import com.physicalapp.physics.ParameterSchemas.DoublePendulum;
+import com.physicalapp.physics.ParameterSchemas.ImpulseTypes;
+import com.physicalapp.physics.ParameterSchemas.SimplePendulum;
+import com.physicalapp.physics.ParameterSchemas.SpringOscillator;
+import com.physicalapp.physics.ParameterSchemas.StandingWaves;
+import com.physicalapp.physics.ParameterStore;
+import com.physicalapp.physics.PhysicsModel;
+import com.physicalapp.physics.SimplePendulumModel;
+import com.physicalapp.physics.chaos.LyapunovEstimator;
+import com.physicalapp.physics.chaos.LyapunovMonitor;
+import com.physicalapp.physics.record.RunRecorder;
+import com.physicalapp.physics.record.RunReplay;
+import com.physicalapp.physics.record.TimeSeriesExporter;
+import com.physicalapp.physics.wave.PulseShapeCache;
+import com.physicalapp.physics.wave.PulseSpectrum;
+import com.physicalapp.render.CurvePath;
+import com.physicalapp.simulation.DoublePendulumEnsembleSimulation;
+import com.physicalapp.simulation.FlipMapSimulation;
+import com.physicalapp.simulation.MirrorReflectionSimulation;
+import com.physicalapp.simulation.PhysicsSimulation;
+import com.physicalapp.simulation.StandingWaveSimulation;
+import com.physicalapp.simulation.StringWaveSimulation;
+import com.physicalapp.simulation.TrailLayer;
 
 public class SimulationController {
+    private final Canvas backgroundCanvas;
+    private final GraphicsContext backgroundGc;
     private final Canvas canvas;
     private final GraphicsContext gc;
     private final Phenomenon phenomenon;
-    private final Map<String, Double> parameters;
+    private final ParameterStore parameters;
+    private PhysicsModel model;
+    private double[] state;
+    private double[] observables;
+    private double[] exportRow;
+    private FixedStepLoop physicsLoop;
+    private PhysicsSimulation simulation;
+    private double physicsRate = DEFAULT_PHYSICS_RATE;
+    private RunRecorder recorder;
+    private int keyframeInterval = 1;
+    // While a recording is replayed the model shows recorded states only; slider changes are
+    // kept in liveParameters and take effect when the replay is closed
+    private RunReplay replay;
+    private double[] liveParameters;
+    private TimeSeriesExporter exporter;
+    private LyapunovMonitor lyapunov;
     private AnimationTimer animationTimer;
     private long lastUpdate = 0;
     private double time = 0;
+    // Model time of state, which exported rows carry; the frame clock above runs on wall time
+    private double physicsTime;
+    private double loopStartTime;
+    // The background layer holds what depends only on the parameters and the canvas size
+    // and is redrawn only when one of them changes.
+    private boolean backgroundDirty = true;
 
 
     private static final Color PRIMARY_COLOR = Color.web("#3498db");
@@ -30,84 +84,222 @@ public class SimulationController {
     private static final Color ACCENT_COLOR = Color.web("#e74c3c");
     private static final Color BACKGROUND_COLOR = Color.web("#f5f7fa");
     private static final Color GRID_COLOR = Color.web("#ecf0f1");
+    private static final Color WALL_COLOR = Color.web("#95a5a6");
+    private static final Color INSET_COLOR = Color.rgb(255, 255, 255, 0.85);
     private static final double SHADOW_BLUR = 10;
-
-    public SimulationController(Phenomenon phenomenon, Canvas canvas) {
+    private static final double SPRITE_PADDING = SHADOW_BLUR * 1.5;
+    private static final double SPRITE_SCALE = 2;
+    
+    // Paints are immutable, so one instance per look is shared by every frame. Proportional
+    // gradients are laid out relative to the bounds of each shape, which lets the same
+    // object follow a moving bob or string.
+    private static final Stop[] STRING_STOPS = {new Stop(0, PRIMARY_COLOR), new Stop(1, SECONDARY_COLOR)};
+    private static final Stop[] BOB_STOPS = {new Stop(0, ACCENT_COLOR), new Stop(1, ACCENT_COLOR.darker())};
+    private static final RadialGradient BOB_GRADIENT = new RadialGradient(
+        0, 0, 0.5, 0.5, 0.5,
+        true, CycleMethod.NO_CYCLE,
+        BOB_STOPS
+    );
+    private static final LinearGradient[] STRING_GRADIENTS = createStringGradients();
+    private static final DropShadow SHADOW = new DropShadow(SHADOW_BLUR, Color.rgb(0, 0, 0, 0.3));
+    
+    // Shadowed shapes are rendered once into sprites: setEffect() copies the effect on every call.
+    private final Image pivotSprite;
+    private final Image bobSprite;
+    private final Image nodeSprite;
+    private final Image wallSprite;
+    private final Image massSprite;
+    
+    // Pulse shapes are tabulated per type and width; a frame only shifts and interpolates
+    private final PulseShapeCache pulseShapes = new PulseShapeCache(8);
+    private double[] impulseYs = new double[0];
+    private final CurvePath impulseCurve = new CurvePath();
+    
+    private static final int SPECTRUM_SIZE = 1 << 16;
+    private static final int SPECTRUM_COLUMNS = 240;
+    private static final double SPECTRUM_HEIGHT = 100;
+    private static final double SPECTRUM_MAX_CYCLES = 4;   // per pulse width
+    private PulseSpectrum pulseSpectrum;
+    private final double[] spectrumDb = new double[SPECTRUM_COLUMNS];
+    private final double[] spectrumXs = new double[SPECTRUM_COLUMNS];
+    private final double[] spectrumYs = new double[SPECTRUM_COLUMNS];
+    private int spectrumType = -1;
+    private double spectrumWidth = Double.NaN;
+    
+    // Path of the second bob of the double pendulum; restarts whenever the parameters change
+    private static final int DOUBLE_PENDULUM_TRAIL_POINTS = 100_000;
+    private static final Color TRAIL_COLOR = Color.rgb(52, 152, 219, 0.25);
+    private TrailLayer doublePendulumTrail;
+    
+    private final HudText velocity1Text = new HudText("v1 = ", " м/с");
+    private final HudText velocity2Text = new HudText("v2 = ", " м/с");
+    private final HudText energyText = new HudText("Кинетическая энергия = ", " Дж");
+    private final HudText momentumText = new HudText("Импульс = ", " кг·м/с");
+    private static final double MAX_STEP = 1.0 / 240;
+    private static final double DEFAULT_PHYSICS_RATE = 1000;
+    private static final int EXPORT_QUEUE_ROWS = 1 << 14;
+    private static final long EXPORT_BLOCK_NANOS = 2_000_000L;   // well inside one frame
+    private static final int LYAPUNOV_TRAJECTORIES = 64;
+    private static final double LYAPUNOV_SPREAD = 1.0;           // degrees around the slider angles
+    private static final double LYAPUNOV_MAX_TIME = 600;         // pendulum seconds per estimate
+
+    public SimulationController(Phenomenon phenomenon, Canvas backgroundCanvas, Canvas canvas) {
         this.phenomenon = phenomenon;
+        this.backgroundCanvas = backgroundCanvas;
+        this.backgroundGc = backgroundCanvas.getGraphicsContext2D();
         this.canvas = canvas;
         this.gc = canvas.getGraphicsContext2D();
-        this.parameters = new HashMap<>();
+        this.parameters = new ParameterStore(ParameterSchemas.forPhenomenon(phenomenon.getId()));
+        
+        pivotSprite = createSprite(16, 16, PRIMARY_COLOR, true);
+        bobSprite = createSprite(30, 30, BOB_GRADIENT, true);
+        nodeSprite = createSprite(12, 12, ACCENT_COLOR, true);
+        wallSprite = createSprite(20, 100, WALL_COLOR, false);
+        massSprite = createSprite(40, 40, BOB_GRADIENT, false);
         
 
-        initializeDefaultParameters();
+        initializeModel();
         
 
         startSimulation();
     }
 
-    private void initializeDefaultParameters() {
-        switch (phenomenon.getId()) {
-            case "simple-pendulum" -> {
-                parameters.put("length", 1.0);
-                parameters.put("angle", 45.0);
-                parameters.put("damping", 0.1);
-            }
+    // Index by direction of the line: bit 0 set when it runs right to left, bit 1 when bottom to top.
+    private static LinearGradient[] createStringGradients() {
+        LinearGradient[] gradients = new LinearGradient[4];
+        for (int i = 0; i < gradients.length; i++) {
+            double startX = i & 1;
+            double startY = (i >> 1) & 1;
+            gradients[i] = new LinearGradient(
+                startX, startY, 1 - startX, 1 - startY,
+                true, CycleMethod.NO_CYCLE,
+                STRING_STOPS
+            );
+        }
+        return gradients;
+    }
+
+    private static LinearGradient stringGradient(double startX, double startY, double endX, double endY) {
+        int index = (endX < startX ? 1 : 0) | (endY < startY ? 2 : 0);
+        return STRING_GRADIENTS[index];
+    }
+
+    private static Image createSprite(double width, double height, Paint fill, boolean oval) {
+        Canvas spriteCanvas = new Canvas(
+            (width + 2 * SPRITE_PADDING) * SPRITE_SCALE,
+            (height + 2 * SPRITE_PADDING) * SPRITE_SCALE
+        );
+        GraphicsContext spriteGc = spriteCanvas.getGraphicsContext2D();
+        spriteGc.scale(SPRITE_SCALE, SPRITE_SCALE);
+        spriteGc.setEffect(SHADOW);
+        spriteGc.setFill(fill);
+        if (oval) {
+            spriteGc.fillOval(SPRITE_PADDING, SPRITE_PADDING, width, height);
+        } else {
+            spriteGc.fillRect(SPRITE_PADDING, SPRITE_PADDING, width, height);
+        }
+        
+        SnapshotParameters snapshotParameters = new SnapshotParameters();
+        snapshotParameters.setFill(Color.TRANSPARENT);
+        return spriteCanvas.snapshot(snapshotParameters, null);
+    }
+
+    // Draws a sprite made by createSprite() centered on (x, y).
+    private void drawSprite(Image sprite, double x, double y) {
+        drawSprite(gc, sprite, x, y);
+    }
+
+    private static void drawSprite(GraphicsContext target, Image sprite, double x, double y) {
+        double width = sprite.getWidth() / SPRITE_SCALE;
+        double height = sprite.getHeight() / SPRITE_SCALE;
+        target.drawImage(sprite, x - width / 2, y - height / 2, width, height);
+    }
+
+    private void initializeModel() {
+        model = switch (phenomenon.getId()) {
+            case "simple-pendulum" -> new SimplePendulumModel();
             case "double-pendulum" -> {
-                parameters.put("length1", 1.0);
-                parameters.put("length2", 1.0);
-                parameters.put("angle1", 45.0);
-                parameters.put("angle2", 45.0);
-                parameters.put("mass1", 1.0);
-                parameters.put("mass2", 1.0);
-            }
-            case "string-wave" -> {
-                parameters.put("tension", 50.0);
-                parameters.put("amplitude", 0.5);
-                parameters.put("frequency", 1.0);
-            }
-            case "spring-oscillator" -> {
-                parameters.put("springConstant", 50.0);
-                parameters.put("mass", 1.0);
-                parameters.put("damping", 0.1);
-            }
-            case "standing-waves" -> {
-                parameters.put("speed", 5.0);
-                parameters.put("nodes", 3.0);
-                parameters.put("amplitude", 0.5);
-            }
-            case "impulse-types" -> {
-                parameters.put("type", 0.0);  // 0: Gaussian, 1: Square, 2: Triangular, 3: Sinc
-                parameters.put("amplitude", 1.0);
-                parameters.put("width", 0.5);
-                parameters.put("speed", 5.0);
+                doublePendulumTrail = new TrailLayer(DOUBLE_PENDULUM_TRAIL_POINTS, TRAIL_COLOR);
+                yield new DoublePendulumModel();
             }
             case "collisions" -> {
-                parameters.put("mass1", 1.0);
-                parameters.put("mass2", 1.0);
-                parameters.put("velocity1", 5.0);
-                parameters.put("velocity2", -5.0);
-                parameters.put("restitution", 1.0);
-                parameters.put("collision_time", -1.0); // Время столкновения
-                parameters.put("x1", 200.0); // Начальное положение первого тела
-                parameters.put("x2", 400.0); // Начальное положение второго тела
+                CollisionModel collision = new CollisionModel();
+                collision.setWidth(canvas.getWidth());
+                yield collision;
             }
-            case "mirror-reflection" -> {
-                parameters.put("mirrorType", 0.0);  // 0: плоское, 1: вогнутое, 2: выпуклое
-                parameters.put("curvature", 1.0);
-                parameters.put("angle", 30.0);
-                parameters.put("rays", 3.0);
+            default -> null;
+        };
+        
+        if (model != null) {
+            model.setParameters(parameters.snapshot());
+            state = new double[model.getStateSize()];
+            model.copyState(state);
+            observables = new double[model.getObservableNames().length];
+            exportRow = new double[state.length + observables.length];
+        }
+        
+        simulation = switch (phenomenon.getId()) {
+            case "double-pendulum-ensemble" -> new DoublePendulumEnsembleSimulation();
+            case "double-pendulum-flip-map" -> new FlipMapSimulation();
+            case "string-wave" -> new StringWaveSimulation();
+            case "standing-waves" -> new StandingWaveSimulation();
+            case "mirror-reflection" -> new MirrorReflectionSimulation();
+            default -> null;
+        };
+        
+        if (simulation != null) {
+            double[] values = parameters.snapshot();
+            for (int i = 0; i < values.length; i++) {
+                simulation.updateParameter(i, values[i]);
             }
-            default -> throw new IllegalStateException("Unknown phenomenon: " + phenomenon.getId());
         }
     }
 
     public void updateParameters(String name, double value) {
-        parameters.put(name, value);
+        if (replay != null) {
+            int index = parameters.getSchema().indexOf(name);
+            if (index >= 0) {
+                liveParameters[index] = value;
+            }
+            return;
+        }
+        int index = parameters.set(name, value);
+        if (index < 0) {
+            return;
+        }
+        // With a physics thread running, the loop picks the new snapshot up itself
+        if (physicsLoop == null && model != null) {
+            model.setParameter(index, value);
+        }
+        if (simulation != null) {
+            simulation.updateParameter(index, value);
+        }
+        backgroundDirty = true;
+        clearTrail();
+    }
+
+    // Steps per second of the dedicated physics thread; 0 steps the model from the frame pulse instead.
+    public void setPhysicsRate(double rate) {
+        if (recorder != null) {
+            throw new IllegalStateException("The physics rate is fixed while recording");
+        }
+        physicsRate = rate;
+        startSimulation();
+    }
+
+    public double getPhysicsRate() {
+        return physicsRate;
     }
 
     public void startSimulation() {
-        if (animationTimer != null) {
-            animationTimer.stop();
+        stop();
+        lastUpdate = 0;
+
+        if (model != null && physicsRate > 0 && replay == null) {
+            physicsLoop = new FixedStepLoop(model, parameters, physicsRate);
+            loopStartTime = physicsTime;
+            physicsLoop.setRecorder(recorder, keyframeInterval);
+            physicsLoop.start();
         }
 
         animationTimer = new AnimationTimer() {
@@ -122,42 +314,294 @@ public class SimulationController {
                 time += deltaTime;
                 lastUpdate = now;
 
-                updateSimulation(deltaTime);
+                updateSimulation(deltaTime, now);
             }
         };
         animationTimer.start();
     }
 
+    // Only phenomena stepped by a PhysicsModel have a state to record, and it must be
+    // restorable for the recording to be replayed
+    public boolean canRecord() {
+        return model != null && model.canRestore();
+    }
+
+    public boolean isRecording() {
+        return recorder != null;
+    }
+
+    // Every keyframeInterval-th physics step is appended to the file on the physics thread as a
+    // keyframe (state and parameters); 1 records every step. The FX thread only opens and
+    // closes the file. Only the physics thread writes keyframes, so a frame-stepped run
+    // (physics rate 0) cannot be recorded.
+    public void startRecording(Path file, int keyframeInterval) throws IOException {
+        if (physicsRate <= 0) {
+            throw new IllegalStateException("Recording needs the physics thread; the physics rate is 0");
+        }
+        stopRecording();
+        recorder = new RunRecorder(file, RunReplay.columnNames(model), 1 / physicsRate);
+        this.keyframeInterval = keyframeInterval;
+        if (physicsLoop != null) {
+            physicsLoop.setRecorder(recorder, keyframeInterval);
+        }
+    }
+
+    // Returns the number of samples written
+    public long stopRecording() throws IOException {
+        if (recorder == null) {
+            return 0;
+        }
+        RunRecorder finished = recorder;
+        recorder = null;
+        IOException failure = null;
+        if (physicsLoop != null) {
+            physicsLoop.setRecorder(null, 1);
+            if (physicsLoop.getRecordingFailure() != null) {
+                failure = physicsLoop.getRecordingFailure().getCause();
+            }
+        }
+        finished.close();
+        if (failure != null) {
+            throw failure;
+        }
+        return finished.getSampleCount();
+    }
+
+    public boolean isExporting() {
+        return exporter != null;
+    }
+
+    // Every frame's state and observables (energies, momenta) go to the file as one row, stamped
+    // with the model time of that state. The frame only copies the row into a bounded queue
+    // that a background thread writes out; BLOCK waits at most EXPORT_BLOCK_NANOS for room,
+    // so a slow disk never stalls the timer.
+    public void startExport(Path file, TimeSeriesExporter.Format format,
+                            TimeSeriesExporter.OverflowPolicy policy) throws IOException {
+        if (replay != null) {
+            throw new IllegalStateException("A replay shows recorded states only and is not exported");
+        }
+        stopExport();
+        String[] stateNames = model.getStateNames();
+        String[] observableNames = model.getObservableNames();
+        String[] columns = new String[stateNames.length + observableNames.length];
+        System.arraycopy(stateNames, 0, columns, 0, stateNames.length);
+        System.arraycopy(observableNames, 0, columns, stateNames.length, observableNames.length);
+        exporter = new TimeSeriesExporter(file, columns, format, EXPORT_QUEUE_ROWS, policy, EXPORT_BLOCK_NANOS);
+    }
+
+    // Returns {rows written, rows dropped}
+    public long[] stopExport() throws IOException {
+        if (exporter == null) {
+            return new long[2];
+        }
+        TimeSeriesExporter finished = exporter;
+        exporter = null;
+        finished.close();
+        return new long[] {finished.getWrittenCount(), finished.getDroppedCount()};
+    }
+
+    // The maximal Lyapunov exponent is estimated for the double pendulum only
+    public boolean canEstimateLyapunov() {
+        return model instanceof DoublePendulumModel;
+    }
+
+    // Runs in the background, following parameter changes, until stopLyapunov()
+    public void startLyapunov() {
+        if (lyapunov == null && canEstimateLyapunov()) {
+            lyapunov = new LyapunovMonitor(parameters, LYAPUNOV_TRAJECTORIES, LYAPUNOV_SPREAD, LYAPUNOV_MAX_TIME);
+            lyapunov.start();
+        }
+    }
+
+    public void stopLyapunov() {
+        if (lyapunov != null) {
+            lyapunov.stop();
+            lyapunov = null;
+        }
+    }
+
+    // Latest published estimate, null while none is available
+    public LyapunovEstimator.Estimate getLyapunovEstimate() {
+        return lyapunov != null ? lyapunov.getEstimate() : null;
+    }
+
+    public boolean isReplaying() {
+        return replay != null;
+    }
+
+    // Stops the live run and shows the recording from its start. Closing the replay restarts
+    // the live run from the sliders.
+    public void openReplay(Path file) throws IOException {
+        stopRecording();
+        stopExport();
+        if (replay == null) {
+            liveParameters = parameters.snapshot().clone();
+        } else {
+            replay.close();
+            replay = null;
+        }
+        stop();
+        try {
+            replay = new RunReplay(file, model);
+        } catch (IOException e) {
+            closeReplay();
+            throw e;
+        }
+        startSimulation();
+        seekReplay(replay.getStartTime());
+    }
+
+    public double getReplayStart() {
+        return replay.getStartTime();
+    }
+
+    public double getReplayEnd() {
+        return replay.getEndTime();
+    }
+
+    // Shows the recorded state at time and returns the time actually shown. Costs a binary
+    // search and at most one keyframe interval of steps, so it can follow a dragged slider.
+    public double seekReplay(double time) throws IOException {
+        double reached = replay.seek(time);
+        model.copyState(state);
+        physicsTime = reached;
+        // Drawing reads sizes from the store, so it gets the recorded parameters
+        double[] recorded = replay.getParameters();
+        for (int i = 0; i < recorded.length; i++) {
+            if (Double.compare(parameters.get(i), recorded[i]) != 0) {
+                parameters.set(i, recorded[i]);
+                backgroundDirty = true;
+            }
+        }
+        clearTrail();
+        return reached;
+    }
+
+    public void closeReplay() throws IOException {
+        stop();
+        RunReplay closing = replay;
+        replay = null;
+        for (int i = 0; i < liveParameters.length; i++) {
+            parameters.set(i, liveParameters[i]);
+        }
+        model.setParameters(liveParameters);
+        model.copyState(state);
+        backgroundDirty = true;
+        clearTrail();
+        startSimulation();
+        if (closing != null) {
+            closing.close();
+        }
+    }
+
+    // Leaves the physics thread running, for tests that drive frames through updateSimulation()
+    void stopAnimationTimer() {
+        if (animationTimer != null) {
+            animationTimer.stop();
+        }
+    }
+
     public void stop() {
         if (animationTimer != null) {
             animationTimer.stop();
         }
+        if (physicsLoop != null) {
+            physicsLoop.stop();
+            physicsLoop = null;
+        }
+        if (simulation != null) {
+            simulation.stop();
+        }
     }
 
-    private void drawGrid() {
+    private void drawBackground() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        backgroundCanvas.setWidth(width);
+        backgroundCanvas.setHeight(height);
+        
+        backgroundGc.setFill(BACKGROUND_COLOR);
+        backgroundGc.fillRect(0, 0, width, height);
+        
+        drawGrid(backgroundGc);
+        
+        backgroundGc.setLineWidth(2);
+        backgroundGc.setLineCap(StrokeLineCap.ROUND);
+        backgroundGc.setLineJoin(StrokeLineJoin.ROUND);
+
+        switch (phenomenon.getId()) {
+            case "spring-oscillator" -> drawSprite(backgroundGc, wallSprite, width / 2 - 110, height / 2);
+            case "standing-waves" -> drawStandingWaveNodes(backgroundGc);
+            case "impulse-types" -> {
+                backgroundGc.setStroke(Color.GRAY);
+                backgroundGc.strokeLine(0, height / 2, width, height / 2);
+            }
+            default -> { }
+        }
+        if (simulation != null) {
+            simulation.drawBackground(backgroundGc);
+        }
+        backgroundDirty = false;
+    }
+
+    private void drawGrid(GraphicsContext target) {
         double width = canvas.getWidth();
         double height = canvas.getHeight();
         double spacing = 20;
 
-        gc.setStroke(GRID_COLOR);
-        gc.setLineWidth(1);
+        target.setStroke(GRID_COLOR);
+        target.setLineWidth(1);
 
 
         for (double x = 0; x <= width; x += spacing) {
-            gc.strokeLine(x, 0, x, height);
+            target.strokeLine(x, 0, x, height);
         }
 
 
         for (double y = 0; y <= height; y += spacing) {
-            gc.strokeLine(0, y, width, y);
+            target.strokeLine(0, y, width, y);
         }
     }
 
-    private void updateSimulation(double deltaTime) {
-        gc.setFill(BACKGROUND_COLOR);
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+    private void stepModel(double deltaTime) {
+        int steps = (int) Math.ceil(deltaTime / MAX_STEP);
+        double dt = deltaTime / steps;
+        for (int i = 0; i < steps; i++) {
+            model.step(dt);
+        }
+        model.copyState(state);
+        physicsTime += deltaTime;
+    }
+
+    // One frame: advances the phenomenon and redraws it. Package-private so tests can drive
+    // frames without the animation timer.
+    void updateSimulation(double deltaTime, long now) {
+        if (physicsLoop != null) {
+            double loopTime = physicsLoop.readInterpolated(state, now);
+            if (!Double.isNaN(loopTime)) {
+                physicsTime = loopStartTime + loopTime;
+            }
+        } else if (model != null && deltaTime > 0 && replay == null) {
+            stepModel(deltaTime);
+        }
+        if (model != null) {
+            model.computeObservables(state, parameters.snapshot(), observables);
+            if (exporter != null && replay == null) {
+                System.arraycopy(state, 0, exportRow, 0, state.length);
+                System.arraycopy(observables, 0, exportRow, state.length, observables.length);
+                exporter.offer(physicsTime, exportRow);
+            }
+        }
+        if (simulation != null) {
+            simulation.update(deltaTime);
+        }
         
-        drawGrid();
+        if (backgroundDirty
+                || backgroundCanvas.getWidth() != canvas.getWidth()
+                || backgroundCanvas.getHeight() != canvas.getHeight()) {
+            drawBackground();
+        }
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
         
         gc.setLineWidth(2);
         gc.setLineCap(StrokeLineCap.ROUND);
@@ -166,24 +610,21 @@ public class SimulationController {
         switch (phenomenon.getId()) {
             case "simple-pendulum" -> drawSimplePendulum();
             case "double-pendulum" -> drawDoublePendulum();
-            case "string-wave" -> drawStringWave();
+            case "double-pendulum-ensemble" -> simulation.draw(gc);
+            case "double-pendulum-flip-map" -> simulation.draw(gc);
+            case "string-wave" -> simulation.draw(gc);
             case "spring-oscillator" -> drawSpringOscillator();
-            case "standing-waves" -> drawStandingWaves();
+            case "standing-waves" -> simulation.draw(gc);
             case "impulse-types" -> drawImpulse();
-            case "collisions" -> updateCollision(deltaTime);
-            case "mirror-reflection" -> drawMirrorReflection();
+            case "collisions" -> drawCollision();
+            case "mirror-reflection" -> simulation.draw(gc);
             default -> throw new IllegalStateException("Unknown phenomenon: " + phenomenon.getId());
         }
     }
 
     private void drawSimplePendulum() {
-        double length = parameters.get("length") * 100;
-        double angle = Math.toRadians(parameters.get("angle"));
-        double damping = parameters.get("damping");
-        
-        double g = 9.81;
-        double omega = Math.sqrt(g / (length / 100));
-        double dampedAngle = angle * Math.exp(-damping * time) * Math.cos(omega * time);
+        double length = parameters.get(SimplePendulum.LENGTH) * 100;
+        double dampedAngle = state[0];
         
         double centerX = canvas.getWidth() / 2;
         double centerY = canvas.getHeight() / 3;
@@ -192,39 +633,21 @@ public class SimulationController {
         double bobY = centerY + length * Math.cos(dampedAngle);
         
 
-        LinearGradient stringGradient = new LinearGradient(
-            centerX, centerY,
-            bobX, bobY,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, PRIMARY_COLOR),
-            new Stop(1, SECONDARY_COLOR)
-        );
-        gc.setStroke(stringGradient);
+        gc.setStroke(stringGradient(centerX, centerY, bobX, bobY));
         gc.setLineWidth(3);
         gc.strokeLine(centerX, centerY, bobX, bobY);
         
 
-        gc.setFill(PRIMARY_COLOR);
-        gc.setEffect(new DropShadow(SHADOW_BLUR, Color.rgb(0, 0, 0, 0.3)));
-        gc.fillOval(centerX - 8, centerY - 8, 16, 16);
-        
-
-        RadialGradient bobGradient = new RadialGradient(
-            0, 0, bobX, bobY, 15,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, ACCENT_COLOR),
-            new Stop(1, ACCENT_COLOR.darker())
-        );
-        gc.setFill(bobGradient);
-        gc.fillOval(bobX - 15, bobY - 15, 30, 30);
-        gc.setEffect(null);
+        drawSprite(pivotSprite, centerX, centerY);
+        drawSprite(bobSprite, bobX, bobY);
     }
 
     private void drawDoublePendulum() {
-        double l1 = parameters.get("length1") * 100;
-        double l2 = parameters.get("length2") * 100;
-        double theta1 = Math.toRadians(parameters.get("angle1"));
-        double theta2 = Math.toRadians(parameters.get("angle2"));
+        double[] p = parameters.snapshot();
+        double l1 = p[DoublePendulum.LENGTH1] * 100;
+        double l2 = p[DoublePendulum.LENGTH2] * 100;
+        double theta1 = state[0];
+        double theta2 = state[1];
         
         double centerX = canvas.getWidth() / 2;
         double centerY = canvas.getHeight() / 3;
@@ -235,91 +658,32 @@ public class SimulationController {
         double x2 = x1 + l2 * Math.sin(theta2);
         double y2 = y1 + l2 * Math.cos(theta2);
         
+        doublePendulumTrail.draw(gc);
+        doublePendulumTrail.add(x2, y2);
 
-        LinearGradient string1Gradient = new LinearGradient(
-            centerX, centerY, x1, y1,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, PRIMARY_COLOR),
-            new Stop(1, SECONDARY_COLOR)
-        );
-        LinearGradient string2Gradient = new LinearGradient(
-            x1, y1, x2, y2,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, PRIMARY_COLOR),
-            new Stop(1, SECONDARY_COLOR)
-        );
-        
         gc.setLineWidth(3);
-        gc.setStroke(string1Gradient);
+        gc.setStroke(stringGradient(centerX, centerY, x1, y1));
         gc.strokeLine(centerX, centerY, x1, y1);
-        gc.setStroke(string2Gradient);
+        gc.setStroke(stringGradient(x1, y1, x2, y2));
         gc.strokeLine(x1, y1, x2, y2);
         
 
-        gc.setEffect(new DropShadow(SHADOW_BLUR, Color.rgb(0, 0, 0, 0.3)));
-        
-
-        gc.setFill(PRIMARY_COLOR);
-        gc.fillOval(centerX - 8, centerY - 8, 16, 16);
-        
-
-        RadialGradient bob1Gradient = new RadialGradient(
-            0, 0, x1, y1, 15,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, ACCENT_COLOR),
-            new Stop(1, ACCENT_COLOR.darker())
-        );
-        gc.setFill(bob1Gradient);
-        gc.fillOval(x1 - 15, y1 - 15, 30, 30);
-        
-
-        RadialGradient bob2Gradient = new RadialGradient(
-            0, 0, x2, y2, 15,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, ACCENT_COLOR),
-            new Stop(1, ACCENT_COLOR.darker())
-        );
-        gc.setFill(bob2Gradient);
-        gc.fillOval(x2 - 15, y2 - 15, 30, 30);
-        
-        gc.setEffect(null);
+        drawSprite(pivotSprite, centerX, centerY);
+        drawSprite(bobSprite, x1, y1);
+        drawSprite(bobSprite, x2, y2);
     }
 
-    private void drawStringWave() {
-        double tension = parameters.get("tension");
-        double amplitude = parameters.get("amplitude") * 100;
-        double frequency = parameters.get("frequency");
-        
-        double width = canvas.getWidth();
-        double centerY = canvas.getHeight() / 2;
-        
-
-        LinearGradient waveGradient = new LinearGradient(
-            0, centerY - amplitude,
-            0, centerY + amplitude,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, PRIMARY_COLOR),
-            new Stop(1, SECONDARY_COLOR)
-        );
-        gc.setStroke(waveGradient);
-        gc.setLineWidth(3);
-        
-        gc.beginPath();
-        gc.moveTo(0, centerY);
-        
-        for (double x = 0; x <= width; x++) {
-            double wavelength = Math.sqrt(tension) * 50;
-            double y = centerY + amplitude * Math.sin(2 * Math.PI * (x / wavelength - frequency * time));
-            gc.lineTo(x, y);
+    private void clearTrail() {
+        if (doublePendulumTrail != null) {
+            doublePendulumTrail.clear();
         }
-        
-        gc.stroke();
     }
 
     private void drawSpringOscillator() {
-        double k = parameters.get("springConstant");
-        double m = parameters.get("mass");
-        double damping = parameters.get("damping");
+        double[] p = parameters.snapshot();
+        double k = p[SpringOscillator.SPRING_CONSTANT];
+        double m = p[SpringOscillator.MASS];
+        double damping = p[SpringOscillator.DAMPING];
         
         double omega = Math.sqrt(k / m);
         double amplitude = 100;
@@ -330,200 +694,104 @@ public class SimulationController {
         double displacement = amplitude * Math.exp(-damping * time) * Math.cos(omega * time);
         
 
-        gc.setEffect(new DropShadow(SHADOW_BLUR, Color.rgb(0, 0, 0, 0.3)));
-        gc.setFill(Color.web("#95a5a6"));
-        gc.fillRect(centerX - 120, centerY - 50, 20, 100);
-        
-
-        LinearGradient springGradient = new LinearGradient(
-            centerX - 100, centerY,
-            centerX + displacement - 20, centerY,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, PRIMARY_COLOR),
-            new Stop(1, SECONDARY_COLOR)
-        );
-        gc.setStroke(springGradient);
+        gc.setStroke(stringGradient(centerX - 100, centerY, centerX + displacement - 20, centerY));
         gc.setLineWidth(3);
         gc.strokeLine(centerX - 100, centerY, centerX + displacement - 20, centerY);
         
 
-        RadialGradient massGradient = new RadialGradient(
-            0, 0,
-            centerX + displacement, centerY,
-            20, false, CycleMethod.NO_CYCLE,
-            new Stop(0, ACCENT_COLOR),
-            new Stop(1, ACCENT_COLOR.darker())
-        );
-        gc.setFill(massGradient);
-        gc.fillRect(centerX + displacement - 20, centerY - 20, 40, 40);
-        
-        gc.setEffect(null);
+        drawSprite(massSprite, centerX + displacement, centerY);
     }
 
-    private void drawStandingWaves() {
-        double speed = parameters.get("speed");
-        int nodes = parameters.get("nodes").intValue();
-        double amplitude = parameters.get("amplitude") * 100;
-        
+    // The wave itself is drawn by StandingWaveSimulation
+    private void drawStandingWaveNodes(GraphicsContext target) {
+        int nodes = (int) parameters.get(StandingWaves.NODES);
         double width = canvas.getWidth();
         double centerY = canvas.getHeight() / 2;
         
-
-        LinearGradient waveGradient = new LinearGradient(
-            0, centerY - amplitude,
-            0, centerY + amplitude,
-            false, CycleMethod.NO_CYCLE,
-            new Stop(0, PRIMARY_COLOR),
-            new Stop(1, SECONDARY_COLOR)
-        );
-        gc.setStroke(waveGradient);
-        gc.setLineWidth(3);
-        
-        gc.beginPath();
-        gc.moveTo(0, centerY);
-        
-        for (double x = 0; x <= width; x++) {
-            double k = nodes * Math.PI / width;
-            double omega = k * speed;
-            double y = centerY + amplitude * Math.sin(k * x) * Math.cos(omega * time);
-            gc.lineTo(x, y);
-        }
-        
-        gc.stroke();
-        
-
-        gc.setEffect(new DropShadow(SHADOW_BLUR, Color.rgb(0, 0, 0, 0.3)));
-        gc.setFill(ACCENT_COLOR);
         for (int i = 0; i <= nodes; i++) {
             double x = i * width / nodes;
-            gc.fillOval(x - 6, centerY - 6, 12, 12);
+            drawSprite(target, nodeSprite, x, centerY);
         }
-        gc.setEffect(null);
     }
 
     private void drawImpulse() {
-        int type = parameters.get("type").intValue();
-        double amplitude = parameters.get("amplitude");
-        double width = parameters.get("width");
-        double speed = parameters.get("speed");
+        double[] p = parameters.snapshot();
+        int type = (int) p[ImpulseTypes.TYPE];
+        double amplitude = p[ImpulseTypes.AMPLITUDE];
+        double width = p[ImpulseTypes.WIDTH];
+        double speed = p[ImpulseTypes.SPEED];
         
         double canvasWidth = canvas.getWidth();
         double canvasHeight = canvas.getHeight();
         double centerY = canvasHeight / 2;
         
 
-        gc.setStroke(Color.GRAY);
-        gc.strokeLine(0, centerY, canvasWidth, centerY);
         gc.setStroke(Color.BLACK);
         
 
         double t0 = (time * speed) % (canvasWidth * 1.5) - canvasWidth * 0.25;
         
-        gc.beginPath();
-        gc.moveTo(0, centerY);
+        int pixels = (int) canvasWidth;
+        if (impulseYs.length != pixels + 1) {
+            impulseYs = new double[pixels + 1];
+        }
         
-        for (double x = 0; x <= canvasWidth; x++) {
-            double t = (x - t0) / (width * 100);  // Scale width
-            double y = centerY - amplitude * 100 * calculateImpulse(type, t);  // Scale amplitude
-            gc.lineTo(x, y);
+        pulseShapes.sample(type, width * 100, pixels, t0, impulseYs);  // Scale width
+        for (int x = 0; x <= pixels; x++) {
+            impulseYs[x] = centerY - amplitude * 100 * impulseYs[x];  // Scale amplitude
         }
         
-        gc.stroke();
+        impulseCurve.setSamples(0, 1, impulseYs, pixels + 1);
+        impulseCurve.stroke(gc);
+        
+        drawImpulseSpectrum(type, width * 100);
     }
     
-    private double calculateImpulse(int type, double t) {
-        return switch (type) {
-            case 0 ->
-                Math.exp(-t * t / 2);
-            
-            case 1 ->
-                Math.abs(t) <= 1 ? 1 : 0;
-            
-            case 2 ->
-                Math.abs(t) <= 1 ? 1 - Math.abs(t) : 0;
-            
-            case 3 ->
-                t == 0 ? 1 : Math.sin(Math.PI * t) / (Math.PI * t);
-            
-            default -> 0;
-        };
-    }
-
-    private void updateCollision(double deltaTime) {
-        double m1 = parameters.get("mass1");
-        double m2 = parameters.get("mass2");
-        double v1 = parameters.get("velocity1");
-        double v2 = parameters.get("velocity2");
-        double k = parameters.get("restitution");
-        double x1 = parameters.get("x1");
-        double x2 = parameters.get("x2");
-        
-        double radius1 = 20 * Math.pow(m1, 1.0/3.0);
-        double radius2 = 20 * Math.pow(m2, 1.0/3.0);
-        
-
-        double nextX1 = x1 + v1 * deltaTime * 100;
-        double nextX2 = x2 + v2 * deltaTime * 100;
-        
-        boolean willCollide = (nextX1 + radius1 >= nextX2 - radius2) && (v1 > v2);
-        
-        if (willCollide) {
-
-            double v1New, v2New;
-            
-            if (k == 1.0) {
-                v1New = ((m1 - m2) * v1 + 2 * m2 * v2) / (m1 + m2);
-                v2New = (2 * m1 * v1 - (m1 - m2) * v2) / (m1 + m2);
-            } else if (k == 0.0) {
-                v1New = v2New = (m1 * v1 + m2 * v2) / (m1 + m2);
-            } else {
-                double v1New_elastic = ((m1 - m2) * v1 + 2 * m2 * v2) / (m1 + m2);
-                double v2New_elastic = (2 * m1 * v1 - (m1 - m2) * v2) / (m1 + m2);
-                double vCom = (m1 * v1 + m2 * v2) / (m1 + m2);
-                
-                v1New = vCom + k * (v1New_elastic - vCom);
-                v2New = vCom + k * (v2New_elastic - vCom);
-            }
-            
-
-            parameters.put("velocity1", v1New);
-            parameters.put("velocity2", v2New);
-            v1 = v1New;
-            v2 = v2New;
-            
-
-            double minDistance = radius1 + radius2;
-            double overlap = (x1 + radius1) - (x2 - radius2);
-            if (overlap > 0) {
-                x1 -= overlap / 2;
-                x2 += overlap / 2;
-            }
+    // Magnitude spectrum inset in the top right corner. The pulse only slides, which leaves
+    // the magnitude unchanged, so the FFT runs again only when the type or width changes.
+    private void drawImpulseSpectrum(int type, double pixelWidth) {
+        if (pulseSpectrum == null) {
+            pulseSpectrum = new PulseSpectrum(SPECTRUM_SIZE);
         }
-        
-
-        x1 += v1 * deltaTime * 100;
-        x2 += v2 * deltaTime * 100;
-        
-
-        if (x1 - radius1 < 0) {
-            x1 = radius1;
-            parameters.put("velocity1", Math.abs(v1));
-        } else if (x1 + radius1 > canvas.getWidth()) {
-            x1 = canvas.getWidth() - radius1;
-            parameters.put("velocity1", -Math.abs(v1));
+        if (type != spectrumType || pixelWidth != spectrumWidth) {
+            spectrumType = type;
+            spectrumWidth = pixelWidth;
+            pulseSpectrum.compute(type, pixelWidth, SPECTRUM_MAX_CYCLES, spectrumDb);
         }
         
-        if (x2 - radius2 < 0) {
-            x2 = radius2;
-            parameters.put("velocity2", Math.abs(v2));
-        } else if (x2 + radius2 > canvas.getWidth()) {
-            x2 = canvas.getWidth() - radius2;
-            parameters.put("velocity2", -Math.abs(v2));
+        double left = canvas.getWidth() - SPECTRUM_COLUMNS - 20;
+        double top = 20;
+        for (int i = 0; i < SPECTRUM_COLUMNS; i++) {
+            spectrumXs[i] = left + i;
+            spectrumYs[i] = top + SPECTRUM_HEIGHT * spectrumDb[i] / PulseSpectrum.FLOOR_DB;
         }
         
-
-        parameters.put("x1", x1);
-        parameters.put("x2", x2);
+        gc.setFill(INSET_COLOR);
+        gc.fillRect(left, top, SPECTRUM_COLUMNS, SPECTRUM_HEIGHT);
+        gc.setStroke(WALL_COLOR);
+        gc.setLineWidth(1);
+        gc.strokeRect(left, top, SPECTRUM_COLUMNS, SPECTRUM_HEIGHT);
+        
+        gc.setStroke(PRIMARY_COLOR);
+        gc.strokePolyline(spectrumXs, spectrumYs, SPECTRUM_COLUMNS);
+        
+        gc.setFill(Color.BLACK);
+        gc.fillText("|F(f)|, дБ", left + 5, top + 14);
+        gc.fillText("0", left, top + SPECTRUM_HEIGHT + 14);
+        gc.fillText("f = 4/w", left + SPECTRUM_COLUMNS - 40, top + SPECTRUM_HEIGHT + 14);
+    }
+    
+    private void drawCollision() {
+        double[] p = parameters.snapshot();
+        double m1 = p[Collisions.MASS1];
+        double m2 = p[Collisions.MASS2];
+        double x1 = state[0];
+        double x2 = state[1];
+        double v1 = state[2];
+        double v2 = state[3];
+        
+        double radius1 = CollisionModel.radiusOf(m1);
+        double radius2 = CollisionModel.radiusOf(m2);
         
 
         double centerY = canvas.getHeight() / 2;
@@ -543,14 +811,11 @@ public class SimulationController {
         
 
         gc.setFill(Color.BLACK);
-        gc.fillText(String.format("v1 = %.2f м/с", v1), 10, 20);
-        gc.fillText(String.format("v2 = %.2f м/с", v2), 10, 40);
-        
-        double kineticEnergy = 0.5 * m1 * v1 * v1 + 0.5 * m2 * v2 * v2;
-        double momentum = m1 * v1 + m2 * v2;
+        gc.fillText(velocity1Text.format(v1), 10, 20);
+        gc.fillText(velocity2Text.format(v2), 10, 40);
         
-        gc.fillText(String.format("Кинетическая энергия = %.2f Дж", kineticEnergy), 10, 60);
-        gc.fillText(String.format("Импульс = %.2f кг·м/с", momentum), 10, 80);
+        gc.fillText(energyText.format(observables[0]), 10, 60);
+        gc.fillText(momentumText.format(observables[1]), 10, 80);
     }
     
     private void drawVelocityVector(double x, double y, double velocity, double radius) {
@@ -573,175 +838,4 @@ public class SimulationController {
                          endY - arrowSize * Math.sin(angle - Math.PI/6));
         }
     }
-
-    private void drawMirrorReflection() {
-        int mirrorType = parameters.get("mirrorType").intValue();
-        double curvature = parameters.get("curvature");
-        double incidentAngle = Math.toRadians(parameters.get("angle"));
-        int rays = parameters.get("rays").intValue();
-        
-        double width = canvas.getWidth();
-        double height = canvas.getHeight();
-        double centerX = width / 2;
-        double centerY = height / 2;
-        
-
-        gc.setStroke(Color.LIGHTGRAY);
-        gc.strokeLine(0, centerY, width, centerY);  // Ось X
-        gc.strokeLine(centerX, 0, centerX, height); // Ось Y
-        
-
-        gc.setStroke(Color.BLUE);
-        gc.setLineWidth(3);
-        
-        switch (mirrorType) {
-            case 0 -> {
-                gc.strokeLine(centerX - 100, centerY, centerX + 100, centerY);
-                drawNormal(centerX, centerY, Math.PI/2); // Нормаль к плоскому зеркалу
-            }
-            case 1 -> {
-                double radius = 200 / curvature;
-                double startAngle = -Math.PI/3;
-                double endAngle = Math.PI/3;
-                
-                gc.beginPath();
-                for (double a = startAngle; a <= endAngle; a += 0.01) {
-                    double x = centerX + radius * Math.sin(a);
-                    double y = centerY + radius * (1 - Math.cos(a));
-                    if (a == startAngle) {
-                        gc.moveTo(x, y);
-                    } else {
-                        gc.lineTo(x, y);
-                    }
-                }
-                gc.stroke();
-                
-
-                gc.setFill(Color.RED);
-                double focalPoint = radius / 2;
-                gc.fillOval(centerX - 5, centerY + focalPoint - 5, 10, 10);
-                gc.strokeText("F", centerX + 10, centerY + focalPoint);
-            }
-            case 2 -> {
-                double radius = 200 / curvature;
-                double startAngle = 5*Math.PI/6;
-                double endAngle = 7*Math.PI/6;
-                
-                gc.beginPath();
-                for (double a = startAngle; a <= endAngle; a += 0.01) {
-                    double x = centerX + radius * Math.sin(a);
-                    double y = centerY - 100 + radius * (1 - Math.cos(a));
-                    if (a == startAngle) {
-                        gc.moveTo(x, y);
-                    } else {
-                        gc.lineTo(x, y);
-                    }
-                }
-                gc.stroke();
-                
-
-                gc.setStroke(Color.RED);
-                gc.setLineDashes(5);
-                double focalPoint = -radius / 2;
-                gc.strokeOval(centerX - 5, centerY - 100 + focalPoint - 5, 10, 10);
-                gc.setLineDashes();
-                gc.strokeText("F", centerX + 10, centerY - 100 + focalPoint);
-            }
-        }
-        
-
-        gc.setStroke(Color.GOLD);
-        gc.setLineWidth(2);
-        
-        double raySpacing = 40;
-        double startY = centerY - (rays - 1) * raySpacing / 2;
-        
-        for (int i = 0; i < rays; i++) {
-            double rayY = startY + i * raySpacing;
-            
-
-            double incidentX = centerX;
-            double incidentY = centerY;
-            
-            if (mirrorType != 0) {
-
-                double radius = 200 / curvature;
-                double dx = rayY - centerY;
-                double angle = Math.atan2(dx, radius);
-                
-                if (mirrorType == 1) {
-                    incidentX = centerX + radius * Math.sin(angle);
-                    incidentY = centerY + radius * (1 - Math.cos(angle));
-                } else {
-                    angle = Math.PI + angle;
-                    incidentX = centerX + radius * Math.sin(angle);
-                    incidentY = centerY - 100 + radius * (1 - Math.cos(angle));
-                }
-            }
-            
-
-            double rayStartX = incidentX - 200 * Math.cos(incidentAngle);
-            gc.strokeLine(rayStartX, rayY, incidentX, incidentY);
-            
-
-            double normalAngle;
-            if (mirrorType == 0) {
-                normalAngle = Math.PI/2;
-            } else {
-
-                normalAngle = Math.atan2(incidentY - centerY, incidentX - centerX);
-                if (mirrorType == 2) {
-                    normalAngle += Math.PI;
-                }
-            }
-            
-
-            double reflectionAngle = 2 * normalAngle - incidentAngle;
-            
-
-            double reflectedLength = 200;
-            double reflectedEndX = incidentX + reflectedLength * Math.cos(reflectionAngle);
-            double reflectedEndY = incidentY + reflectedLength * Math.sin(reflectionAngle);
-            gc.strokeLine(incidentX, incidentY, reflectedEndX, reflectedEndY);
-            
-
-            drawArrow(incidentX - 20 * Math.cos(incidentAngle), 
-                     incidentY - 20 * Math.sin(incidentAngle), 
-                     incidentAngle);
-            drawArrow(incidentX + 20 * Math.cos(reflectionAngle), 
-                     incidentY + 20 * Math.sin(reflectionAngle), 
-                     reflectionAngle);
-            
-
-            gc.setStroke(Color.GREEN);
-            gc.setLineDashes(5);
-            double normalLength = 30;
-            gc.strokeLine(incidentX - normalLength * Math.cos(normalAngle),
-                         incidentY - normalLength * Math.sin(normalAngle),
-                         incidentX + normalLength * Math.cos(normalAngle),
-                         incidentY + normalLength * Math.sin(normalAngle));
-            gc.setLineDashes();
-            gc.setStroke(Color.GOLD);
-        }
-    }
-    
-    private void drawNormal(double x, double y, double angle) {
-        gc.setStroke(Color.GREEN);
-        gc.setLineDashes(5);
-        double length = 50;
-        gc.strokeLine(x, y - length, x, y + length);
-        gc.setLineDashes();
-    }
-    
-    private void drawArrow(double x, double y, double angle) {
-        double arrowSize = 10;
-        double arrowAngle = Math.PI / 6;
-        
-        gc.strokeLine(x, y,
-                     x - arrowSize * Math.cos(angle + arrowAngle),
-                     y - arrowSize * Math.sin(angle + arrowAngle));
-        gc.strokeLine(x, y,
-                     x - arrowSize * Math.cos(angle - arrowAngle),
-                     y - arrowSize * Math.sin(angle - arrowAngle));
-    }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,420 @@
+package com.physicalapp.headless;
+
+import com.physicalapp.physics.CollisionModel;
+import com.physicalapp.physics.DoublePendulumEnsemble;
+import com.physicalapp.physics.DoublePendulumModel;
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.ParameterSchemas;
+import com.physicalapp.physics.ParameterSchemas.Collisions;
+import com.physicalapp.physics.ParameterSchemas.DoublePendulum;
+import com.physicalapp.physics.ParameterSchemas.Ensemble;
+import com.physicalapp.physics.ParameterSchemas.SimplePendulum;
+import com.physicalapp.physics.PhysicsModel;
+import com.physicalapp.physics.SimplePendulumModel;
+import com.physicalapp.physics.record.RunRecorder;
+import com.physicalapp.physics.record.RunReplay;
+import com.physicalapp.physics.sweep.CsvSweepSink;
+import com.physicalapp.physics.sweep.SweepEngine;
+import com.physicalapp.physics.sweep.SweepMeasure;
+import com.physicalapp.physics.sweep.SweepPlan;
+import com.physicalapp.physics.sweep.SweepRange;
+import com.physicalapp.physics.sweep.SweepStatistics;
+import com.physicalapp.physics.wave.StringWaveModel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Runs the physics of a phenomenon with no JavaFX toolkit, for long jobs on machines without
+// a display. The models, parameters and defaults are the ones the GUI steps; only the clock
+// differs: steps run back to back instead of in real time.
+//
+// Replicated runs of a model (--runs) start from initial conditions scattered by --spread and
+// are spread over a fixed pool of --threads worker threads; the
+// ensemble instead splits its pendulums, and a parameter sweep its points, over a
+// ForkJoinPool of that size. Nothing touches a
+// class from javafx.*, so the class can be started directly on a JVM without JavaFX.
+public final class HeadlessRunner {
+    private static final String USAGE = """
+        Usage: --headless --phenomenon <id> [options]
+          --phenomenon <id>     simple-pendulum, double-pendulum, collisions, string-wave,
+                                double-pendulum-ensemble
+          --steps <n>           steps per run, e.g. 1e9 (default 1e6)
+          --dt <seconds>        step size (default 1e-3, the GUI physics rate)
+          --threads <n>         worker threads (default: available processors)
+          --runs <n>            replicated runs of the model (default 1)
+          --spread <amount>     runs after the first offset the initial angles (degrees) or
+                                positions (px) by up to +-amount, drawn from --seed (default 1)
+          --set <name>=<value>  parameter override, repeatable
+          --out <file>          record keyframes; run i of several goes to <file>-i
+          --record-every <n>    steps between recorded keyframes (default 1000)
+        Parameter sweeps (one simulation of --steps per point, on --threads workers):
+          --sweep <name>=<from>:<to>:<points>  swept parameter, repeatable
+          --plan grid|lhs       full grid (default) or Latin hypercube of --samples points
+          --samples <n>         Latin-hypercube points (default 100)
+          --seed <n>            Latin-hypercube or spread seed (default 1)
+          --measure period|final  period of the first state value, or the final state
+                                and observables (default final)
+          --out <file>          one CSV line per point
+        """;
+    private static final int PROGRESS_CHUNK = 1 << 16;
+    private static final int ENSEMBLE_SUBSTEPS = 64;
+    private static final long REPORT_SECONDS = 10;
+    // Same string as the GUI on a 700 px canvas
+    private static final int STRING_NODES = 701;
+    private static final double STRING_SPACING = 0.01;
+
+    private String phenomenon;
+    private long steps = 1_000_000;
+    private double dt = 1e-3;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int runs = 1;
+    private double spread = 1;
+    private Path out;
+    private int recordEvery = 1000;
+    private double[] parameters;
+    private final List<SweepRange> sweeps = new ArrayList<>();
+    private boolean latinHypercube;
+    private int samples = 100;
+    private long seed = 1;
+    private boolean measurePeriod;
+
+    private HeadlessRunner() {
+    }
+
+    public static void main(String[] args) {
+        HeadlessRunner runner;
+        try {
+            runner = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(USAGE);
+            System.exit(2);
+            return;
+        }
+        try {
+            runner.run();
+        } catch (IOException e) {
+            System.err.println("Run failed: " + e.getMessage());
+            System.exit(1);
+        } catch (ExecutionException e) {
+            System.err.println("Run failed: " + e.getCause());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+
+    static HeadlessRunner parse(String[] args) {
+        HeadlessRunner runner = new HeadlessRunner();
+        List<String> overrides = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--headless")) {
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            String value = args[++i];
+            switch (option) {
+                case "--phenomenon" -> runner.phenomenon = value;
+                case "--steps" -> runner.steps = (long) positive(option, value);
+                case "--dt" -> runner.dt = positive(option, value);
+                case "--threads" -> runner.threads = (int) positive(option, value);
+                case "--runs" -> runner.runs = (int) positive(option, value);
+                case "--spread" -> runner.spread = positive(option, value);
+                case "--set" -> overrides.add(value);
+                case "--out" -> runner.out = Path.of(value);
+                case "--record-every" -> runner.recordEvery = (int) positive(option, value);
+                case "--sweep" -> runner.sweeps.add(SweepRange.parse(value));
+                case "--plan" -> runner.latinHypercube = choice(option, value, "grid", "lhs");
+                case "--samples" -> runner.samples = (int) positive(option, value);
+                case "--seed" -> runner.seed = (long) number(option, value);
+                case "--measure" -> runner.measurePeriod = choice(option, value, "final", "period");
+                default -> throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        if (runner.phenomenon == null) {
+            throw new IllegalArgumentException("--phenomenon is required");
+        }
+        ParameterSchema schema;
+        try {
+            schema = ParameterSchemas.forPhenomenon(runner.phenomenon);
+        } catch (IllegalStateException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        runner.parameters = schema.createDefaults();
+        for (String override : overrides) {
+            int separator = override.indexOf('=');
+            int index = separator > 0 ? schema.indexOf(override.substring(0, separator)) : -1;
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown parameter in --set " + override);
+            }
+            runner.parameters[index] = number("--set", override.substring(separator + 1));
+        }
+        return runner;
+    }
+
+    // false for the first value, true for the second
+    private static boolean choice(String option, String value, String first, String second) {
+        if (!value.equals(first) && !value.equals(second)) {
+            throw new IllegalArgumentException(option + " must be " + first + " or " + second + ": " + value);
+        }
+        return value.equals(second);
+    }
+
+    private static double positive(String option, String value) {
+        double number = number(option, value);
+        if (!(number > 0)) {
+            throw new IllegalArgumentException(option + " must be positive: " + value);
+        }
+        return number;
+    }
+
+    private static double number(String option, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number for " + option + ": " + value);
+        }
+    }
+
+    // Same models as SimulationController.initializeModel(), or null
+    private PhysicsModel createModel() {
+        return createModel(parameters);
+    }
+
+    private PhysicsModel createModel(double[] parameters) {
+        PhysicsModel model = switch (phenomenon) {
+            case "simple-pendulum" -> new SimplePendulumModel();
+            case "double-pendulum" -> new DoublePendulumModel();
+            case "collisions" -> new CollisionModel();
+            case "string-wave" -> new StringWaveModel(STRING_NODES, STRING_SPACING);
+            default -> null;
+        };
+        if (model != null) {
+            model.setParameters(parameters);
+        }
+        return model;
+    }
+
+    private void run() throws IOException, ExecutionException, InterruptedException {
+        if (!sweeps.isEmpty()) {
+            if (createModel() == null || phenomenon.equals("string-wave")) {
+                throw new IOException("Sweeps run the pendulums and collisions only");
+            }
+            runSweep();
+            return;
+        }
+        // The recording format keeps whole states as columns, which suits the small models only
+        if (out != null && (phenomenon.equals("double-pendulum-ensemble") || phenomenon.equals("string-wave"))) {
+            throw new IOException("--out is not supported for " + phenomenon);
+        }
+        if (phenomenon.equals("double-pendulum-ensemble")) {
+            runEnsemble();
+        } else if (createModel() != null) {
+            if (runs > 1 && initialConditions().length == 0) {
+                throw new IOException("--runs needs initial conditions to vary, " + phenomenon + " has none");
+            }
+            runModels();
+        } else {
+            throw new IOException(phenomenon + " has no stepped physics to run");
+        }
+    }
+
+    private void runModels() throws ExecutionException, InterruptedException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "headless-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicLongArray progress = new AtomicLongArray(runs);
+        List<Future<?>> results = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int r = 0; r < runs; r++) {
+            int run = r;
+            results.add(pool.submit(() -> {
+                stepModel(run, progress);
+                return null;
+            }));
+        }
+        pool.shutdown();
+        while (!pool.awaitTermination(REPORT_SECONDS, TimeUnit.SECONDS)) {
+            long done = 0;
+            for (int r = 0; r < runs; r++) {
+                done += progress.get(r);
+            }
+            System.err.printf(Locale.ROOT, "%.1f%% (%d of %d steps)%n",
+                              100.0 * done / ((double) steps * runs), done, steps * runs);
+        }
+        long elapsed = System.nanoTime() - start;
+        for (Future<?> result : results) {
+            result.get();
+        }
+        report(runs + " runs x " + steps + " steps", (double) steps * runs, "steps",
+               Math.min(threads, runs), elapsed);
+    }
+
+    // Parameters that only set the initial state, scattered between replicated runs
+    private int[] initialConditions() {
+        return switch (phenomenon) {
+            case "simple-pendulum" -> new int[] {SimplePendulum.ANGLE};
+            case "double-pendulum" -> new int[] {DoublePendulum.ANGLE1, DoublePendulum.ANGLE2};
+            case "collisions" -> new int[] {Collisions.X1, Collisions.X2};
+            default -> new int[0];
+        };
+    }
+
+    // Run 0 starts from the given parameters, every later one from its own draw of the seed
+    private double[] runParameters(int run) {
+        double[] values = parameters.clone();
+        if (run > 0) {
+            Random random = new Random(seed + run);
+            for (int index : initialConditions()) {
+                values[index] += spread * (2 * random.nextDouble() - 1);
+            }
+        }
+        return values;
+    }
+
+    private void stepModel(int run, AtomicLongArray progress) throws IOException {
+        double[] parameters = runParameters(run);
+        PhysicsModel model = createModel(parameters);
+        if (out == null) {
+            for (long done = 0; done < steps; ) {
+                long chunk = Math.min(PROGRESS_CHUNK, steps - done);
+                for (long i = 0; i < chunk; i++) {
+                    model.step(dt);
+                }
+                done += chunk;
+                progress.lazySet(run, done);
+            }
+            return;
+        }
+
+        // Keyframes in the GUI's recording format, so the GUI can replay them
+        Path file = runs == 1 ? out : out.resolveSibling(out.getFileName() + "-" + run);
+        double[] row = new double[model.getStateSize() + parameters.length];
+        System.arraycopy(parameters, 0, row, model.getStateSize(), parameters.length);
+        try (RunRecorder recorder = new RunRecorder(file, RunReplay.columnNames(model), dt)) {
+            model.copyState(row);
+            recorder.append(0, row);
+            for (long done = 0; done < steps; ) {
+                long chunk = Math.min(recordEvery, steps - done);
+                for (long i = 0; i < chunk; i++) {
+                    model.step(dt);
+                }
+                done += chunk;
+                model.copyState(row);
+                recorder.append(done * dt, row);
+                progress.lazySet(run, done);
+            }
+        }
+    }
+
+    private void runSweep() throws IOException, ExecutionException, InterruptedException {
+        ParameterSchema schema = ParameterSchemas.forPhenomenon(phenomenon);
+        SweepRange[] ranges = sweeps.toArray(new SweepRange[0]);
+        SweepPlan plan;
+        try {
+            plan = latinHypercube ? SweepPlan.latinHypercube(schema, parameters, samples, seed, ranges)
+                                  : SweepPlan.grid(schema, parameters, ranges);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SweepEngine engine = new SweepEngine(pool, this::createModel,
+                                             measurePeriod ? SweepMeasure::period : SweepMeasure::finalState,
+                                             dt, steps);
+        String[] resultNames = engine.getResultNames();
+        CsvSweepSink sink = out != null
+            ? new CsvSweepSink(out, ranges, plan.getParameterIndices(), resultNames) : null;
+        try {
+            long start = System.nanoTime();
+            ForkJoinTask<SweepStatistics> task = pool.submit(() -> engine.run(plan, sink));
+            SweepStatistics statistics = null;
+            while (statistics == null) {
+                try {
+                    statistics = task.get(REPORT_SECONDS, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    System.err.printf(Locale.ROOT, "%.1f%% (%d of %d points)%n",
+                                      100.0 * engine.getCompleted() / plan.size(), engine.getCompleted(), plan.size());
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+
+            for (int c = 0; c < resultNames.length; c++) {
+                System.out.printf(Locale.ROOT, "%s: mean %.6g, sd %.6g, min %.6g, max %.6g (%d points, %d undefined)%n",
+                                  resultNames[c], statistics.getMean(c), statistics.getStandardDeviation(c),
+                                  statistics.getMinimum(c), statistics.getMaximum(c),
+                                  statistics.getCount(c), statistics.getMissing(c));
+            }
+            System.out.printf(Locale.ROOT, "%d points in %.3f s, %.4g points/s%n",
+                              plan.size(), elapsed / 1e9, plan.size() / (elapsed / 1e9));
+            report(plan.size() + " points x " + steps + " steps", (double) steps * plan.size(), "steps",
+                   Math.min(threads, plan.size()), elapsed);
+        } finally {
+            pool.shutdown();
+            if (sink != null) {
+                sink.close();
+            }
+        }
+    }
+
+    private void runEnsemble() {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            DoublePendulumEnsemble ensemble = new DoublePendulumEnsemble(pool);
+            ensemble.setLength1(parameters[Ensemble.LENGTH1]);
+            ensemble.setLength2(parameters[Ensemble.LENGTH2]);
+            ensemble.setMass1(parameters[Ensemble.MASS1]);
+            ensemble.setMass2(parameters[Ensemble.MASS2]);
+            ensemble.initialize(Math.max(1, (int) Math.round(parameters[Ensemble.COUNT] * 1000)),
+                                Math.toRadians(parameters[Ensemble.ANGLE1]),
+                                Math.toRadians(parameters[Ensemble.ANGLE2]),
+                                Math.toRadians(parameters[Ensemble.SPREAD]));
+
+            long start = System.nanoTime();
+            long lastReport = start;
+            for (long done = 0; done < steps; ) {
+                int chunk = (int) Math.min(ENSEMBLE_SUBSTEPS, steps - done);
+                ensemble.step(dt, chunk);
+                done += chunk;
+                long now = System.nanoTime();
+                if (now - lastReport > TimeUnit.SECONDS.toNanos(REPORT_SECONDS)) {
+                    System.err.printf(Locale.ROOT, "%.1f%% (%d of %d steps)%n", 100.0 * done / steps, done, steps);
+                    lastReport = now;
+                }
+            }
+            report(ensemble.size() + " pendulums x " + steps + " steps", (double) steps * ensemble.size(),
+                   "pendulum steps", threads, System.nanoTime() - start);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // ns/step is wall time over all steps; per thread it is what one busy worker spends on a step
+    private void report(String work, double totalSteps, String unit, int busyThreads, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "%s: %s, dt = %s s, %d threads%n", phenomenon, work, dt, busyThreads);
+        System.out.printf(Locale.ROOT, "wall %.3f s, %.4g %s/s, %.3f ns/step (%.3f ns/step per thread)%n",
+                          seconds, totalSteps / seconds, unit, elapsedNanos / totalSteps,
+                          elapsedNanos * (double) busyThreads / totalSteps);
+    }
+}
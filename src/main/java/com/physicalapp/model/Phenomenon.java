@@ -43,6 +43,18 @@ public class Phenomenon {
                 "Полное описание двойного маятника...",
                 "Демонстрация хаотической динамики двойного маятника"
             ),
+            new Phenomenon(
+                "double-pendulum-ensemble",
+                "Ансамбль двойных маятников",
+                "Полное описание ансамбля двойных маятников...",
+                "Расхождение миллиона почти одинаковых двойных маятников"
+            ),
+            new Phenomenon(
+                "double-pendulum-flip-map",
+                "Карта переворотов двойного маятника",
+                "Полное описание карты переворотов...",
+                "Фрактальная карта времени до первого переворота по начальным углам"
+            ),
             new Phenomenon(
                 "string-wave",
                 "Волна на струне",
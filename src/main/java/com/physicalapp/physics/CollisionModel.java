@@ -0,0 +1,122 @@
+package com.physicalapp.physics;
+
+import com.physicalapp.physics.ParameterSchemas.Collisions;
+import com.physicalapp.physics.collision.CollisionEngine;
+
+// Two bodies on a line between walls at 0 and width. Positions are in pixels,
+// velocities in m/s (PIXELS_PER_METER converts between them). Motion is event driven,
+// so the bodies meet at the exact collision time whatever the step size.
+public class CollisionModel implements PhysicsModel {
+    public static final double PIXELS_PER_METER = 100;
+
+    private final CollisionEngine engine = new CollisionEngine(2, 700.0, 0);
+    private final int body1;
+    private final int body2;
+
+    public CollisionModel() {
+        body1 = engine.add(200.0, 0, 5.0 * PIXELS_PER_METER, 0, radiusOf(1.0), 1.0);
+        body2 = engine.add(400.0, 0, -5.0 * PIXELS_PER_METER, 0, radiusOf(1.0), 1.0);
+    }
+
+    @Override
+    public void step(double deltaTime) {
+        engine.advance(deltaTime);
+    }
+
+    @Override
+    public ParameterSchema getSchema() {
+        return Collisions.SCHEMA;
+    }
+
+    @Override
+    public void setParameter(int index, double value) {
+        switch (index) {
+            case Collisions.MASS1 -> engine.setBody(body1, radiusOf(value), value);
+            case Collisions.MASS2 -> engine.setBody(body2, radiusOf(value), value);
+            case Collisions.VELOCITY1 -> engine.setVelocity(body1, value * PIXELS_PER_METER, 0);
+            case Collisions.VELOCITY2 -> engine.setVelocity(body2, value * PIXELS_PER_METER, 0);
+            case Collisions.RESTITUTION -> engine.setRestitution(value);
+            case Collisions.X1 -> engine.setPosition(body1, value, 0);
+            case Collisions.X2 -> engine.setPosition(body2, value, 0);
+        }
+    }
+
+    @Override
+    public int getStateSize() {
+        return 4;
+    }
+
+    @Override
+    public void copyState(double[] target) {
+        target[0] = engine.getX(body1);
+        target[1] = engine.getX(body2);
+        target[2] = engine.getVx(body1) / PIXELS_PER_METER;
+        target[3] = engine.getVx(body2) / PIXELS_PER_METER;
+    }
+
+    @Override
+    public boolean canRestore() {
+        return true;
+    }
+
+    @Override
+    public void restoreState(double[] source) {
+        engine.setPosition(body1, source[0], 0);
+        engine.setPosition(body2, source[1], 0);
+        engine.setVelocity(body1, source[2] * PIXELS_PER_METER, 0);
+        engine.setVelocity(body2, source[3] * PIXELS_PER_METER, 0);
+    }
+
+    @Override
+    public String[] getStateNames() {
+        return new String[] {"x1", "x2", "velocity1", "velocity2"};
+    }
+
+    @Override
+    public String[] getObservableNames() {
+        return new String[] {"kineticEnergy", "momentum"};
+    }
+
+    @Override
+    public void computeObservables(double[] state, double[] parameters, double[] target) {
+        double m1 = parameters[Collisions.MASS1];
+        double m2 = parameters[Collisions.MASS2];
+        double v1 = state[2];
+        double v2 = state[3];
+        target[0] = 0.5 * m1 * v1 * v1 + 0.5 * m2 * v2 * v2;
+        target[1] = m1 * v1 + m2 * v2;
+    }
+
+    public void setWidth(double width) {
+        engine.setBounds(width, 0);
+    }
+
+    public double getMass1() {
+        return engine.getMass(body1);
+    }
+
+    public double getMass2() {
+        return engine.getMass(body2);
+    }
+
+    public double getRadius1() {
+        return engine.getRadius(body1);
+    }
+
+    public double getRadius2() {
+        return engine.getRadius(body2);
+    }
+
+    public double getKineticEnergy() {
+        return engine.getKineticEnergy() / (PIXELS_PER_METER * PIXELS_PER_METER);
+    }
+
+    public double getMomentum() {
+        return (engine.getMass(body1) * engine.getVx(body1)
+            + engine.getMass(body2) * engine.getVx(body2)) / PIXELS_PER_METER;
+    }
+
+    public static double radiusOf(double mass) {
+        return 20 * Math.pow(mass, 1.0/3.0);
+    }
+}
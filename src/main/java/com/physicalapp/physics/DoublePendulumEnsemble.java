@@ -0,0 +1,219 @@
+package com.physicalapp.physics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Many independent double pendulums kept as structure-of-arrays and stepped in parallel.
+// Same equations of motion as DoublePendulumModel, friction included; every pendulum shares
+// the parameters.
+public class DoublePendulumEnsemble {
+    private static final int CHUNK_SIZE = 8192;
+
+    private double g = 9.81;
+    private double length1 = 1.0;
+    private double length2 = 1.0;
+    private double mass1 = 1.0;
+    private double mass2 = 1.0;
+
+    private int size;
+    private double[] angle1 = new double[0];
+    private double[] angle2 = new double[0];
+    private double[] velocity1 = new double[0];
+    private double[] velocity2 = new double[0];
+
+    // Density grid: cell index of the second bob of every pendulum, -1 when off the grid.
+    private int[] cells = new int[0];
+    private int gridWidth;
+    private int gridHeight;
+    private double originX;
+    private double originY;
+    private double pixelsPerUnit = 1;
+
+    private final ForkJoinPool pool;
+
+    public DoublePendulumEnsemble() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public DoublePendulumEnsemble(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Spreads the initial angles (radians) linearly over [angle - spread/2, angle + spread/2].
+    public void initialize(int count, double initialAngle1, double initialAngle2, double spread) {
+        if (count != size) {
+            size = count;
+            angle1 = new double[count];
+            angle2 = new double[count];
+            velocity1 = new double[count];
+            velocity2 = new double[count];
+            cells = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            double offset = count > 1 ? spread * ((double) i / (count - 1) - 0.5) : 0;
+            angle1[i] = initialAngle1 + offset;
+            angle2[i] = initialAngle2 + offset;
+            velocity1[i] = 0;
+            velocity2[i] = 0;
+        }
+        updateCells(0, count);
+    }
+
+    public void setGravity(double g) {
+        this.g = g;
+    }
+
+    public void setLength1(double length1) {
+        this.length1 = length1;
+    }
+
+    public void setLength2(double length2) {
+        this.length2 = length2;
+    }
+
+    public void setMass1(double mass1) {
+        this.mass1 = mass1;
+    }
+
+    public void setMass2(double mass2) {
+        this.mass2 = mass2;
+    }
+
+    public double getLength1() {
+        return length1;
+    }
+
+    public double getLength2() {
+        return length2;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double[] getAngle1() {
+        return angle1;
+    }
+
+    public double[] getAngle2() {
+        return angle2;
+    }
+
+    public double[] getVelocity1() {
+        return velocity1;
+    }
+
+    public double[] getVelocity2() {
+        return velocity2;
+    }
+
+    public void setDensityGrid(int width, int height, double originX, double originY, double pixelsPerUnit) {
+        this.gridWidth = width;
+        this.gridHeight = height;
+        this.originX = originX;
+        this.originY = originY;
+        this.pixelsPerUnit = pixelsPerUnit;
+        updateCells(0, size);
+    }
+
+    // Advances every pendulum by substeps steps of dt; each pendulum stays in registers
+    // for all substeps, so memory traffic is one load and one store per frame.
+    public void step(double dt, int substeps) {
+        if (size <= CHUNK_SIZE) {
+            stepRange(0, size, dt, substeps);
+        } else {
+            pool.invoke(new StepTask(0, size, dt, substeps));
+        }
+    }
+
+    public void accumulateDensity(int[] counts) {
+        for (int i = 0; i < size; i++) {
+            int cell = cells[i];
+            if (cell >= 0) {
+                counts[cell]++;
+            }
+        }
+    }
+
+    private void stepRange(int from, int to, double dt, int substeps) {
+        double m1 = mass1;
+        double m2 = mass2;
+        double l1 = length1;
+        double l2 = length2;
+        double gravity = g;
+        double friction = DoublePendulumModel.FRICTION;
+
+        for (int i = from; i < to; i++) {
+            double a1 = angle1[i];
+            double a2 = angle2[i];
+            double w1 = velocity1[i];
+            double w2 = velocity2[i];
+
+            for (int s = 0; s < substeps; s++) {
+                double sin1 = Math.sin(a1);
+                double cos1 = Math.cos(a1);
+                double sin2 = Math.sin(a2);
+                double cos2 = Math.cos(a2);
+                double sinD = sin1 * cos2 - cos1 * sin2;   // sin(a1 - a2)
+                double cosD = cos1 * cos2 + sin1 * sin2;   // cos(a1 - a2)
+                double cos2D = 2 * cosD * cosD - 1;        // cos(2a1 - 2a2)
+                double sinA1m2A2 = sinD * cos2 - cosD * sin2; // sin(a1 - 2a2)
+                double common = 2 * m1 + m2 - m2 * cos2D;
+
+                double acceleration1 = (-gravity * (2 * m1 + m2) * sin1
+                        - m2 * gravity * sinA1m2A2
+                        - 2 * sinD * m2 * (w2 * w2 * l2 + w1 * w1 * l1 * cosD)) / (l1 * common);
+                double acceleration2 = (2 * sinD * (w1 * w1 * l1 * (m1 + m2)
+                        + gravity * (m1 + m2) * cos1
+                        + w2 * w2 * l2 * m2 * cosD)) / (l2 * common);
+                acceleration1 -= friction * w1;
+                acceleration2 -= friction * w2;
+
+                w1 += acceleration1 * dt;
+                w2 += acceleration2 * dt;
+                a1 += w1 * dt;
+                a2 += w2 * dt;
+            }
+
+            angle1[i] = a1;
+            angle2[i] = a2;
+            velocity1[i] = w1;
+            velocity2[i] = w2;
+        }
+        updateCells(from, to);
+    }
+
+    private void updateCells(int from, int to) {
+        for (int i = from; i < to; i++) {
+            double x = originX + pixelsPerUnit * (length1 * Math.sin(angle1[i]) + length2 * Math.sin(angle2[i]));
+            double y = originY + pixelsPerUnit * (length1 * Math.cos(angle1[i]) + length2 * Math.cos(angle2[i]));
+            int px = (int) x;
+            int py = (int) y;
+            cells[i] = x >= 0 && y >= 0 && px < gridWidth && py < gridHeight ? py * gridWidth + px : -1;
+        }
+    }
+
+    private class StepTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final double dt;
+        private final int substeps;
+
+        StepTask(int from, int to, double dt, int substeps) {
+            this.from = from;
+            this.to = to;
+            this.dt = dt;
+            this.substeps = substeps;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                stepRange(from, to, dt, substeps);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new StepTask(from, mid, dt, substeps), new StepTask(mid, to, dt, substeps));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.physicalapp.physics;
+
+import com.physicalapp.physics.ParameterSchemas.DoublePendulum;
+import com.physicalapp.physics.integrator.Integrator;
+import com.physicalapp.physics.integrator.IntegratorType;
+import com.physicalapp.physics.integrator.OdeSystem;
+
+public class DoublePendulumModel implements PhysicsModel, OdeSystem {
+    static final double FRICTION = 0.01;   // 1/s, slow decay of both angular velocities
+    
+    // Physics constants
+    private double g = 9.81;          // gravity
+    private double length1 = 1.0;     // length of first pendulum arm
+    private double length2 = 1.0;     // length of second pendulum arm
+    private double mass1 = 1.0;       // mass of first bob
+    private double mass2 = 1.0;       // mass of second bob
+
+    // State: angle1, angle2 (45 and 90 degrees initially), angular velocity 1, angular velocity 2
+    private final double[] y = {Math.PI / 4, Math.PI / 2, 0, 0};
+    private double time;
+    private Integrator integrator = IntegratorType.DORMAND_PRINCE.create();
+    
+    @Override
+    public void step(double deltaTime) {
+        // Short of time + deltaTime if the adaptive integrator ran out of internal steps
+        time = integrator.step(this, time, y, deltaTime);
+    }
+    
+    @Override
+    public int getDimension() {
+        return 4;
+    }
+    
+    @Override
+    public void derivatives(double t, double[] state, double[] dydt) {
+        double angle1 = state[0];
+        double angle2 = state[1];
+        double angleVelocity1 = state[2];
+        double angleVelocity2 = state[3];
+        
+        double num1 = -g * (2 * mass1 + mass2) * Math.sin(angle1);
+        double num2 = -mass2 * g * Math.sin(angle1 - 2 * angle2);
+        double num3 = -2 * Math.sin(angle1 - angle2) * mass2;
+        double num4 = angleVelocity2 * angleVelocity2 * length2 
+                     + angleVelocity1 * angleVelocity1 * length1 * Math.cos(angle1 - angle2);
+        double den = length1 * (2 * mass1 + mass2 - mass2 * Math.cos(2 * angle1 - 2 * angle2));
+        double angleAcceleration1 = (num1 + num2 + num3 * num4) / den;
+
+        double num5 = 2 * Math.sin(angle1 - angle2);
+        double num6 = angleVelocity1 * angleVelocity1 * length1 * (mass1 + mass2);
+        double num7 = g * (mass1 + mass2) * Math.cos(angle1);
+        double num8 = angleVelocity2 * angleVelocity2 * length2 * mass2 * Math.cos(angle1 - angle2);
+        double den2 = length2 * (2 * mass1 + mass2 - mass2 * Math.cos(2 * angle1 - 2 * angle2));
+        double angleAcceleration2 = (num5 * (num6 + num7 + num8)) / den2;
+
+        dydt[0] = angleVelocity1;
+        dydt[1] = angleVelocity2;
+        dydt[2] = angleAcceleration1 - FRICTION * angleVelocity1;
+        dydt[3] = angleAcceleration2 - FRICTION * angleVelocity2;
+    }
+    
+    // The trajectory together with its tangent linear system, for Lyapunov exponents:
+    // y[0..3] is the state as in derivatives(), y[4..7] a perturbation δ that evolves as
+    // dδ/dt = J(y) δ, with J the Jacobian of derivatives() at y.
+    public OdeSystem withTangent() {
+        return new OdeSystem() {
+            @Override
+            public int getDimension() {
+                return 8;
+            }
+
+            @Override
+            public void derivatives(double t, double[] y, double[] dydt) {
+                DoublePendulumModel.this.derivatives(t, y, dydt);
+                tangentDerivatives(y, dydt);
+            }
+        };
+    }
+
+    // J(y) δ, written into dydt[4..7]: every term of derivatives() differentiated by hand
+    // along δ (forward mode), so it is exact rather than a finite difference.
+    private void tangentDerivatives(double[] y, double[] dydt) {
+        double angle1 = y[0];
+        double angle2 = y[1];
+        double w1 = y[2];
+        double w2 = y[3];
+        double da1 = y[4];
+        double da2 = y[5];
+        double dw1 = y[6];
+        double dw2 = y[7];
+
+        double diff = angle1 - angle2;
+        double dDiff = da1 - da2;
+        double sinDiff = Math.sin(diff);
+        double cosDiff = Math.cos(diff);
+        double sin2Diff = Math.sin(2 * diff);
+        double cos2Diff = Math.cos(2 * diff);
+        double sin1 = Math.sin(angle1);
+        double cos1 = Math.cos(angle1);
+        double mass = 2 * mass1 + mass2 - mass2 * cos2Diff;
+        double dMass = 2 * mass2 * sin2Diff * dDiff;
+
+        double num1 = -g * (2 * mass1 + mass2) * sin1;
+        double dNum1 = -g * (2 * mass1 + mass2) * cos1 * da1;
+        double num2 = -mass2 * g * Math.sin(angle1 - 2 * angle2);
+        double dNum2 = -mass2 * g * Math.cos(angle1 - 2 * angle2) * (da1 - 2 * da2);
+        double num3 = -2 * sinDiff * mass2;
+        double dNum3 = -2 * cosDiff * mass2 * dDiff;
+        double num4 = w2 * w2 * length2 + w1 * w1 * length1 * cosDiff;
+        double dNum4 = 2 * w2 * dw2 * length2 + 2 * w1 * dw1 * length1 * cosDiff
+                     - w1 * w1 * length1 * sinDiff * dDiff;
+        double den = length1 * mass;
+        double dDen = length1 * dMass;
+        double acceleration1 = (num1 + num2 + num3 * num4) / den;
+        double dAcceleration1 = (dNum1 + dNum2 + dNum3 * num4 + num3 * dNum4 - acceleration1 * dDen) / den;
+
+        double num5 = 2 * sinDiff;
+        double dNum5 = 2 * cosDiff * dDiff;
+        double sum = w1 * w1 * length1 * (mass1 + mass2) + g * (mass1 + mass2) * cos1
+                   + w2 * w2 * length2 * mass2 * cosDiff;
+        double dSum = 2 * w1 * dw1 * length1 * (mass1 + mass2) - g * (mass1 + mass2) * sin1 * da1
+                    + 2 * w2 * dw2 * length2 * mass2 * cosDiff - w2 * w2 * length2 * mass2 * sinDiff * dDiff;
+        double den2 = length2 * mass;
+        double dDen2 = length2 * dMass;
+        double acceleration2 = num5 * sum / den2;
+        double dAcceleration2 = (dNum5 * sum + num5 * dSum - acceleration2 * dDen2) / den2;
+
+        dydt[4] = dw1;
+        dydt[5] = dw2;
+        dydt[6] = dAcceleration1 - FRICTION * dw1;
+        dydt[7] = dAcceleration2 - FRICTION * dw2;
+    }
+    
+    @Override
+    public ParameterSchema getSchema() {
+        return DoublePendulum.SCHEMA;
+    }
+    
+    // Angles come from the UI in degrees; moving them restarts the pendulum from rest.
+    @Override
+    public void setParameter(int index, double value) {
+        switch (index) {
+            case DoublePendulum.LENGTH1 -> length1 = value;
+            case DoublePendulum.LENGTH2 -> length2 = value;
+            case DoublePendulum.MASS1 -> mass1 = value;
+            case DoublePendulum.MASS2 -> mass2 = value;
+            case DoublePendulum.GRAVITY -> g = value;
+            case DoublePendulum.ANGLE1 -> {
+                y[0] = Math.toRadians(value);
+                y[2] = y[3] = 0;
+            }
+            case DoublePendulum.ANGLE2 -> {
+                y[1] = Math.toRadians(value);
+                y[2] = y[3] = 0;
+            }
+            case DoublePendulum.INTEGRATOR -> integrator = IntegratorType.fromIndex(value).create();
+        }
+    }
+    
+    @Override
+    public int getStateSize() {
+        return 4;
+    }
+    
+    @Override
+    public void copyState(double[] target) {
+        System.arraycopy(y, 0, target, 0, 4);
+    }
+    
+    @Override
+    public boolean canRestore() {
+        return true;
+    }
+
+    @Override
+    public void restoreState(double[] source) {
+        System.arraycopy(source, 0, y, 0, 4);
+    }
+    
+    @Override
+    public String[] getStateNames() {
+        return new String[] {"angle1", "angle2", "velocity1", "velocity2"};
+    }
+    
+    @Override
+    public String[] getObservableNames() {
+        return new String[] {"energy"};
+    }
+    
+    // Kinetic plus potential energy, zero potential at the pivot
+    @Override
+    public void computeObservables(double[] state, double[] parameters, double[] target) {
+        double l1 = parameters[DoublePendulum.LENGTH1];
+        double l2 = parameters[DoublePendulum.LENGTH2];
+        double m1 = parameters[DoublePendulum.MASS1];
+        double m2 = parameters[DoublePendulum.MASS2];
+        double gravity = parameters[DoublePendulum.GRAVITY];
+        double w1 = state[2];
+        double w2 = state[3];
+        double kinetic = 0.5 * (m1 + m2) * l1 * l1 * w1 * w1
+                       + 0.5 * m2 * (l2 * l2 * w2 * w2 + 2 * l1 * l2 * w1 * w2 * Math.cos(state[0] - state[1]));
+        double potential = -(m1 + m2) * gravity * l1 * Math.cos(state[0]) - m2 * gravity * l2 * Math.cos(state[1]);
+        target[0] = kinetic + potential;
+    }
+    
+    public double getLength1() {
+        return length1;
+    }
+    
+    public void setLength1(double length1) {
+        this.length1 = length1;
+    }
+    
+    public double getLength2() {
+        return length2;
+    }
+    
+    public void setLength2(double length2) {
+        this.length2 = length2;
+    }
+    
+    public void setMass1(double mass1) {
+        this.mass1 = mass1;
+    }
+    
+    public void setMass2(double mass2) {
+        this.mass2 = mass2;
+    }
+    
+    public double getAngle1() {
+        return y[0];
+    }
+    
+    public double getAngle2() {
+        return y[1];
+    }
+}
@@ -0,0 +1,202 @@
+package com.physicalapp.physics;
+
+import com.physicalapp.physics.record.RunRecorder;
+import java.io.UncheckedIOException;
+import java.util.concurrent.locks.LockSupport;
+
+// Steps a model at a fixed rate on its own thread and publishes every batch of steps
+// through a SnapshotBuffer, so renderers can interpolate between the last two states.
+public class FixedStepLoop {
+    private static final long MAX_LAG_NANOS = 250_000_000L;
+
+    private final PhysicsModel model;
+    private final double stepSize;
+    private final long stepNanos;
+    private final SnapshotBuffer buffer;
+    private final ParameterStore parameters;
+    private double[] appliedParameters;
+    private volatile boolean running;
+    private Thread thread;
+    
+    // Held by the physics thread while it steps a batch, so setRecorder() never returns while
+    // the previous recorder is still being written
+    private final Object recorderLock = new Object();
+    private RunRecorder recorder;
+    private int keyframeInterval;
+    private int stepsSinceKeyframe;
+    private boolean keyframeDue;
+    private double recordTime;
+    private final double[] recordedRow;   // state followed by the applied parameters
+    private volatile UncheckedIOException recordingFailure;
+
+    // The model must already hold the current values of parameters; later snapshots
+    // are applied on the physics thread before each batch of steps.
+    public FixedStepLoop(PhysicsModel model, ParameterStore parameters, double rate) {
+        this.model = model;
+        this.parameters = parameters;
+        this.appliedParameters = parameters.snapshot();
+        this.stepSize = 1.0 / rate;
+        this.stepNanos = Math.max(1, Math.round(1e9 / rate));
+        this.buffer = new SnapshotBuffer(model.getStateSize());
+        this.recordedRow = new double[model.getStateSize() + appliedParameters.length];
+    }
+
+    public double getStepSize() {
+        return stepSize;
+    }
+
+    // From now on a keyframe (time, state and parameters) is appended to the recorder every
+    // keyframeInterval steps, on the physics thread; null stops recording. Keyframes are also
+    // written right away and after every parameter change, so a replay never has to integrate
+    // across one. Recorded time continues from the recorder's last sample. Once this returns
+    // the previous recorder is no longer touched and may be closed.
+    public void setRecorder(RunRecorder recorder, int keyframeInterval) {
+        synchronized (recorderLock) {
+            flushKeyframe();
+            this.recorder = recorder;
+            this.keyframeInterval = keyframeInterval;
+            stepsSinceKeyframe = 0;
+            keyframeDue = true;
+            recordTime = recorder != null ? recorder.getLastTime() : 0;
+        }
+    }
+
+    // Set when a write failed (e.g. the disk is full); recording has stopped by then
+    public UncheckedIOException getRecordingFailure() {
+        return recordingFailure;
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "physics-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Returns only once the physics thread has exited, since the caller takes the model back.
+    // An interrupt does not cut the wait short; it is restored afterwards.
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        synchronized (recorderLock) {
+            flushKeyframe();
+            // Hand the model back in sync with the store
+            applyParameters();
+        }
+    }
+
+    // Writes the state at (now - one step) into target, interpolated between the two
+    // most recent states, and returns its model time counted from the start of the loop.
+    // Returns NaN until the first snapshot is published.
+    public double readInterpolated(double[] target, long nowNanos) {
+        SnapshotBuffer.Snapshot snapshot = buffer.acquire();
+        if (snapshot.getSequence() == 0) {
+            return Double.NaN;
+        }
+        double alpha = (double) (nowNanos - snapshot.getCurrentNanos()) / stepNanos;
+        alpha = Math.max(0, Math.min(1, alpha));
+        double[] previous = snapshot.getPrevious();
+        double[] current = snapshot.getCurrent();
+        for (int i = 0; i < target.length; i++) {
+            target[i] = previous[i] + (current[i] - previous[i]) * alpha;
+        }
+        // The sequence counts the steps taken, the current state is after the last of them
+        return (snapshot.getSequence() - 1 + alpha) * stepSize;
+    }
+
+    private void run() {
+        long sequence = 0;
+        long nextDue = System.nanoTime();
+
+        while (running) {
+            long now = System.nanoTime();
+            if (now - nextDue > MAX_LAG_NANOS) {
+                // Too far behind (debugger, suspended machine): drop the backlog instead of
+                // spiralling, the simulation just resumes from here.
+                nextDue = now;
+            }
+            if (now < nextDue) {
+                LockSupport.parkNanos(nextDue - now);
+                continue;
+            }
+
+            SnapshotBuffer.Snapshot snapshot = buffer.getBack();
+            synchronized (recorderLock) {
+                if (applyParameters() || keyframeDue) {
+                    record();
+                }
+                while (nextDue <= now) {
+                    model.copyState(snapshot.getPrevious());
+                    model.step(stepSize);
+                    nextDue += stepNanos;
+                    sequence++;
+                    if (recorder != null) {
+                        recordTime += stepSize;
+                        if (++stepsSinceKeyframe >= keyframeInterval) {
+                            record();
+                        }
+                    }
+                }
+            }
+            model.copyState(snapshot.getCurrent());
+            buffer.publish(nextDue - stepNanos, sequence);
+        }
+    }
+
+    // Writes the steps taken since the last keyframe, so the recording ends where the model is
+    private void flushKeyframe() {
+        if (stepsSinceKeyframe > 0) {
+            record();
+        }
+    }
+
+    private void record() {
+        if (recorder == null) {
+            return;
+        }
+        model.copyState(recordedRow);
+        System.arraycopy(appliedParameters, 0, recordedRow, recordedRow.length - appliedParameters.length,
+                         appliedParameters.length);
+        stepsSinceKeyframe = 0;
+        keyframeDue = false;
+        try {
+            recorder.append(recordTime, recordedRow);
+        } catch (UncheckedIOException e) {
+            recordingFailure = e;
+            recorder = null;
+        }
+    }
+
+    // Applies only the values that changed, so e.g. an untouched angle does not reset the model.
+    // Returns whether anything changed.
+    private boolean applyParameters() {
+        double[] latest = parameters.snapshot();
+        if (latest == appliedParameters) {
+            return false;
+        }
+        for (int i = 0; i < latest.length; i++) {
+            if (Double.compare(latest[i], appliedParameters[i]) != 0) {
+                model.setParameter(i, latest[i]);
+            }
+        }
+        appliedParameters = latest;
+        return true;
+    }
+}
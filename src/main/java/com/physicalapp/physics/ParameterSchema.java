@@ -0,0 +1,45 @@
+package com.physicalapp.physics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Names and defaults of the parameters of one phenomenon. Values live in a double[]
+// indexed by position in the schema; names are only resolved at the UI boundary.
+public final class ParameterSchema {
+    private final String[] names;
+    private final double[] defaults;
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    public ParameterSchema(String[] names, double[] defaults) {
+        if (names.length != defaults.length) {
+            throw new IllegalArgumentException("Expected " + names.length + " defaults, got " + defaults.length);
+        }
+        this.names = names.clone();
+        this.defaults = defaults.clone();
+        for (int i = 0; i < names.length; i++) {
+            indices.put(names[i], i);
+        }
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public double getDefault(int index) {
+        return defaults[index];
+    }
+
+    // -1 when the schema has no parameter with this name
+    public int indexOf(String name) {
+        Integer index = indices.get(name);
+        return index == null ? -1 : index;
+    }
+
+    public double[] createDefaults() {
+        return defaults.clone();
+    }
+}
@@ -0,0 +1,155 @@
+package com.physicalapp.physics;
+
+// Parameter schemas of every phenomenon, with index constants into their value arrays.
+public final class ParameterSchemas {
+    private ParameterSchemas() {
+    }
+
+    public static final class SimplePendulum {
+        public static final int LENGTH = 0;
+        public static final int ANGLE = 1;
+        public static final int DAMPING = 2;
+        public static final int INTEGRATOR = 3;  // IntegratorType ordinal
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"length", "angle", "damping", "integrator"},
+            new double[] {1.0, 45.0, 0.1, 0.0}
+        );
+    }
+
+    public static final class DoublePendulum {
+        public static final int LENGTH1 = 0;
+        public static final int LENGTH2 = 1;
+        public static final int ANGLE1 = 2;
+        public static final int ANGLE2 = 3;
+        public static final int MASS1 = 4;
+        public static final int MASS2 = 5;
+        public static final int GRAVITY = 6;
+        public static final int INTEGRATOR = 7;  // IntegratorType ordinal
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"length1", "length2", "angle1", "angle2", "mass1", "mass2", "gravity", "integrator"},
+            new double[] {1.0, 1.0, 45.0, 45.0, 1.0, 1.0, 9.81, 1.0}
+        );
+    }
+
+    public static final class Ensemble {
+        public static final int COUNT = 0;      // тысяч маятников
+        public static final int ANGLE1 = 1;
+        public static final int ANGLE2 = 2;
+        public static final int SPREAD = 3;     // разброс начальных углов, градусы
+        public static final int LENGTH1 = 4;
+        public static final int LENGTH2 = 5;
+        public static final int MASS1 = 6;
+        public static final int MASS2 = 7;
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"count", "angle1", "angle2", "spread", "length1", "length2", "mass1", "mass2"},
+            new double[] {100.0, 120.0, 120.0, 0.01, 1.0, 1.0, 1.0, 1.0}
+        );
+    }
+
+    public static final class FlipMap {
+        public static final int LENGTH1 = 0;
+        public static final int LENGTH2 = 1;
+        public static final int MASS1 = 2;
+        public static final int MASS2 = 3;
+        public static final int MAX_TIME = 4;   // секунды, дольше - "не перевернулся"
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"length1", "length2", "mass1", "mass2", "maxTime"},
+            new double[] {1.0, 1.0, 1.0, 1.0, 10.0}
+        );
+    }
+
+    public static final class StringWave {
+        public static final int TENSION = 0;
+        public static final int AMPLITUDE = 1;
+        public static final int FREQUENCY = 2;
+        public static final int BOUNDARY = 3;   // 0 - закреплённый конец, 1 - свободный
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"tension", "amplitude", "frequency", "boundary"},
+            new double[] {50.0, 0.5, 1.0, 0.0}
+        );
+    }
+
+    public static final class SpringOscillator {
+        public static final int SPRING_CONSTANT = 0;
+        public static final int MASS = 1;
+        public static final int DAMPING = 2;
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"springConstant", "mass", "damping"},
+            new double[] {50.0, 1.0, 0.1}
+        );
+    }
+
+    public static final class StandingWaves {
+        public static final int SPEED = 0;
+        public static final int NODES = 1;
+        public static final int AMPLITUDE = 2;
+        public static final int MODES = 3;      // Число гармоник в суперпозиции, до 64
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"speed", "nodes", "amplitude", "modes"},
+            new double[] {5.0, 3.0, 0.5, 1.0}
+        );
+    }
+
+    public static final class ImpulseTypes {
+        public static final int TYPE = 0;       // 0: Gaussian, 1: Square, 2: Triangular, 3: Sinc
+        public static final int AMPLITUDE = 1;
+        public static final int WIDTH = 2;
+        public static final int SPEED = 3;
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"type", "amplitude", "width", "speed"},
+            new double[] {0.0, 1.0, 0.5, 5.0}
+        );
+    }
+
+    public static final class Collisions {
+        public static final int MASS1 = 0;
+        public static final int MASS2 = 1;
+        public static final int VELOCITY1 = 2;
+        public static final int VELOCITY2 = 3;
+        public static final int RESTITUTION = 4;
+        public static final int X1 = 5;         // Начальное положение первого тела
+        public static final int X2 = 6;         // Начальное положение второго тела
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"mass1", "mass2", "velocity1", "velocity2", "restitution", "x1", "x2"},
+            new double[] {1.0, 1.0, 5.0, -5.0, 1.0, 200.0, 400.0}
+        );
+    }
+
+    public static final class MirrorReflection {
+        public static final int MIRROR_TYPE = 0; // 0: плоское, 1: вогнутое, 2: выпуклое, 3: параболическое
+        public static final int CURVATURE = 1;
+        public static final int ANGLE = 2;
+        public static final int RAYS = 3;
+        public static final int BOUNCES = 4;
+
+        public static final ParameterSchema SCHEMA = new ParameterSchema(
+            new String[] {"mirrorType", "curvature", "angle", "rays", "bounces"},
+            new double[] {0.0, 1.0, 30.0, 3.0, 1.0}
+        );
+    }
+
+    public static ParameterSchema forPhenomenon(String phenomenonId) {
+        return switch (phenomenonId) {
+            case "simple-pendulum" -> SimplePendulum.SCHEMA;
+            case "double-pendulum" -> DoublePendulum.SCHEMA;
+            case "double-pendulum-ensemble" -> Ensemble.SCHEMA;
+            case "double-pendulum-flip-map" -> FlipMap.SCHEMA;
+            case "string-wave" -> StringWave.SCHEMA;
+            case "spring-oscillator" -> SpringOscillator.SCHEMA;
+            case "standing-waves" -> StandingWaves.SCHEMA;
+            case "impulse-types" -> ImpulseTypes.SCHEMA;
+            case "collisions" -> Collisions.SCHEMA;
+            case "mirror-reflection" -> MirrorReflection.SCHEMA;
+            default -> throw new IllegalStateException("Unknown phenomenon: " + phenomenonId);
+        };
+    }
+}
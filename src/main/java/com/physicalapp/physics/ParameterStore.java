@@ -0,0 +1,42 @@
+package com.physicalapp.physics;
+
+// Parameter values of one phenomenon, published as immutable snapshots: writers copy,
+// modify and swap in a new array, so readers on any thread always see a consistent set
+// of values without locking or boxing.
+public class ParameterStore {
+    private final ParameterSchema schema;
+    private volatile double[] snapshot;
+
+    public ParameterStore(ParameterSchema schema) {
+        this.schema = schema;
+        this.snapshot = schema.createDefaults();
+    }
+
+    public ParameterSchema getSchema() {
+        return schema;
+    }
+
+    // The returned array must not be modified.
+    public double[] snapshot() {
+        return snapshot;
+    }
+
+    public double get(int index) {
+        return snapshot[index];
+    }
+
+    public synchronized void set(int index, double value) {
+        double[] next = snapshot.clone();
+        next[index] = value;
+        snapshot = next;
+    }
+
+    // Returns the index of the parameter, or -1 if the schema does not know the name.
+    public int set(String name, double value) {
+        int index = schema.indexOf(name);
+        if (index >= 0) {
+            set(index, value);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,56 @@
+package com.physicalapp.physics;
+
+// Pure stepping core of a phenomenon: no JavaFX, so it can run headless.
+public interface PhysicsModel {
+    void step(double dt);
+    ParameterSchema getSchema();
+    void setParameter(int index, double value);
+    int getStateSize();
+    void copyState(double[] target);
+
+    // Whether restoreState() is supported; models whose copyState() is not their full state
+    // cannot be restored.
+    default boolean canRestore() {
+        return false;
+    }
+
+    // Inverse of copyState(), e.g. to resume from a recorded keyframe. Parameters are applied
+    // first, since some of them (initial angles, positions) reset the state. Only supported
+    // when canRestore() is true.
+    default void restoreState(double[] source) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " cannot restore its state");
+    }
+
+    // Names of the values written by copyState(), e.g. for recorded columns
+    default String[] getStateNames() {
+        String[] names = new String[getStateSize()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "state" + i;
+        }
+        return names;
+    }
+
+    // Derived quantities (energies, momenta) reported next to the state
+    default String[] getObservableNames() {
+        return new String[0];
+    }
+
+    // Computes the observables from a state and parameter snapshot rather than from the model
+    // itself, so any thread may call it while the model is being stepped elsewhere.
+    default void computeObservables(double[] state, double[] parameters, double[] target) {
+    }
+
+    default void setParameter(String paramName, double value) {
+        int index = getSchema().indexOf(paramName);
+        if (index >= 0) {
+            setParameter(index, value);
+        }
+    }
+
+    // Applies every value of a snapshot, e.g. the defaults of the schema.
+    default void setParameters(double[] values) {
+        for (int i = 0; i < values.length; i++) {
+            setParameter(i, values[i]);
+        }
+    }
+}
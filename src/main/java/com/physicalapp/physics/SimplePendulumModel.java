@@ -0,0 +1,108 @@
+package com.physicalapp.physics;
+
+import com.physicalapp.physics.ParameterSchemas.SimplePendulum;
+import com.physicalapp.physics.integrator.Integrator;
+import com.physicalapp.physics.integrator.IntegratorType;
+import com.physicalapp.physics.integrator.OdeSystem;
+
+public class SimplePendulumModel implements PhysicsModel, OdeSystem {
+    private static final double G = 9.81;
+    
+    private double length = 1.0;
+    private double damping = 0.1;
+    
+    // angle, angular velocity
+    private final double[] y = {Math.PI / 4, 0.0};
+    private double time;
+    private Integrator integrator = IntegratorType.RK4.create();
+    
+    @Override
+    public void step(double deltaTime) {
+        time = integrator.step(this, time, y, deltaTime);
+    }
+    
+    @Override
+    public int getDimension() {
+        return 2;
+    }
+    
+    @Override
+    public void derivatives(double t, double[] state, double[] dydt) {
+        dydt[0] = state[1];
+        dydt[1] = calculateAcceleration(state[0], state[1]);
+    }
+    
+    private double calculateAcceleration(double theta, double omega) {
+        return -G / length * Math.sin(theta) - damping * omega;
+    }
+    
+    @Override
+    public ParameterSchema getSchema() {
+        return SimplePendulum.SCHEMA;
+    }
+    
+    @Override
+    public void setParameter(int index, double value) {
+        switch (index) {
+            case SimplePendulum.LENGTH -> length = value;
+            case SimplePendulum.DAMPING -> damping = value;
+            case SimplePendulum.ANGLE -> {
+                y[0] = Math.toRadians(value);
+                y[1] = 0;
+            }
+            case SimplePendulum.INTEGRATOR -> integrator = IntegratorType.fromIndex(value).create();
+        }
+    }
+    
+    @Override
+    public int getStateSize() {
+        return 2;
+    }
+    
+    @Override
+    public void copyState(double[] target) {
+        target[0] = y[0];
+        target[1] = y[1];
+    }
+    
+    @Override
+    public boolean canRestore() {
+        return true;
+    }
+
+    @Override
+    public void restoreState(double[] source) {
+        y[0] = source[0];
+        y[1] = source[1];
+    }
+    
+    @Override
+    public String[] getStateNames() {
+        return new String[] {"angle", "velocity"};
+    }
+    
+    @Override
+    public String[] getObservableNames() {
+        return new String[] {"energy"};
+    }
+    
+    // Mechanical energy per unit mass of the bob, J/kg
+    @Override
+    public void computeObservables(double[] state, double[] parameters, double[] target) {
+        double length = parameters[SimplePendulum.LENGTH];
+        double speed = length * state[1];
+        target[0] = 0.5 * speed * speed + G * length * (1 - Math.cos(state[0]));
+    }
+    
+    public double getLength() {
+        return length;
+    }
+    
+    public double getAngle() {
+        return y[0];
+    }
+    
+    public double getAngularVelocity() {
+        return y[1];
+    }
+}
@@ -0,0 +1,71 @@
+package com.physicalapp.physics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Lock-free hand-off of model states from one producer thread to one consumer thread.
+// Three slots rotate so that neither side ever waits: the producer fills the back slot,
+// the consumer reads the front slot, and the middle slot is exchanged atomically.
+public class SnapshotBuffer {
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100;
+
+    public static class Snapshot {
+        private final double[] previous;
+        private final double[] current;
+        private long currentNanos;
+        private long sequence;
+
+        private Snapshot(int stateSize) {
+            previous = new double[stateSize];
+            current = new double[stateSize];
+        }
+
+        public double[] getPrevious() {
+            return previous;
+        }
+
+        public double[] getCurrent() {
+            return current;
+        }
+
+        // Wall-clock time (System.nanoTime) at which the current state is due.
+        public long getCurrentNanos() {
+            return currentNanos;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+    }
+
+    private final Snapshot[] slots = new Snapshot[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;
+    private int front = 2;
+
+    public SnapshotBuffer(int stateSize) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Snapshot(stateSize);
+        }
+    }
+
+    // Producer side: the slot to fill before calling publish().
+    public Snapshot getBack() {
+        return slots[back];
+    }
+
+    public void publish(long currentNanos, long sequence) {
+        Snapshot snapshot = slots[back];
+        snapshot.currentNanos = currentNanos;
+        snapshot.sequence = sequence;
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // Consumer side: the most recently published snapshot.
+    public Snapshot acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return slots[front];
+    }
+}
@@ -0,0 +1,37 @@
+package com.physicalapp.physics;
+
+// Analytic wave and pulse shapes sampled by the wave phenomena.
+public final class Waves {
+    private Waves() {
+    }
+
+    public static double stringWave(double x, double time, double tension, double amplitude, double frequency) {
+        double wavelength = Math.sqrt(tension) * 50;
+        return amplitude * Math.sin(2 * Math.PI * (x / wavelength - frequency * time));
+    }
+
+    public static double standingWave(double x, double time, double length, int nodes, double speed, double amplitude) {
+        double k = nodes * Math.PI / length;
+        double omega = k * speed;
+        return amplitude * Math.sin(k * x) * Math.cos(omega * time);
+    }
+
+    // 0: Gaussian, 1: Square, 2: Triangular, 3: Sinc
+    public static double impulse(int type, double t) {
+        return switch (type) {
+            case 0 ->
+                Math.exp(-t * t / 2);
+            
+            case 1 ->
+                Math.abs(t) <= 1 ? 1 : 0;
+            
+            case 2 ->
+                Math.abs(t) <= 1 ? 1 - Math.abs(t) : 0;
+            
+            case 3 ->
+                t == 0 ? 1 : Math.sin(Math.PI * t) / (Math.PI * t);
+            
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package com.physicalapp.physics.chaos;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time for a double pendulum released from rest at (angle1, angle2) to flip over, i.e. for
+// either arm to pass through the upright position, over the whole plane of initial angles.
+// angle1 runs from -180° at the left edge to 180° at the right, angle2 from 180° at the top
+// to -180° at the bottom.
+//
+// The map is refined progressively: the first level samples every COARSEST_STRIDE-th pixel
+// and paints it as a block, every next level halves the stride and computes only the pixels
+// the coarser ones left out, so the full resolution costs one integration per pixel. A
+// level is split into square tiles that run in parallel; a tile owns all pixels of its
+// blocks, so no two tasks write the same pixel. Starting a new map cancels the running one:
+// its tiles check the generation before every pixel and give up as soon as it moved on.
+//
+// Starting from rest, a pendulum whose potential energy is too low to lift either arm
+// upright can never flip, which is decided without integrating. The motion is frictionless.
+public class FlipTimeMap {
+    // Codes written for every pixel; flip times map to FIRST_BUCKET + BUCKETS - 1 at most
+    public static final int UNKNOWN = 0;
+    public static final int CANNOT_FLIP = 1;
+    public static final int NO_FLIP = 2;          // not within the time limit
+    public static final int FIRST_BUCKET = 3;
+    public static final int BUCKETS = 253;
+
+    private static final int COARSEST_STRIDE = 32;
+    private static final int TILE = 64;           // a multiple of COARSEST_STRIDE
+    private static final double STEP = 0.01;
+    private static final double GRAVITY = 9.81;
+
+    private final ForkJoinPool pool;
+    private final AtomicLong generation = new AtomicLong();
+    private Job job;
+
+    public FlipTimeMap(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Cancels the map being computed and starts width x height over with new parameters.
+    // Returns the array the codes are written into, filled with UNKNOWN; it must only be read.
+    public int[] start(int width, int height, double length1, double length2, double mass1, double mass2,
+                       double maxTime) {
+        long current = generation.incrementAndGet();
+        int[] codes;
+        // The codes of a finished map can be reused; a cancelled one may still be writing
+        if (job != null && job.isDone() && job.codes.length == width * height) {
+            codes = job.codes;
+            Arrays.fill(codes, UNKNOWN);
+        } else {
+            codes = new int[width * height];
+        }
+        job = new Job(current, codes, width, height, length1, length2, mass1, mass2, maxTime);
+        pool.execute(job);
+        return codes;
+    }
+
+    public void cancel() {
+        generation.incrementAndGet();
+    }
+
+    // Number of levels done of the current map, up to getLevelCount()
+    public int getCompletedLevels() {
+        return job != null ? job.completedLevels : 0;
+    }
+
+    public static int getLevelCount() {
+        return Integer.numberOfTrailingZeros(COARSEST_STRIDE) + 1;
+    }
+
+    // Flip times are bucketed on a log scale up to maxTime
+    public static int bucketOf(double time, double maxTime) {
+        int bucket = (int) (BUCKETS * Math.log1p(time) / Math.log1p(maxTime));
+        return FIRST_BUCKET + (bucket < BUCKETS ? bucket : BUCKETS - 1);
+    }
+
+    private class Job extends RecursiveAction {
+        private final long id;
+        private final int[] codes;
+        private final int width;
+        private final int height;
+        private final double l1, l2, m1, m2;
+        private final double maxTime;
+        private final double threshold;   // least potential energy from which an arm can get upright
+        private volatile int completedLevels;
+
+        Job(long id, int[] codes, int width, int height, double l1, double l2, double m1, double m2,
+            double maxTime) {
+            this.id = id;
+            this.codes = codes;
+            this.width = width;
+            this.height = height;
+            this.l1 = l1;
+            this.l2 = l2;
+            this.m1 = m1;
+            this.m2 = m2;
+            this.maxTime = maxTime;
+            // Arm 1 upright needs at least (m1 + m2) g l1 - m2 g l2, arm 2 upright at least
+            // m2 g l2 - (m1 + m2) g l1; energy is conserved, so below both neither happens
+            threshold = -Math.abs((m1 + m2) * l1 - m2 * l2) * GRAVITY;
+        }
+
+        @Override
+        protected void compute() {
+            int tilesX = (width + TILE - 1) / TILE;
+            int tilesY = (height + TILE - 1) / TILE;
+            for (int stride = COARSEST_STRIDE; stride >= 1; stride >>= 1) {
+                if (generation.get() != id) {
+                    return;
+                }
+                Tile[] tiles = new Tile[tilesX * tilesY];
+                for (int t = 0; t < tiles.length; t++) {
+                    tiles[t] = new Tile(this, (t % tilesX) * TILE, (t / tilesX) * TILE, stride);
+                }
+                ForkJoinTask.invokeAll(tiles);
+                if (generation.get() == id) {
+                    completedLevels++;
+                }
+            }
+        }
+
+        // Samples of one level inside one tile; stride == COARSEST_STRIDE is the first level
+        void computeTile(int x0, int y0, int stride) {
+            boolean first = stride == COARSEST_STRIDE;
+            int x1 = Math.min(width, x0 + TILE);
+            int y1 = Math.min(height, y0 + TILE);
+            for (int y = y0; y < y1; y += stride) {
+                boolean oddRow = (y & stride) != 0;
+                for (int x = x0; x < x1; x += stride) {
+                    // Pixels on the lattice of the previous level are already done
+                    if (!first && !oddRow && (x & stride) == 0) {
+                        continue;
+                    }
+                    if (generation.get() != id) {
+                        return;
+                    }
+                    int code = sample(Math.PI * (2 * (x + 0.5) / width - 1), Math.PI * (1 - 2 * (y + 0.5) / height));
+                    int bottom = Math.min(y1, y + stride);
+                    int right = Math.min(x1, x + stride);
+                    for (int by = y; by < bottom; by++) {
+                        int row = by * width;
+                        for (int bx = x; bx < right; bx++) {
+                            codes[row + bx] = code;
+                        }
+                    }
+                }
+            }
+        }
+
+        // RK4 from rest until either angle leaves [-pi, pi] or maxTime has passed
+        private int sample(double a1, double a2) {
+            double potential = -(m1 + m2) * GRAVITY * l1 * Math.cos(a1) - m2 * GRAVITY * l2 * Math.cos(a2);
+            if (potential < threshold) {
+                return CANNOT_FLIP;
+            }
+            double[] k = new double[2];
+            double w1 = 0;
+            double w2 = 0;
+            double h = STEP;
+            long steps = (long) Math.ceil(maxTime / h);
+            for (long s = 1; s <= steps; s++) {
+                accelerations(a1, a2, w1, w2, k);
+                double ka1 = w1, ka2 = w2, kw1 = k[0], kw2 = k[1];
+                accelerations(a1 + 0.5 * h * ka1, a2 + 0.5 * h * ka2, w1 + 0.5 * h * kw1, w2 + 0.5 * h * kw2, k);
+                double la1 = w1 + 0.5 * h * kw1, la2 = w2 + 0.5 * h * kw2, lw1 = k[0], lw2 = k[1];
+                accelerations(a1 + 0.5 * h * la1, a2 + 0.5 * h * la2, w1 + 0.5 * h * lw1, w2 + 0.5 * h * lw2, k);
+                double ma1 = w1 + 0.5 * h * lw1, ma2 = w2 + 0.5 * h * lw2, mw1 = k[0], mw2 = k[1];
+                accelerations(a1 + h * ma1, a2 + h * ma2, w1 + h * mw1, w2 + h * mw2, k);
+                double na1 = w1 + h * mw1, na2 = w2 + h * mw2, nw1 = k[0], nw2 = k[1];
+
+                a1 += h / 6 * (ka1 + 2 * la1 + 2 * ma1 + na1);
+                a2 += h / 6 * (ka2 + 2 * la2 + 2 * ma2 + na2);
+                w1 += h / 6 * (kw1 + 2 * lw1 + 2 * mw1 + nw1);
+                w2 += h / 6 * (kw2 + 2 * lw2 + 2 * mw2 + nw2);
+                if (a1 > Math.PI || a1 < -Math.PI || a2 > Math.PI || a2 < -Math.PI) {
+                    return bucketOf(s * h, maxTime);
+                }
+            }
+            return NO_FLIP;
+        }
+
+        // Angular accelerations into k[0], k[1]; the equations of DoublePendulumModel without friction
+        private void accelerations(double a1, double a2, double w1, double w2, double[] k) {
+            double sin1 = Math.sin(a1);
+            double cos1 = Math.cos(a1);
+            double sin2 = Math.sin(a2);
+            double cos2 = Math.cos(a2);
+            double sinD = sin1 * cos2 - cos1 * sin2;      // sin(a1 - a2)
+            double cosD = cos1 * cos2 + sin1 * sin2;      // cos(a1 - a2)
+            double sinA1m2A2 = sinD * cos2 - cosD * sin2; // sin(a1 - 2a2)
+            double common = 2 * m1 + m2 - m2 * (2 * cosD * cosD - 1);
+            k[0] = (-GRAVITY * (2 * m1 + m2) * sin1
+                    - m2 * GRAVITY * sinA1m2A2
+                    - 2 * sinD * m2 * (w2 * w2 * l2 + w1 * w1 * l1 * cosD)) / (l1 * common);
+            k[1] = 2 * sinD * (w1 * w1 * l1 * (m1 + m2)
+                    + GRAVITY * (m1 + m2) * cos1
+                    + w2 * w2 * l2 * m2 * cosD) / (l2 * common);
+        }
+    }
+
+    private static class Tile extends RecursiveAction {
+        private final Job job;
+        private final int x0;
+        private final int y0;
+        private final int stride;
+
+        Tile(Job job, int x0, int y0, int stride) {
+            this.job = job;
+            this.x0 = x0;
+            this.y0 = y0;
+            this.stride = stride;
+        }
+
+        @Override
+        protected void compute() {
+            job.computeTile(x0, y0, stride);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.physicalapp.physics.chaos;
+
+import com.physicalapp.physics.DoublePendulumModel;
+import com.physicalapp.physics.ParameterSchemas.DoublePendulum;
+import com.physicalapp.physics.integrator.OdeSystem;
+import com.physicalapp.physics.integrator.RungeKutta4;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Maximal Lyapunov exponent of the double pendulum by the Benettin method. Every trajectory
+// carries a perturbation that evolves under the tangent linear system; every few steps the
+// perturbation is scaled back to unit length and the log of its growth is summed, so it
+// never overflows and keeps turning towards the fastest-growing direction. The exponent of
+// a trajectory is that sum over the elapsed time.
+//
+// Trajectories start at rest with angles spread uniformly around the given ones and are
+// independent, so they are advanced in parallel, one task each; the estimate is the mean
+// over them and its spread shows how far they disagree.
+public class LyapunovEstimator {
+    public record Estimate(double exponent, double standardDeviation, int trajectories, double time) { }
+
+    private final ForkJoinPool pool;
+    private final int count;
+    private final double spread;
+    private final double stepSize;
+    private final int renormalizeEvery;
+
+    // Per trajectory: y[0..3] the state, y[4..7] the perturbation
+    private final DoublePendulumModel[] models;
+    private final OdeSystem[] systems;
+    private final RungeKutta4[] integrators;
+    private final double[][] states;
+    private final double[] logGrowth;
+    private final int[] sinceRenormalize;
+    private double time;
+
+    // spread is in degrees, like the angle parameters
+    public LyapunovEstimator(ForkJoinPool pool, int count, double spread, double stepSize, int renormalizeEvery) {
+        this.pool = pool;
+        this.count = count;
+        this.spread = spread;
+        this.stepSize = stepSize;
+        this.renormalizeEvery = renormalizeEvery;
+        models = new DoublePendulumModel[count];
+        systems = new OdeSystem[count];
+        integrators = new RungeKutta4[count];
+        states = new double[count][8];
+        logGrowth = new double[count];
+        sinceRenormalize = new int[count];
+        for (int i = 0; i < count; i++) {
+            models[i] = new DoublePendulumModel();
+            systems[i] = models[i].withTangent();
+            integrators[i] = new RungeKutta4();
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    // Starts over from the parameters of a DoublePendulum snapshot; the same seed gives the
+    // same initial conditions and perturbations
+    public void reset(double[] parameters, long seed) {
+        Random random = new Random(seed);
+        double angle1 = parameters[DoublePendulum.ANGLE1];
+        double angle2 = parameters[DoublePendulum.ANGLE2];
+        for (int i = 0; i < count; i++) {
+            models[i].setParameters(parameters);
+            double[] y = states[i];
+            y[0] = Math.toRadians(angle1 + spread * (2 * random.nextDouble() - 1));
+            y[1] = Math.toRadians(angle2 + spread * (2 * random.nextDouble() - 1));
+            y[2] = 0;
+            y[3] = 0;
+            double norm = 0;
+            for (int k = 4; k < 8; k++) {
+                y[k] = random.nextGaussian();
+                norm += y[k] * y[k];
+            }
+            norm = Math.sqrt(norm);
+            for (int k = 4; k < 8; k++) {
+                y[k] /= norm;
+            }
+            logGrowth[i] = 0;
+            sinceRenormalize[i] = 0;
+        }
+        time = 0;
+    }
+
+    // Advances every trajectory by a whole number of steps covering about duration seconds;
+    // blocks until all are done
+    public void advance(double duration) {
+        long steps = Math.max(1, Math.round(duration / stepSize));
+        pool.invoke(new AdvanceTask(0, count, steps));
+        time += steps * stepSize;
+    }
+
+    // Call between advance() calls, from the thread that makes them
+    public Estimate estimate() {
+        if (time == 0) {
+            return new Estimate(0, 0, count, 0);
+        }
+        double mean = 0;
+        double m2 = 0;
+        for (int i = 0; i < count; i++) {
+            // The growth since the last renormalization counts as well
+            double exponent = (logGrowth[i] + Math.log(tangentNorm(states[i]))) / time;
+            double delta = exponent - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (exponent - mean);
+        }
+        double deviation = count > 1 ? Math.sqrt(m2 / (count - 1)) : 0;
+        return new Estimate(mean, deviation, count, time);
+    }
+
+    private void advanceTrajectory(int i, long steps) {
+        double[] y = states[i];
+        OdeSystem system = systems[i];
+        RungeKutta4 integrator = integrators[i];
+        double sum = logGrowth[i];
+        int since = sinceRenormalize[i];
+        for (long s = 0; s < steps; s++) {
+            integrator.step(system, 0, y, stepSize);
+            if (++since == renormalizeEvery) {
+                double norm = tangentNorm(y);
+                sum += Math.log(norm);
+                for (int k = 4; k < 8; k++) {
+                    y[k] /= norm;
+                }
+                since = 0;
+            }
+        }
+        logGrowth[i] = sum;
+        sinceRenormalize[i] = since;
+    }
+
+    private static double tangentNorm(double[] y) {
+        return Math.sqrt(y[4] * y[4] + y[5] * y[5] + y[6] * y[6] + y[7] * y[7]);
+    }
+
+    private class AdvanceTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final long steps;
+
+        AdvanceTask(int from, int to, long steps) {
+            this.from = from;
+            this.to = to;
+            this.steps = steps;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new AdvanceTask(from, mid, steps), new AdvanceTask(mid, to, steps));
+            } else if (to > from) {
+                advanceTrajectory(from, steps);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.physicalapp.physics.chaos;
+
+import com.physicalapp.physics.ParameterStore;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.locks.LockSupport;
+
+// Keeps a LyapunovEstimator running in the background for the parameters of a store and
+// publishes the estimate after every slice, so the UI only ever reads a volatile field.
+// A new snapshot in the store starts the estimate over. The workers run at minimum
+// priority and leave one core free, which keeps the frame pulse and the physics thread
+// ahead of them; once maxTime of pendulum time is covered the estimate is left as it is.
+public class LyapunovMonitor {
+    private static final double SLICE = 0.5;              // pendulum seconds between publications
+    private static final long IDLE_NANOS = 100_000_000L;
+
+    private final ParameterStore parameters;
+    private final int count;
+    private final double spread;
+    private final double maxTime;
+    private volatile LyapunovEstimator.Estimate estimate;
+    private volatile boolean running;
+    private Thread thread;
+    private ForkJoinPool pool;
+
+    public LyapunovMonitor(ParameterStore parameters, int count, double spread, double maxTime) {
+        this.parameters = parameters;
+        this.count = count;
+        this.spread = spread;
+        this.maxTime = maxTime;
+    }
+
+    // Null until the first slice is done and right after a parameter change
+    public LyapunovEstimator.Estimate getEstimate() {
+        return estimate;
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        pool = new ForkJoinPool(workers, pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("lyapunov-worker-" + worker.getPoolIndex());
+            worker.setPriority(Thread.MIN_PRIORITY);
+            return worker;
+        }, null, false);
+        thread = new Thread(this::run, "lyapunov-monitor");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+        estimate = null;
+    }
+
+    private void run() {
+        LyapunovEstimator estimator = new LyapunovEstimator(pool, count, spread, 1e-3, 10);
+        double[] applied = null;
+        while (running) {
+            // Snapshots are replaced, never modified, so a new array means new values
+            double[] snapshot = parameters.snapshot();
+            if (snapshot != applied) {
+                applied = snapshot;
+                estimate = null;
+                estimator.reset(snapshot, 1);
+            }
+            if (estimator.getTime() >= maxTime) {
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+            estimator.advance(SLICE);
+            if (running && parameters.snapshot() == applied) {
+                estimate = estimator.estimate();
+            }
+        }
+    }
+}
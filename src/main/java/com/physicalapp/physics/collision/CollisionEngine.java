@@ -0,0 +1,467 @@
+package com.physicalapp.physics.collision;
+
+import java.util.Arrays;
+
+// Event-driven simulation of hard disks in a box [0, width] x [0, height].
+// Instead of stepping positions and testing for overlap, the engine predicts the exact time
+// of every particle's next collision and processes events in time order, so nothing can
+// tunnel regardless of speed or frame length. Particles move in straight lines between
+// events and each one carries its own clock, so an event only touches its participants
+// and the cost of advance() is proportional to the number of events.
+//
+// Each particle keeps one pending event, its earliest predicted one. Events are invalidated
+// lazily through per-particle collision counters: an event whose owner has collided since
+// it was predicted is dropped; one whose partner has collided makes the owner re-predict.
+//
+// Above GRID_THRESHOLD particles, partners are looked up in a uniform grid (broadphase):
+// a particle only predicts against the 3x3 cells around its own, and crossing into the
+// next cell is itself an event that relinks it in the grid and re-predicts. That keeps
+// each prediction O(1) at constant density instead of O(N).
+//
+// For a 1D system put every particle on the same y with vy = 0; horizontal walls are then
+// never hit and collisions act along x only.
+public class CollisionEngine {
+    private static final int WALL_X = -1;
+    private static final int WALL_Y = -2;
+    private static final int TRANSIT_X = -3;
+    private static final int TRANSIT_Y = -4;
+    private static final int NONE = -5;
+
+    private static final int GRID_THRESHOLD = 64;
+
+    // Two particles that both collided within this time bounce elastically (TC model).
+    // It stops inelastic collapse, where restitution < 1 would need infinitely many
+    // events in finite time.
+    private static final double DEFAULT_CONTACT_DURATION = 1e-6;
+    private static final int DEFAULT_MAX_EVENTS = 1_000_000;
+
+    private double[] x;
+    private double[] y;
+    private double[] vx;
+    private double[] vy;
+    private double[] radius;
+    private double[] mass;
+    private double[] clock;         // time at which x, y are valid
+    private double[] lastEvent;
+    private int[] count;            // collisions so far, used to invalidate events
+    private int size;
+
+    private final EventQueue queue;
+    private final UniformGrid grid = new UniformGrid();
+    private boolean gridEnabled = true;
+    private boolean useGrid;
+    private double width;
+    private double height;
+    private double restitution = 1.0;
+    private double contactDuration = DEFAULT_CONTACT_DURATION;
+    private int maxEventsPerAdvance = DEFAULT_MAX_EVENTS;
+
+    private double time;
+    private long eventCount;
+    private boolean stalled;
+    private boolean dirty = true;
+
+    public CollisionEngine(int capacity, double width, double height) {
+        capacity = Math.max(capacity, 1);
+        x = new double[capacity];
+        y = new double[capacity];
+        vx = new double[capacity];
+        vy = new double[capacity];
+        radius = new double[capacity];
+        mass = new double[capacity];
+        clock = new double[capacity];
+        lastEvent = new double[capacity];
+        count = new int[capacity];
+        queue = new EventQueue(2 * capacity);
+        this.width = width;
+        this.height = height;
+    }
+
+    public int add(double x, double y, double vx, double vy, double radius, double mass) {
+        if (size == this.x.length) {
+            grow();
+        }
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        this.radius[i] = radius;
+        this.mass[i] = mass;
+        clock[i] = time;
+        lastEvent[i] = Double.NEGATIVE_INFINITY;
+        count[i] = 0;
+        dirty = true;
+        return i;
+    }
+
+    public void clear() {
+        size = 0;
+        queue.clear();
+        dirty = true;
+    }
+
+    // Advances the simulation by dt and returns the simulated time actually covered.
+    // That is less than dt only when more than maxEventsPerAdvance events fall into the
+    // interval; the clock then stops at the last processed event and resumes next call.
+    public double advance(double dt) {
+        if (dirty) {
+            rebuild();
+        }
+        double start = time;
+        double target = time + dt;
+        int processed = 0;
+        stalled = false;
+
+        while (!queue.isEmpty() && queue.peekTime() <= target) {
+            if (processed == maxEventsPerAdvance) {
+                stalled = true;
+                target = time;
+                break;
+            }
+            processed++;
+            queue.poll();
+            int a = queue.a;
+            int b = queue.b;
+            if (queue.countA != count[a]) {
+                continue;   // the owner has already re-predicted
+            }
+            time = queue.time;
+            if (b >= 0 && queue.countB != count[b]) {
+                // The partner changed course, so this particle needs a new prediction
+                sync(a);
+                predict(a);
+                continue;
+            }
+
+            switch (b) {
+                case TRANSIT_X -> transit(a, vx[a] > 0 ? 1 : -1, 0);
+                case TRANSIT_Y -> transit(a, 0, vy[a] > 0 ? 1 : -1);
+                case WALL_X -> bounceX(a);
+                case WALL_Y -> bounceY(a);
+                default -> collide(a, b);
+            }
+
+            if (queue.size() > 8 * size + 1024) {
+                rebuild();   // compact away stale events
+            }
+        }
+        time = target;
+        return time - start;
+    }
+
+    private void collide(int a, int b) {
+        sync(a);
+        sync(b);
+        double dx = x[b] - x[a];
+        double dy = y[b] - y[a];
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if (distance > 0) {
+            double nx = dx / distance;
+            double ny = dy / distance;
+            double approach = (vx[b] - vx[a]) * nx + (vy[b] - vy[a]) * ny;
+
+            boolean inContact = time - lastEvent[a] < contactDuration
+                && time - lastEvent[b] < contactDuration;
+            double k = inContact ? 1.0 : restitution;
+
+            // Impulse along the line of centres; k = 1 is elastic, k = 0 leaves the
+            // bodies with a common normal velocity
+            double impulse = (1 + k) * approach * mass[a] * mass[b] / (mass[a] + mass[b]);
+            vx[a] += impulse * nx / mass[a];
+            vy[a] += impulse * ny / mass[a];
+            vx[b] -= impulse * nx / mass[b];
+            vy[b] -= impulse * ny / mass[b];
+        }
+        lastEvent[a] = time;
+        lastEvent[b] = time;
+        eventCount++;
+        count[a]++;
+        count[b]++;
+        predict(a);
+        predict(b);
+    }
+
+    private void bounceX(int i) {
+        sync(i);
+        vx[i] = -vx[i];
+        lastEvent[i] = time;
+        eventCount++;
+        count[i]++;
+        predict(i);
+    }
+
+    private void bounceY(int i) {
+        sync(i);
+        vy[i] = -vy[i];
+        lastEvent[i] = time;
+        eventCount++;
+        count[i]++;
+        predict(i);
+    }
+
+    // Crossing a cell boundary leaves the trajectory and every other prediction intact,
+    // so the counter is not bumped; only this particle's neighbourhood changes.
+    private void transit(int i, int stepX, int stepY) {
+        sync(i);
+        grid.move(i, grid.cellX[i] + stepX, grid.cellY[i] + stepY);
+        predict(i);
+    }
+
+    // Schedules the earliest event of particle i, which must be synced to the current time
+    private void predict(int i) {
+        double best = wallTime(x[i], vx[i], radius[i], width);
+        int partner = best < Double.POSITIVE_INFINITY ? WALL_X : NONE;
+        double wallY = wallTime(y[i], vy[i], radius[i], height);
+        if (wallY < best) {
+            best = wallY;
+            partner = WALL_Y;
+        }
+
+        if (useGrid) {
+            int cx = grid.cellX[i];
+            int cy = grid.cellY[i];
+            for (int ny = Math.max(0, cy - 1); ny <= Math.min(grid.rows - 1, cy + 1); ny++) {
+                for (int nx = Math.max(0, cx - 1); nx <= Math.min(grid.columns - 1, cx + 1); nx++) {
+                    for (int j = grid.head[grid.cell(nx, ny)]; j >= 0; j = grid.next[j]) {
+                        if (j == i) {
+                            continue;
+                        }
+                        double dt = pairTime(i, j);
+                        if (dt < best) {
+                            best = dt;
+                            partner = j;
+                        }
+                    }
+                }
+            }
+
+            double transitX = transitTime(x[i], vx[i], cx, grid.columns);
+            if (transitX < best) {
+                best = transitX;
+                partner = TRANSIT_X;
+            }
+            double transitY = transitTime(y[i], vy[i], cy, grid.rows);
+            if (transitY < best) {
+                best = transitY;
+                partner = TRANSIT_Y;
+            }
+        } else {
+            for (int j = 0; j < size; j++) {
+                if (j == i) {
+                    continue;
+                }
+                double dt = pairTime(i, j);
+                if (dt < best) {
+                    best = dt;
+                    partner = j;
+                }
+            }
+        }
+
+        if (partner != NONE) {
+            queue.add(time + best, i, partner, count[i], partner >= 0 ? count[partner] : 0);
+        }
+    }
+
+    private static double wallTime(double position, double velocity, double radius, double limit) {
+        if (velocity > 0) {
+            return Math.max(0, (limit - radius - position) / velocity);
+        } else if (velocity < 0) {
+            return Math.max(0, (radius - position) / velocity);
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    // Time until a particle leaves cell index along one axis; none past the outer cells
+    private double transitTime(double position, double velocity, int index, int cells) {
+        if (velocity > 0 && index < cells - 1) {
+            return Math.max(0, ((index + 1) * grid.cellSize - position) / velocity);
+        } else if (velocity < 0 && index > 0) {
+            return Math.max(0, (index * grid.cellSize - position) / velocity);
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    // Time until disks i and j touch, with i synced to the current time
+    private double pairTime(int i, int j) {
+        double elapsed = time - clock[j];
+        double dx = x[j] + vx[j] * elapsed - x[i];
+        double dy = y[j] + vy[j] * elapsed - y[i];
+        double dvx = vx[j] - vx[i];
+        double dvy = vy[j] - vy[i];
+
+        double dvdr = dx * dvx + dy * dvy;
+        if (dvdr >= 0) {
+            return Double.POSITIVE_INFINITY;   // separating
+        }
+        double dvdv = dvx * dvx + dvy * dvy;
+        double sigma = radius[i] + radius[j];
+        double drdr = dx * dx + dy * dy;
+        double discriminant = dvdr * dvdr - dvdv * (drdr - sigma * sigma);
+        if (discriminant < 0) {
+            return Double.POSITIVE_INFINITY;   // miss
+        }
+        // Already overlapping and approaching gives a negative root: collide now
+        return Math.max(0, -(dvdr + Math.sqrt(discriminant)) / dvdv);
+    }
+
+    private void sync(int i) {
+        double elapsed = time - clock[i];
+        if (elapsed != 0) {
+            x[i] += vx[i] * elapsed;
+            y[i] += vy[i] * elapsed;
+            clock[i] = time;
+        }
+    }
+
+    private void rebuild() {
+        queue.clear();
+        for (int i = 0; i < size; i++) {
+            sync(i);
+        }
+        useGrid = gridEnabled && size >= GRID_THRESHOLD;
+        if (useGrid) {
+            buildGrid();
+        }
+        for (int i = 0; i < size; i++) {
+            predict(i);
+        }
+        dirty = false;
+    }
+
+    // Cells are at least one maximum diameter wide, so any pair that can touch sits in
+    // neighbouring cells, and about one particle per cell on average to keep transits rare
+    private void buildGrid() {
+        double maxRadius = 0;
+        for (int i = 0; i < size; i++) {
+            maxRadius = Math.max(maxRadius, radius[i]);
+        }
+        double cellSize = Math.max(2 * maxRadius * 1.0001, Math.sqrt(width * Math.max(height, 1) / size));
+        grid.configure(width, height, cellSize, x.length);
+        for (int i = 0; i < size; i++) {
+            grid.insert(i, x[i], y[i]);
+        }
+    }
+
+    // Changing a particle re-predicts it; events other particles hold against it become
+    // stale through its counter and are re-predicted when they come up.
+    private void touch(int i) {
+        count[i]++;
+        if (!dirty) {
+            predict(i);
+        }
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        clock = Arrays.copyOf(clock, capacity);
+        lastEvent = Arrays.copyOf(lastEvent, capacity);
+        count = Arrays.copyOf(count, capacity);
+    }
+
+    public void setPosition(int i, double x, double y) {
+        this.x[i] = x;
+        this.y[i] = y;
+        clock[i] = time;
+        if (useGrid) {
+            dirty = true;   // the particle may have jumped to any cell
+        }
+        touch(i);
+    }
+
+    public void setVelocity(int i, double vx, double vy) {
+        sync(i);
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        touch(i);
+    }
+
+    public void setBody(int i, double radius, double mass) {
+        sync(i);
+        this.radius[i] = radius;
+        this.mass[i] = mass;
+        if (useGrid && 2 * radius > grid.cellSize) {
+            dirty = true;   // the grid no longer covers this diameter
+        }
+        touch(i);
+    }
+
+    public void setBounds(double width, double height) {
+        this.width = width;
+        this.height = height;
+        dirty = true;
+    }
+
+    // Brute-force partner search can be forced for comparison; the grid is used by default
+    public void setGridEnabled(boolean gridEnabled) {
+        this.gridEnabled = gridEnabled;
+        dirty = true;
+    }
+
+    public void setRestitution(double restitution) {
+        this.restitution = restitution;
+    }
+
+    public void setContactDuration(double contactDuration) {
+        this.contactDuration = contactDuration;
+    }
+
+    public void setMaxEventsPerAdvance(int maxEventsPerAdvance) {
+        this.maxEventsPerAdvance = Math.max(1, maxEventsPerAdvance);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public double getX(int i) {
+        return x[i] + vx[i] * (time - clock[i]);
+    }
+
+    public double getY(int i) {
+        return y[i] + vy[i] * (time - clock[i]);
+    }
+
+    public double getVx(int i) {
+        return vx[i];
+    }
+
+    public double getVy(int i) {
+        return vy[i];
+    }
+
+    public double getRadius(int i) {
+        return radius[i];
+    }
+
+    public double getMass(int i) {
+        return mass[i];
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public boolean isStalled() {
+        return stalled;
+    }
+
+    public double getKineticEnergy() {
+        double energy = 0;
+        for (int i = 0; i < size; i++) {
+            energy += 0.5 * mass[i] * (vx[i] * vx[i] + vy[i] * vy[i]);
+        }
+        return energy;
+    }
+}
@@ -0,0 +1,126 @@
+package com.physicalapp.physics.collision;
+
+import java.util.Arrays;
+
+// Binary min-heap of collision events kept in parallel primitive arrays, so scheduling
+// an event never allocates once the arrays have grown to the working size.
+// An event is (time, a, b, countA, countB); the counts are the collision counters of
+// both participants at prediction time and let the engine drop stale events lazily.
+final class EventQueue {
+    private double[] times;
+    private int[] first;
+    private int[] second;
+    private int[] firstCounts;
+    private int[] secondCounts;
+    private int size;
+
+    // The most recently polled event
+    double time;
+    int a;
+    int b;
+    int countA;
+    int countB;
+
+    EventQueue(int capacity) {
+        capacity = Math.max(capacity, 16);
+        times = new double[capacity];
+        first = new int[capacity];
+        second = new int[capacity];
+        firstCounts = new int[capacity];
+        secondCounts = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    double peekTime() {
+        return times[0];
+    }
+
+    void add(double time, int a, int b, int countA, int countB) {
+        if (size == times.length) {
+            grow();
+        }
+        int i = size++;
+        // Sift up
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (times[parent] <= time) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        set(i, time, a, b, countA, countB);
+    }
+
+    // Removes the earliest event and exposes it through the public fields
+    void poll() {
+        time = times[0];
+        a = first[0];
+        b = second[0];
+        countA = firstCounts[0];
+        countB = secondCounts[0];
+
+        int last = --size;
+        if (last == 0) {
+            return;
+        }
+        double lastTime = times[last];
+        int lastA = first[last];
+        int lastB = second[last];
+        int lastCountA = firstCounts[last];
+        int lastCountB = secondCounts[last];
+
+        // Sift the former last element down from the root
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < last && times[right] < times[child]) {
+                child = right;
+            }
+            if (lastTime <= times[child]) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        set(i, lastTime, lastA, lastB, lastCountA, lastCountB);
+    }
+
+    private void move(int from, int to) {
+        times[to] = times[from];
+        first[to] = first[from];
+        second[to] = second[from];
+        firstCounts[to] = firstCounts[from];
+        secondCounts[to] = secondCounts[from];
+    }
+
+    private void set(int i, double time, int a, int b, int countA, int countB) {
+        times[i] = time;
+        first[i] = a;
+        second[i] = b;
+        firstCounts[i] = countA;
+        secondCounts[i] = countB;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        first = Arrays.copyOf(first, capacity);
+        second = Arrays.copyOf(second, capacity);
+        firstCounts = Arrays.copyOf(firstCounts, capacity);
+        secondCounts = Arrays.copyOf(secondCounts, capacity);
+    }
+}
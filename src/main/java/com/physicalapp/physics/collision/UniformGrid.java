@@ -0,0 +1,81 @@
+package com.physicalapp.physics.collision;
+
+import java.util.Arrays;
+
+// Uniform grid over the box with one intrusive doubly linked list of particles per cell.
+// All links live in int arrays indexed by particle, so moving a particle to a neighbouring
+// cell is an O(1) unlink/link with no allocation.
+final class UniformGrid {
+    private static final int EMPTY = -1;
+
+    double cellSize;
+    int columns;
+    int rows;
+
+    int[] head = new int[0];
+    int[] next = new int[0];
+    private int[] prev = new int[0];
+    int[] cellX = new int[0];
+    int[] cellY = new int[0];
+
+    void configure(double width, double height, double cellSize, int capacity) {
+        this.cellSize = cellSize;
+        columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        if (head.length < columns * rows) {
+            head = new int[columns * rows];
+        }
+        Arrays.fill(head, 0, columns * rows, EMPTY);
+        if (next.length < capacity) {
+            next = new int[capacity];
+            prev = new int[capacity];
+            cellX = new int[capacity];
+            cellY = new int[capacity];
+        }
+    }
+
+    void insert(int i, double x, double y) {
+        cellX[i] = clamp((int) Math.floor(x / cellSize), columns);
+        cellY[i] = clamp((int) Math.floor(y / cellSize), rows);
+        link(i);
+    }
+
+    void move(int i, int cx, int cy) {
+        unlink(i);
+        cellX[i] = cx;
+        cellY[i] = cy;
+        link(i);
+    }
+
+    int cell(int cx, int cy) {
+        return cy * columns + cx;
+    }
+
+    private void link(int i) {
+        int cell = cell(cellX[i], cellY[i]);
+        int first = head[cell];
+        next[i] = first;
+        prev[i] = EMPTY;
+        if (first != EMPTY) {
+            prev[first] = i;
+        }
+        head[cell] = i;
+    }
+
+    private void unlink(int i) {
+        int before = prev[i];
+        int after = next[i];
+        if (before != EMPTY) {
+            next[before] = after;
+        } else {
+            head[cell(cellX[i], cellY[i])] = after;
+        }
+        if (after != EMPTY) {
+            prev[after] = before;
+        }
+    }
+
+    private static int clamp(int index, int count) {
+        return Math.max(0, Math.min(count - 1, index));
+    }
+}
@@ -0,0 +1,157 @@
+package com.physicalapp.physics.integrator;
+
+// Adaptive Dormand-Prince 5(4) with error control. Each step() call covers dt with as many
+// internal steps as the tolerances require; the last accepted step size is carried over
+// to the next call, so smooth stretches are crossed in few large steps. A call gives up
+// after MAX_STEPS_PER_CALL internal steps and returns the time it reached; a non-finite
+// error estimate or a step too small to advance t throws instead of spinning until then.
+public class DormandPrince45 implements Integrator {
+    private static final double C2 = 1.0 / 5, C3 = 3.0 / 10, C4 = 4.0 / 5, C5 = 8.0 / 9;
+    private static final double A21 = 1.0 / 5;
+    private static final double A31 = 3.0 / 40, A32 = 9.0 / 40;
+    private static final double A41 = 44.0 / 45, A42 = -56.0 / 15, A43 = 32.0 / 9;
+    private static final double A51 = 19372.0 / 6561, A52 = -25360.0 / 2187, A53 = 64448.0 / 6561,
+            A54 = -212.0 / 729;
+    private static final double A61 = 9017.0 / 3168, A62 = -355.0 / 33, A63 = 46732.0 / 5247,
+            A64 = 49.0 / 176, A65 = -5103.0 / 18656;
+    private static final double B1 = 35.0 / 384, B3 = 500.0 / 1113, B4 = 125.0 / 192,
+            B5 = -2187.0 / 6784, B6 = 11.0 / 84;
+    // Difference between the fifth- and fourth-order weights
+    private static final double E1 = 71.0 / 57600, E3 = -71.0 / 16695, E4 = 71.0 / 1920,
+            E5 = -17253.0 / 339200, E6 = 22.0 / 525, E7 = -1.0 / 40;
+
+    private static final double SAFETY = 0.9;
+    private static final double MIN_SCALE = 0.2;
+    private static final double MAX_SCALE = 5.0;
+    private static final int MAX_STEPS_PER_CALL = 100_000;
+
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private double suggestedStep = Double.NaN;
+    private int acceptedSteps;
+    private int rejectedSteps;
+
+    private double[] k1 = new double[0];
+    private double[] k2, k3, k4, k5, k6, k7;
+    private double[] tmp, next;
+
+    public DormandPrince45() {
+        this(1e-9, 1e-9);
+    }
+
+    public DormandPrince45(double absoluteTolerance, double relativeTolerance) {
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+    }
+
+    public int getAcceptedSteps() {
+        return acceptedSteps;
+    }
+
+    public int getRejectedSteps() {
+        return rejectedSteps;
+    }
+
+    @Override
+    public double step(OdeSystem system, double t, double[] y, double dt) {
+        int n = y.length;
+        if (k1.length != n) {
+            allocate(n);
+        }
+        if (dt <= 0) {
+            return t;
+        }
+
+        double end = t + dt;
+        double h = Double.isNaN(suggestedStep) ? dt : Math.min(suggestedStep, dt);
+        system.derivatives(t, y, k1);
+
+        for (int count = 0; t < end && count < MAX_STEPS_PER_CALL; count++) {
+            boolean last = t + h >= end;
+            if (last) {
+                h = end - t;
+            } else if (t + h == t) {
+                throw new ArithmeticException("Step size underflow at t = " + t);
+            }
+
+            double error = attempt(system, t, y, h);
+            if (!Double.isFinite(error)) {
+                // y still holds the last accepted state
+                suggestedStep = Double.NaN;
+                throw new ArithmeticException("Non-finite error estimate at t = " + t + ", h = " + h);
+            }
+            double scale = error == 0 ? MAX_SCALE
+                    : Math.max(MIN_SCALE, Math.min(MAX_SCALE, SAFETY * Math.pow(error, -0.2)));
+
+            if (error <= 1) {
+                acceptedSteps++;
+                t = last ? end : t + h;
+                System.arraycopy(next, 0, y, 0, n);
+                // First same as last: k7 is the derivative at the accepted point
+                double[] swap = k1;
+                k1 = k7;
+                k7 = swap;
+                double proposed = h * scale;
+                if (last && scale >= 1 && !Double.isNaN(suggestedStep)) {
+                    // The step was cut short to land on the end of dt; that must not shrink the estimate
+                    proposed = Math.max(suggestedStep, proposed);
+                }
+                suggestedStep = proposed;
+                h = proposed;
+            } else {
+                rejectedSteps++;
+                h *= scale;
+            }
+        }
+        return t;
+    }
+
+    private double attempt(OdeSystem system, double t, double[] y, double h) {
+        int n = y.length;
+        for (int i = 0; i < n; i++) {
+            tmp[i] = y[i] + h * A21 * k1[i];
+        }
+        system.derivatives(t + C2 * h, tmp, k2);
+        for (int i = 0; i < n; i++) {
+            tmp[i] = y[i] + h * (A31 * k1[i] + A32 * k2[i]);
+        }
+        system.derivatives(t + C3 * h, tmp, k3);
+        for (int i = 0; i < n; i++) {
+            tmp[i] = y[i] + h * (A41 * k1[i] + A42 * k2[i] + A43 * k3[i]);
+        }
+        system.derivatives(t + C4 * h, tmp, k4);
+        for (int i = 0; i < n; i++) {
+            tmp[i] = y[i] + h * (A51 * k1[i] + A52 * k2[i] + A53 * k3[i] + A54 * k4[i]);
+        }
+        system.derivatives(t + C5 * h, tmp, k5);
+        for (int i = 0; i < n; i++) {
+            tmp[i] = y[i] + h * (A61 * k1[i] + A62 * k2[i] + A63 * k3[i] + A64 * k4[i] + A65 * k5[i]);
+        }
+        system.derivatives(t + h, tmp, k6);
+        for (int i = 0; i < n; i++) {
+            next[i] = y[i] + h * (B1 * k1[i] + B3 * k3[i] + B4 * k4[i] + B5 * k5[i] + B6 * k6[i]);
+        }
+        system.derivatives(t + h, next, k7);
+
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            double error = h * (E1 * k1[i] + E3 * k3[i] + E4 * k4[i] + E5 * k5[i] + E6 * k6[i] + E7 * k7[i]);
+            double tolerance = absoluteTolerance + relativeTolerance * Math.max(Math.abs(y[i]), Math.abs(next[i]));
+            double ratio = error / tolerance;
+            sum += ratio * ratio;
+        }
+        return Math.sqrt(sum / n);
+    }
+
+    private void allocate(int n) {
+        k1 = new double[n];
+        k2 = new double[n];
+        k3 = new double[n];
+        k4 = new double[n];
+        k5 = new double[n];
+        k6 = new double[n];
+        k7 = new double[n];
+        tmp = new double[n];
+        next = new double[n];
+    }
+}
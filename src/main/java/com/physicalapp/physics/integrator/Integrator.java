@@ -0,0 +1,8 @@
+package com.physicalapp.physics.integrator;
+
+// Advances y in place from t to t + dt and returns the time reached: t + dt, unless an
+// adaptive integrator ran out of internal steps first. Implementations keep their scratch
+// arrays between calls, so an instance belongs to one system and one thread.
+public interface Integrator {
+    double step(OdeSystem system, double t, double[] y, double dt);
+}
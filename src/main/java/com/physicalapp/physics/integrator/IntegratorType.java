@@ -0,0 +1,27 @@
+package com.physicalapp.physics.integrator;
+
+// Integrators selectable at runtime; the ordinal is the value of the "integrator" parameter.
+public enum IntegratorType {
+    RK4,
+    DORMAND_PRINCE,
+    VELOCITY_VERLET,
+    YOSHIDA4,
+    SEMI_IMPLICIT_EULER;
+
+    private static final IntegratorType[] VALUES = values();
+
+    public Integrator create() {
+        return switch (this) {
+            case RK4 -> new RungeKutta4();
+            case DORMAND_PRINCE -> new DormandPrince45();
+            case VELOCITY_VERLET -> new VelocityVerlet();
+            case YOSHIDA4 -> new Yoshida4();
+            case SEMI_IMPLICIT_EULER -> new SemiImplicitEuler();
+        };
+    }
+
+    public static IntegratorType fromIndex(double value) {
+        int index = (int) Math.round(value);
+        return VALUES[Math.max(0, Math.min(VALUES.length - 1, index))];
+    }
+}
@@ -0,0 +1,8 @@
+package com.physicalapp.physics.integrator;
+
+// First-order system dy/dt = f(t, y). Mechanical systems lay y out as all positions
+// followed by all velocities, which is what the symplectic integrators rely on.
+public interface OdeSystem {
+    int getDimension();
+    void derivatives(double t, double[] y, double[] dydt);
+}
@@ -0,0 +1,39 @@
+package com.physicalapp.physics.integrator;
+
+public class RungeKutta4 implements Integrator {
+    private double[] k1 = new double[0];
+    private double[] k2 = new double[0];
+    private double[] k3 = new double[0];
+    private double[] k4 = new double[0];
+    private double[] tmp = new double[0];
+
+    @Override
+    public double step(OdeSystem system, double t, double[] y, double dt) {
+        int n = y.length;
+        if (k1.length != n) {
+            k1 = new double[n];
+            k2 = new double[n];
+            k3 = new double[n];
+            k4 = new double[n];
+            tmp = new double[n];
+        }
+
+        system.derivatives(t, y, k1);
+        for (int i = 0; i < n; i++) {
+            tmp[i] = y[i] + 0.5 * dt * k1[i];
+        }
+        system.derivatives(t + 0.5 * dt, tmp, k2);
+        for (int i = 0; i < n; i++) {
+            tmp[i] = y[i] + 0.5 * dt * k2[i];
+        }
+        system.derivatives(t + 0.5 * dt, tmp, k3);
+        for (int i = 0; i < n; i++) {
+            tmp[i] = y[i] + dt * k3[i];
+        }
+        system.derivatives(t + dt, tmp, k4);
+        for (int i = 0; i < n; i++) {
+            y[i] += (dt / 6.0) * (k1[i] + 2 * k2[i] + 2 * k3[i] + k4[i]);
+        }
+        return t + dt;
+    }
+}
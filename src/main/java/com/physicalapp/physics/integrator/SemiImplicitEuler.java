@@ -0,0 +1,24 @@
+package com.physicalapp.physics.integrator;
+
+// Symplectic Euler: kick the velocities, then drift the positions with the new velocities.
+public class SemiImplicitEuler implements Integrator {
+    private double[] dydt = new double[0];
+
+    @Override
+    public double step(OdeSystem system, double t, double[] y, double dt) {
+        int n = y.length;
+        int half = n / 2;
+        if (dydt.length != n) {
+            dydt = new double[n];
+        }
+
+        system.derivatives(t, y, dydt);
+        for (int i = half; i < n; i++) {
+            y[i] += dydt[i] * dt;
+        }
+        for (int i = 0; i < half; i++) {
+            y[i] += y[half + i] * dt;
+        }
+        return t + dt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.physicalapp.physics.integrator;
+
+// Kick-drift-kick velocity Verlet, second order and symplectic for forces that depend on
+// positions only. Velocity-dependent terms (damping, the coupling of the double pendulum)
+// are evaluated at the half-step velocity.
+public class VelocityVerlet implements Integrator {
+    private double[] dydt = new double[0];
+
+    @Override
+    public double step(OdeSystem system, double t, double[] y, double dt) {
+        int n = y.length;
+        int half = n / 2;
+        if (dydt.length != n) {
+            dydt = new double[n];
+        }
+
+        system.derivatives(t, y, dydt);
+        for (int i = half; i < n; i++) {
+            y[i] += 0.5 * dt * dydt[i];
+        }
+        for (int i = 0; i < half; i++) {
+            y[i] += dt * y[half + i];
+        }
+        system.derivatives(t + dt, y, dydt);
+        for (int i = half; i < n; i++) {
+            y[i] += 0.5 * dt * dydt[i];
+        }
+        return t + dt;
+    }
+}
@@ -0,0 +1,40 @@
+package com.physicalapp.physics.integrator;
+
+// Fourth-order symplectic integrator of Yoshida (1990): three leapfrog stages with weights
+// w1, w0, w1 chosen so the second- and third-order error terms cancel.
+public class Yoshida4 implements Integrator {
+    private static final double CBRT2 = Math.cbrt(2);
+    private static final double W1 = 1 / (2 - CBRT2);
+    private static final double W0 = -CBRT2 / (2 - CBRT2);
+    private static final double[] DRIFT = {W1 / 2, (W0 + W1) / 2, (W0 + W1) / 2, W1 / 2};
+    private static final double[] KICK = {W1, W0, W1};
+
+    private double[] dydt = new double[0];
+
+    @Override
+    public double step(OdeSystem system, double t, double[] y, double dt) {
+        int n = y.length;
+        int half = n / 2;
+        if (dydt.length != n) {
+            dydt = new double[n];
+        }
+
+        double stageTime = t;
+        for (int stage = 0; stage < KICK.length; stage++) {
+            drift(y, half, DRIFT[stage] * dt);
+            stageTime += DRIFT[stage] * dt;
+            system.derivatives(stageTime, y, dydt);
+            for (int i = half; i < n; i++) {
+                y[i] += KICK[stage] * dt * dydt[i];
+            }
+        }
+        drift(y, half, DRIFT[KICK.length] * dt);
+        return t + dt;
+    }
+
+    private static void drift(double[] y, int half, double h) {
+        for (int i = 0; i < half; i++) {
+            y[i] += h * y[half + i];
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.physicalapp.physics.optics;
+
+// Bounding-volume hierarchy over the pieces of a MirrorScene, flattened into arrays. Nodes
+// are split by the surface area heuristic; the two children of an inner node are stored
+// next to each other.
+class MirrorBvh {
+    private static final int LEAF_SIZE = 2;
+
+    // Per node: box (minX, minY, maxX, maxY); leaves have count > 0 and list
+    // order[first..first + count), inner nodes have count 0 and children first, first + 1
+    private final double[] bounds;
+    private final int[] first;
+    private final int[] count;
+    private int nodes;
+    private final int[] order;
+
+    MirrorBvh(double[] pieceBounds, int pieces) {
+        order = new int[pieces];
+        for (int i = 0; i < pieces; i++) {
+            order[i] = i;
+        }
+        int capacity = Math.max(1, 2 * pieces);
+        bounds = new double[capacity * 4];
+        first = new int[capacity];
+        count = new int[capacity];
+        nodes = 1;
+        build(0, 0, pieces, pieceBounds);
+    }
+
+    private void build(int node, int from, int to, double[] pieceBounds) {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            int base = order[i] * 4;
+            minX = Math.min(minX, pieceBounds[base]);
+            minY = Math.min(minY, pieceBounds[base + 1]);
+            maxX = Math.max(maxX, pieceBounds[base + 2]);
+            maxY = Math.max(maxY, pieceBounds[base + 3]);
+        }
+        bounds[node * 4] = minX;
+        bounds[node * 4 + 1] = minY;
+        bounds[node * 4 + 2] = maxX;
+        bounds[node * 4 + 3] = maxY;
+
+        if (to - from <= LEAF_SIZE) {
+            first[node] = from;
+            count[node] = to - from;
+            return;
+        }
+
+        // Surface area heuristic with perimeters: try every split of the range sorted by
+        // centroid along each axis and keep the one with the smallest
+        // count * perimeter summed over both sides. Scenes have at most a few hundred
+        // pieces, so sorting and sweeping on every level is cheap.
+        int n = to - from;
+        double[] leftCost = new double[n];
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = 0;
+        int bestSplit = n / 2;
+        for (int axis = 0; axis < 2; axis++) {
+            sortByCentroid(from, to, axis, pieceBounds);
+            double x0 = Double.POSITIVE_INFINITY;
+            double y0 = Double.POSITIVE_INFINITY;
+            double x1 = Double.NEGATIVE_INFINITY;
+            double y1 = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n - 1; i++) {
+                int base = order[from + i] * 4;
+                x0 = Math.min(x0, pieceBounds[base]);
+                y0 = Math.min(y0, pieceBounds[base + 1]);
+                x1 = Math.max(x1, pieceBounds[base + 2]);
+                y1 = Math.max(y1, pieceBounds[base + 3]);
+                leftCost[i + 1] = (i + 1) * (x1 - x0 + y1 - y0);
+            }
+            x0 = Double.POSITIVE_INFINITY;
+            y0 = Double.POSITIVE_INFINITY;
+            x1 = Double.NEGATIVE_INFINITY;
+            y1 = Double.NEGATIVE_INFINITY;
+            for (int i = n - 1; i > 0; i--) {
+                int base = order[from + i] * 4;
+                x0 = Math.min(x0, pieceBounds[base]);
+                y0 = Math.min(y0, pieceBounds[base + 1]);
+                x1 = Math.max(x1, pieceBounds[base + 2]);
+                y1 = Math.max(y1, pieceBounds[base + 3]);
+                double cost = leftCost[i] + (n - i) * (x1 - x0 + y1 - y0);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = i;
+                }
+            }
+        }
+        if (bestAxis == 0) {
+            sortByCentroid(from, to, 0, pieceBounds);
+        }
+        int mid = from + bestSplit;
+
+        int left = nodes;
+        nodes += 2;
+        first[node] = left;
+        count[node] = 0;
+        build(left, from, mid, pieceBounds);
+        build(left + 1, mid, to, pieceBounds);
+    }
+
+    private void sortByCentroid(int from, int to, int axis, double[] pieceBounds) {
+        for (int i = from + 1; i < to; i++) {
+            int piece = order[i];
+            double key = centroid(pieceBounds, piece, axis);
+            int j = i - 1;
+            while (j >= from && centroid(pieceBounds, order[j], axis) > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = piece;
+        }
+    }
+
+    private static double centroid(double[] pieceBounds, int piece, int axis) {
+        return pieceBounds[piece * 4 + axis] + pieceBounds[piece * 4 + 2 + axis];
+    }
+
+    double intersect(MirrorScene scene, double ox, double oy, double dx, double dy, double tMax,
+                     int[] stack, double[] normal) {
+        double inverseX = 1 / dx;
+        double inverseY = 1 / dy;
+        double best = tMax;
+        if (order.length == 0 || entry(0, ox, oy, inverseX, inverseY) >= best) {
+            return Double.POSITIVE_INFINITY;
+        }
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (count[node] > 0) {
+                for (int i = first[node]; i < first[node] + count[node]; i++) {
+                    double t = scene.intersectPiece(order[i], ox, oy, dx, dy, best, normal);
+                    if (t < best) {
+                        best = t;
+                    }
+                }
+                continue;
+            }
+            // Visit the nearer child first so that its hits can prune the other one
+            int left = first[node];
+            double enterLeft = entry(left, ox, oy, inverseX, inverseY);
+            double enterRight = entry(left + 1, ox, oy, inverseX, inverseY);
+            if (enterLeft <= enterRight) {
+                if (enterRight < best) {
+                    stack[top++] = left + 1;
+                }
+                if (enterLeft < best) {
+                    stack[top++] = left;
+                }
+            } else {
+                if (enterLeft < best) {
+                    stack[top++] = left;
+                }
+                if (enterRight < best) {
+                    stack[top++] = left + 1;
+                }
+            }
+        }
+        return best < tMax ? best : Double.POSITIVE_INFINITY;
+    }
+
+    // Distance at which the ray enters the node box (0 when it starts inside), or +infinity.
+    // Plain comparisons rather than Math.min/max, which pay for NaN and -0.0 handling.
+    private double entry(int node, double ox, double oy, double inverseX, double inverseY) {
+        int base = node * 4;
+        double tx0 = (bounds[base] - ox) * inverseX;
+        double tx1 = (bounds[base + 2] - ox) * inverseX;
+        double ty0 = (bounds[base + 1] - oy) * inverseY;
+        double ty1 = (bounds[base + 3] - oy) * inverseY;
+        double nearX = tx0 < tx1 ? tx0 : tx1;
+        double farX = tx0 < tx1 ? tx1 : tx0;
+        double nearY = ty0 < ty1 ? ty0 : ty1;
+        double farY = ty0 < ty1 ? ty1 : ty0;
+        double enter = nearX > nearY ? nearX : nearY;
+        double exit = farX < farY ? farX : farY;
+        if (enter < 0) {
+            enter = 0;
+        }
+        return enter <= exit ? enter : Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,331 @@
+package com.physicalapp.physics.optics;
+
+import java.util.Arrays;
+
+// Mirrors in the plane: flat segments, circular arcs and parabolic spans. For the BVH every
+// curved mirror is cut into PIECES_PER_CURVE parts, each still intersected exactly (a
+// circle or parabola equation, not a chord), so the pieces only tighten the bounds.
+//
+// Adding a mirror invalidates the hierarchy; build() must run before intersect(), which is
+// then safe to call from many threads at once.
+public class MirrorScene {
+    static final int FLAT = 0;
+    static final int ARC = 1;
+    static final int PARABOLA = 2;
+
+    private static final int PIECES_PER_CURVE = 16;
+    private static final int STRIDE = 8;
+    private static final double EPSILON = 1e-7;
+    private static final double BOUNDS_PADDING = 1e-6;
+
+    // Mirrors as added, for outlines
+    private int mirrors;
+    private int[] mirrorKinds = new int[4];
+    private double[] mirrorParams = new double[4 * STRIDE];
+
+    // Pieces with their parameters and bounds (minX, minY, maxX, maxY)
+    private int pieces;
+    private int[] pieceKinds = new int[16];
+    private double[] pieceParams = new double[16 * STRIDE];
+    private double[] pieceBounds = new double[16 * 4];
+
+    private MirrorBvh bvh;
+
+    public void clear() {
+        mirrors = 0;
+        pieces = 0;
+        bvh = null;
+    }
+
+    public int getMirrorCount() {
+        return mirrors;
+    }
+
+    public void addFlat(double x0, double y0, double x1, double y1) {
+        addMirror(FLAT, x0, y0, x1, y1, 0, 0, 0);
+        int p = addPiece(FLAT, x0, y0, x1, y1, 0, 0, 0, 0);
+        setBounds(p, Math.min(x0, x1), Math.min(y0, y1), Math.max(x0, x1), Math.max(y0, y1));
+    }
+
+    // Arc of the circle around (cx, cy) between the angles from < to <= from + 2 pi, measured
+    // in the screen frame with y pointing down
+    public void addArc(double cx, double cy, double radius, double from, double to) {
+        addMirror(ARC, cx, cy, radius, from, to, 0, 0);
+        double step = (to - from) / PIECES_PER_CURVE;
+        for (int i = 0; i < PIECES_PER_CURVE; i++) {
+            double a0 = from + i * step;
+            double a1 = a0 + step;
+            double e0x = cx + radius * Math.cos(a0);
+            double e0y = cy + radius * Math.sin(a0);
+            double e1x = cx + radius * Math.cos(a1);
+            double e1y = cy + radius * Math.sin(a1);
+            // The arc lies on the side of its chord away from the center
+            double side = Math.signum((e1x - e0x) * (cy - e0y) - (e1y - e0y) * (cx - e0x));
+            int p = addPiece(ARC, cx, cy, radius, e0x, e0y, e1x, e1y, side);
+
+            double minX = Math.min(e0x, e1x);
+            double minY = Math.min(e0y, e1y);
+            double maxX = Math.max(e0x, e1x);
+            double maxY = Math.max(e0y, e1y);
+            // Extremes of the circle that fall inside the piece
+            for (int k = (int) Math.ceil(a0 / (Math.PI / 2)); k * Math.PI / 2 <= a1; k++) {
+                switch (Math.floorMod(k, 4)) {
+                    case 0 -> maxX = cx + radius;
+                    case 1 -> maxY = cy + radius;
+                    case 2 -> minX = cx - radius;
+                    case 3 -> minY = cy - radius;
+                }
+            }
+            setBounds(p, minX, minY, maxX, maxY);
+        }
+    }
+
+    // Parabola with its vertex at (vx, vy) opening along the unit axis (ax, ay), focal
+    // length `focal` > 0, between u0 and u1 along the tangent (-ay, ax) at the vertex
+    public void addParabola(double vx, double vy, double ax, double ay, double focal, double u0, double u1) {
+        addMirror(PARABOLA, vx, vy, ax, ay, focal, u0, u1);
+        double step = (u1 - u0) / PIECES_PER_CURVE;
+        for (int i = 0; i < PIECES_PER_CURVE; i++) {
+            double from = u0 + i * step;
+            double to = from + step;
+            int p = addPiece(PARABOLA, vx, vy, ax, ay, focal, from, to, 0);
+
+            // x(u) and y(u) are quadratic, so the extremes are the ends or a stationary point
+            double minX = Math.min(parabolaX(p, from), parabolaX(p, to));
+            double maxX = Math.max(parabolaX(p, from), parabolaX(p, to));
+            double minY = Math.min(parabolaY(p, from), parabolaY(p, to));
+            double maxY = Math.max(parabolaY(p, from), parabolaY(p, to));
+            if (ax != 0) {
+                double u = 2 * focal * ay / ax;
+                if (u > from && u < to) {
+                    minX = Math.min(minX, parabolaX(p, u));
+                    maxX = Math.max(maxX, parabolaX(p, u));
+                }
+            }
+            if (ay != 0) {
+                double u = -2 * focal * ax / ay;
+                if (u > from && u < to) {
+                    minY = Math.min(minY, parabolaY(p, u));
+                    maxY = Math.max(maxY, parabolaY(p, u));
+                }
+            }
+            setBounds(p, minX, minY, maxX, maxY);
+        }
+    }
+
+    // Writes `points` evenly spaced points along the mirror into xs/ys
+    public void outline(int mirror, int points, double[] xs, double[] ys) {
+        int base = mirror * STRIDE;
+        double[] m = mirrorParams;
+        for (int i = 0; i < points; i++) {
+            double s = points > 1 ? (double) i / (points - 1) : 0;
+            switch (mirrorKinds[mirror]) {
+                case FLAT -> {
+                    xs[i] = m[base] + s * (m[base + 2] - m[base]);
+                    ys[i] = m[base + 1] + s * (m[base + 3] - m[base + 1]);
+                }
+                case ARC -> {
+                    double a = m[base + 3] + s * (m[base + 4] - m[base + 3]);
+                    xs[i] = m[base] + m[base + 2] * Math.cos(a);
+                    ys[i] = m[base + 1] + m[base + 2] * Math.sin(a);
+                }
+                case PARABOLA -> {
+                    double u = m[base + 5] + s * (m[base + 6] - m[base + 5]);
+                    double w = u * u / (4 * m[base + 4]);
+                    xs[i] = m[base] - u * m[base + 3] + w * m[base + 2];
+                    ys[i] = m[base + 1] + u * m[base + 2] + w * m[base + 3];
+                }
+            }
+        }
+    }
+
+    public void build() {
+        if (bvh == null) {
+            bvh = new MirrorBvh(pieceBounds, pieces);
+        }
+    }
+
+    public boolean isBuilt() {
+        return bvh != null;
+    }
+
+    // Distance along the unit direction (dx, dy) to the nearest mirror closer than tMax, or
+    // +infinity. On a hit the unit surface normal is written to normal[0..1]. The stack is
+    // scratch space for the traversal; one per thread.
+    public double intersect(double ox, double oy, double dx, double dy, double tMax, int[] stack, double[] normal) {
+        return bvh.intersect(this, ox, oy, dx, dy, tMax, stack, normal);
+    }
+
+    // Exact intersection with one piece; writes the normal only when the hit is below tMax
+    double intersectPiece(int piece, double ox, double oy, double dx, double dy, double tMax, double[] normal) {
+        int base = piece * STRIDE;
+        double[] p = pieceParams;
+        switch (pieceKinds[piece]) {
+            case FLAT -> {
+                double ex = p[base + 2] - p[base];
+                double ey = p[base + 3] - p[base + 1];
+                double denominator = dx * ey - dy * ex;
+                if (Math.abs(denominator) < 1e-12) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                double wx = p[base] - ox;
+                double wy = p[base + 1] - oy;
+                double t = (wx * ey - wy * ex) / denominator;
+                double s = (wx * dy - wy * dx) / denominator;
+                if (t <= EPSILON || t >= tMax || s < 0 || s > 1) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                double length = Math.sqrt(ex * ex + ey * ey);
+                normal[0] = -ey / length;
+                normal[1] = ex / length;
+                return t;
+            }
+            case ARC -> {
+                double cx = p[base];
+                double cy = p[base + 1];
+                double radius = p[base + 2];
+                double ocx = ox - cx;
+                double ocy = oy - cy;
+                double b = ocx * dx + ocy * dy;
+                double discriminant = b * b - (ocx * ocx + ocy * ocy - radius * radius);
+                if (discriminant < 0) {
+                    return Double.POSITIVE_INFINITY;
+                }
+                double root = Math.sqrt(discriminant);
+                for (int k = 0; k < 2; k++) {
+                    double t = k == 0 ? -b - root : -b + root;
+                    if (t <= EPSILON || t >= tMax) {
+                        continue;
+                    }
+                    double x = ox + t * dx;
+                    double y = oy + t * dy;
+                    double e0x = p[base + 3];
+                    double e0y = p[base + 4];
+                    double cross = (p[base + 5] - e0x) * (y - e0y) - (p[base + 6] - e0y) * (x - e0x);
+                    if (cross * p[base + 7] < 0) {
+                        normal[0] = (x - cx) / radius;
+                        normal[1] = (y - cy) / radius;
+                        return t;
+                    }
+                }
+                return Double.POSITIVE_INFINITY;
+            }
+            default -> {
+                double vx = p[base];
+                double vy = p[base + 1];
+                double ax = p[base + 2];
+                double ay = p[base + 3];
+                double focal = p[base + 4];
+                // Local frame: u along the tangent (-ay, ax), w along the axis
+                double rx = ox - vx;
+                double ry = oy - vy;
+                double ou = -rx * ay + ry * ax;
+                double ow = rx * ax + ry * ay;
+                double du = -dx * ay + dy * ax;
+                double dw = dx * ax + dy * ay;
+                // (ou + t du)^2 = 4 f (ow + t dw)
+                double qa = du * du;
+                double qb = 2 * ou * du - 4 * focal * dw;
+                double qc = ou * ou - 4 * focal * ow;
+                double t0;
+                double t1;
+                if (qa < 1e-12) {
+                    if (Math.abs(qb) < 1e-12) {
+                        return Double.POSITIVE_INFINITY;
+                    }
+                    t0 = -qc / qb;
+                    t1 = Double.POSITIVE_INFINITY;
+                } else {
+                    double discriminant = qb * qb - 4 * qa * qc;
+                    if (discriminant < 0) {
+                        return Double.POSITIVE_INFINITY;
+                    }
+                    // Cancellation-free form of the two roots
+                    double q = -0.5 * (qb + Math.copySign(Math.sqrt(discriminant), qb));
+                    t0 = q / qa;
+                    t1 = q != 0 ? qc / q : t0;
+                    if (t0 > t1) {
+                        double swap = t0;
+                        t0 = t1;
+                        t1 = swap;
+                    }
+                }
+                for (int k = 0; k < 2; k++) {
+                    double t = k == 0 ? t0 : t1;
+                    if (t <= EPSILON || t >= tMax) {
+                        continue;
+                    }
+                    double u = ou + t * du;
+                    if (u >= p[base + 5] && u <= p[base + 6]) {
+                        // Gradient of w - u^2 / 4f
+                        double gu = -u / (2 * focal);
+                        double nx = -gu * ay + ax;
+                        double ny = gu * ax + ay;
+                        double length = Math.sqrt(nx * nx + ny * ny);
+                        normal[0] = nx / length;
+                        normal[1] = ny / length;
+                        return t;
+                    }
+                }
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+
+    private double parabolaX(int piece, double u) {
+        double[] p = pieceParams;
+        int base = piece * STRIDE;
+        return p[base] - u * p[base + 3] + u * u / (4 * p[base + 4]) * p[base + 2];
+    }
+
+    private double parabolaY(int piece, double u) {
+        double[] p = pieceParams;
+        int base = piece * STRIDE;
+        return p[base + 1] + u * p[base + 2] + u * u / (4 * p[base + 4]) * p[base + 3];
+    }
+
+    private void addMirror(int kind, double a, double b, double c, double d, double e, double f, double g) {
+        if (mirrors == mirrorKinds.length) {
+            mirrorKinds = Arrays.copyOf(mirrorKinds, mirrors * 2);
+            mirrorParams = Arrays.copyOf(mirrorParams, mirrors * 2 * STRIDE);
+        }
+        mirrorKinds[mirrors] = kind;
+        int base = mirrors * STRIDE;
+        mirrorParams[base] = a;
+        mirrorParams[base + 1] = b;
+        mirrorParams[base + 2] = c;
+        mirrorParams[base + 3] = d;
+        mirrorParams[base + 4] = e;
+        mirrorParams[base + 5] = f;
+        mirrorParams[base + 6] = g;
+        mirrors++;
+        bvh = null;
+    }
+
+    private int addPiece(int kind, double a, double b, double c, double d, double e, double f, double g, double h) {
+        if (pieces == pieceKinds.length) {
+            pieceKinds = Arrays.copyOf(pieceKinds, pieces * 2);
+            pieceParams = Arrays.copyOf(pieceParams, pieces * 2 * STRIDE);
+            pieceBounds = Arrays.copyOf(pieceBounds, pieces * 2 * 4);
+        }
+        pieceKinds[pieces] = kind;
+        int base = pieces * STRIDE;
+        pieceParams[base] = a;
+        pieceParams[base + 1] = b;
+        pieceParams[base + 2] = c;
+        pieceParams[base + 3] = d;
+        pieceParams[base + 4] = e;
+        pieceParams[base + 5] = f;
+        pieceParams[base + 6] = g;
+        pieceParams[base + 7] = h;
+        return pieces++;
+    }
+
+    private void setBounds(int piece, double minX, double minY, double maxX, double maxY) {
+        int base = piece * 4;
+        pieceBounds[base] = minX - BOUNDS_PADDING;
+        pieceBounds[base + 1] = minY - BOUNDS_PADDING;
+        pieceBounds[base + 2] = maxX + BOUNDS_PADDING;
+        pieceBounds[base + 3] = maxY + BOUNDS_PADDING;
+    }
+}
@@ -0,0 +1,160 @@
+package com.physicalapp.physics.optics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BooleanSupplier;
+
+// Traces batches of rays through a MirrorScene with specular reflection. Every ray yields a
+// path: its origin, one vertex per reflection (at most maxBounces) and an end point, which
+// is either the next mirror after the last allowed reflection or escapeLength beyond the
+// last vertex. Paths are stored with a fixed stride of maxBounces + 2 vertices.
+//
+// Rays are independent, so batches of BATCH_SIZE run in parallel on the pool; each task
+// owns its traversal stack and writes only its own paths.
+public class RayTracer {
+    private static final int BATCH_SIZE = 1024;
+    private static final int STACK_SIZE = 64;
+    private static final BooleanSupplier NEVER = () -> false;
+
+    private final ForkJoinPool pool;
+    private double[] pathXs = new double[0];
+    private double[] pathYs = new double[0];
+    private int[] pathLengths = new int[0];
+    private int rays;
+    private int stride;
+
+    public RayTracer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public RayTracer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Directions (dx, dy) must be unit vectors
+    public void trace(MirrorScene scene, double[] ox, double[] oy, double[] dx, double[] dy, int count,
+                      int maxBounces, double escapeLength) {
+        trace(scene, ox, oy, dx, dy, count, maxBounces, escapeLength, NEVER);
+    }
+
+    // Checks cancelled before every ray and gives up once it returns true; the paths are then
+    // incomplete and must not be used
+    public void trace(MirrorScene scene, double[] ox, double[] oy, double[] dx, double[] dy, int count,
+                      int maxBounces, double escapeLength, BooleanSupplier cancelled) {
+        scene.build();
+        rays = count;
+        stride = maxBounces + 2;
+        if (pathXs.length < count * stride) {
+            pathXs = new double[count * stride];
+            pathYs = new double[count * stride];
+        }
+        if (pathLengths.length < count) {
+            pathLengths = new int[count];
+        }
+
+        TraceTask task = new TraceTask(scene, ox, oy, dx, dy, 0, count, maxBounces, escapeLength, cancelled);
+        if (count <= BATCH_SIZE || pool.getParallelism() <= 1) {
+            task.compute();
+        } else {
+            pool.invoke(task);
+        }
+    }
+
+    public int getRayCount() {
+        return rays;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    // Vertices of ray i are at [i * stride, i * stride + getPathLength(i))
+    public double[] getPathXs() {
+        return pathXs;
+    }
+
+    public double[] getPathYs() {
+        return pathYs;
+    }
+
+    public int getPathLength(int ray) {
+        return pathLengths[ray];
+    }
+
+    private class TraceTask extends RecursiveAction {
+        private final MirrorScene scene;
+        private final double[] ox;
+        private final double[] oy;
+        private final double[] dx;
+        private final double[] dy;
+        private final int from;
+        private final int to;
+        private final int maxBounces;
+        private final double escapeLength;
+        private final BooleanSupplier cancelled;
+
+        TraceTask(MirrorScene scene, double[] ox, double[] oy, double[] dx, double[] dy, int from, int to,
+                  int maxBounces, double escapeLength, BooleanSupplier cancelled) {
+            this.scene = scene;
+            this.ox = ox;
+            this.oy = oy;
+            this.dx = dx;
+            this.dy = dy;
+            this.from = from;
+            this.to = to;
+            this.maxBounces = maxBounces;
+            this.escapeLength = escapeLength;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > BATCH_SIZE && getPool() != null) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TraceTask(scene, ox, oy, dx, dy, from, mid, maxBounces, escapeLength, cancelled),
+                          new TraceTask(scene, ox, oy, dx, dy, mid, to, maxBounces, escapeLength, cancelled));
+                return;
+            }
+            int[] stack = new int[STACK_SIZE];
+            double[] normal = new double[2];
+            for (int i = from; i < to; i++) {
+                if (cancelled.getAsBoolean()) {
+                    return;
+                }
+                traceRay(i, stack, normal);
+            }
+        }
+
+        private void traceRay(int ray, int[] stack, double[] normal) {
+            int base = ray * stride;
+            double x = ox[ray];
+            double y = oy[ray];
+            double vx = dx[ray];
+            double vy = dy[ray];
+            pathXs[base] = x;
+            pathYs[base] = y;
+            int length = 1;
+
+            for (int bounce = 0; bounce <= maxBounces; bounce++) {
+                double t = scene.intersect(x, y, vx, vy, Double.POSITIVE_INFINITY, stack, normal);
+                boolean escaped = t == Double.POSITIVE_INFINITY;
+                if (escaped) {
+                    t = escapeLength;
+                }
+                x += t * vx;
+                y += t * vy;
+                pathXs[base + length] = x;
+                pathYs[base + length] = y;
+                length++;
+                if (escaped || bounce == maxBounces) {
+                    break;
+                }
+                // Mirror the direction about the surface
+                double dot = vx * normal[0] + vy * normal[1];
+                vx -= 2 * dot * normal[0];
+                vy -= 2 * dot * normal[1];
+            }
+            pathLengths[ray] = length;
+        }
+    }
+}
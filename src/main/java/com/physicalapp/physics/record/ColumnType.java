@@ -0,0 +1,28 @@
+package com.physicalapp.physics.record;
+
+// Fixed-width encodings of a recorded column; the ordinal is the code stored in the header.
+public enum ColumnType {
+    DOUBLE(8),
+    FLOAT(4),
+    LONG(8),
+    INT(4);
+
+    private static final ColumnType[] VALUES = values();
+
+    private final int width;
+
+    ColumnType(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    static ColumnType fromCode(int code) {
+        if (code < 0 || code >= VALUES.length) {
+            throw new IllegalArgumentException("Unknown column type code: " + code);
+        }
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,181 @@
+package com.physicalapp.physics.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Read side of the RunRecorder format. Blocks are mapped on demand in windows of whole
+// blocks, so a column can be scanned from a run far larger than the address space a single
+// buffer can cover. Safe for one reading thread.
+public class RunReader implements Closeable {
+    private static final long WINDOW_BYTES = 256L << 20;
+
+    private final FileChannel channel;
+    private final String[] names;
+    private final ColumnType[] types;
+    private final int[] columnOffsets;
+    private final int blockRows;
+    private final int blockBytes;
+    private final int windowBlocks;
+    private final long samples;
+    private final double stepSize;
+
+    private MappedByteBuffer window;
+    private long windowStart = -1;
+
+    public RunReader(Path file) throws IOException {
+        this(file, WINDOW_BYTES);
+    }
+
+    RunReader(Path file, long windowBytes) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, RunRecorder.HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != RunRecorder.MAGIC) {
+                throw new IOException("Not a recorded run: " + file);
+            }
+            int version = header.getInt();
+            if (version != RunRecorder.VERSION) {
+                throw new IOException("Unsupported run file version " + version + ": " + file);
+            }
+            int columns = header.getInt();
+            blockRows = header.getInt();
+            samples = header.getLong();
+            stepSize = header.getDouble();
+
+            names = new String[columns];
+            types = new ColumnType[columns];
+            columnOffsets = new int[columns];
+            int offset = 0;
+            for (int c = 0; c < columns; c++) {
+                types[c] = ColumnType.fromCode(header.get());
+                byte[] bytes = new byte[header.getShort()];
+                header.get(bytes);
+                names[c] = new String(bytes, StandardCharsets.UTF_8);
+                columnOffsets[c] = offset;
+                offset += blockRows * types[c].getWidth();
+            }
+            blockBytes = offset;
+            windowBlocks = (int) Math.max(1, windowBytes / blockBytes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long getSampleCount() {
+        return samples;
+    }
+
+    public double getStepSize() {
+        return stepSize;
+    }
+
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    public int getColumnCount() {
+        return names.length;
+    }
+
+    public String getColumnName(int column) {
+        return names[column];
+    }
+
+    public ColumnType getColumnType(int column) {
+        return types[column];
+    }
+
+    public int indexOf(String name) {
+        for (int c = 0; c < names.length; c++) {
+            if (names[c].equals(name)) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    // Copies count values of one column, starting at sample from, into out[offset..]
+    public void readColumn(int column, long from, double[] out, int offset, int count) throws IOException {
+        if (from < 0 || from + count > samples) {
+            throw new IndexOutOfBoundsException("Samples " + from + ".." + (from + count) + " of " + samples);
+        }
+        ColumnType type = types[column];
+        long sample = from;
+        int done = 0;
+        while (done < count) {
+            long block = sample / blockRows;
+            int row = (int) (sample % blockRows);
+            int run = Math.min(count - done, blockRows - row);
+            int at = blockOffset(block) + columnOffsets[column] + row * type.getWidth();
+            MappedByteBuffer in = window;
+            for (int i = 0; i < run; i++) {
+                out[offset + done + i] = switch (type) {
+                    case DOUBLE -> in.getDouble(at + i * 8);
+                    case FLOAT -> in.getFloat(at + i * 4);
+                    case LONG -> in.getLong(at + i * 8);
+                    case INT -> in.getInt(at + i * 4);
+                };
+            }
+            done += run;
+            sample += run;
+        }
+    }
+
+    public double readValue(int column, long sample) throws IOException {
+        if (sample < 0 || sample >= samples) {
+            throw new IndexOutOfBoundsException("Sample " + sample + " of " + samples);
+        }
+        int at = blockOffset(sample / blockRows) + columnOffsets[column]
+            + (int) (sample % blockRows) * types[column].getWidth();
+        return switch (types[column]) {
+            case DOUBLE -> window.getDouble(at);
+            case FLOAT -> window.getFloat(at);
+            case LONG -> window.getLong(at);
+            case INT -> window.getInt(at);
+        };
+    }
+
+    // Copies every column of one sample into out[0..getColumnCount())
+    public void readRow(long sample, double[] out) throws IOException {
+        if (sample < 0 || sample >= samples) {
+            throw new IndexOutOfBoundsException("Sample " + sample + " of " + samples);
+        }
+        long block = sample / blockRows;
+        int row = (int) (sample % blockRows);
+        int base = blockOffset(block);
+        for (int c = 0; c < names.length; c++) {
+            int at = base + columnOffsets[c] + row * types[c].getWidth();
+            out[c] = switch (types[c]) {
+                case DOUBLE -> window.getDouble(at);
+                case FLOAT -> window.getFloat(at);
+                case LONG -> window.getLong(at);
+                case INT -> window.getInt(at);
+            };
+        }
+    }
+
+    // Maps the window holding the block and returns the block's offset inside it
+    private int blockOffset(long block) throws IOException {
+        if (windowStart < 0 || block < windowStart || block >= windowStart + windowBlocks) {
+            windowStart = block - block % windowBlocks;
+            long position = RunRecorder.HEADER_SIZE + windowStart * blockBytes;
+            long size = Math.min((long) windowBlocks * blockBytes, channel.size() - position);
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return (int) ((block - windowStart) * blockBytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
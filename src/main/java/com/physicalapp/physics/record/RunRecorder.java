@@ -0,0 +1,189 @@
+package com.physicalapp.physics.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Appends samples of a run (a time column plus fixed-width state columns) to a columnar
+// file through memory-mapped windows.
+//
+// Layout, little endian:
+//   header, HEADER_SIZE bytes: magic, version, column count, rows per block, sample count,
+//   step size of the run, then per column its type code and UTF-8 name
+//   blocks of blockRows samples; inside a block every column is contiguous, so reading one
+//   variable touches only its own runs of bytes
+//
+// The file grows one window of whole blocks at a time, and each window is mapped once, so
+// append() writes straight into the mapping without allocating. The header count is
+// updated whenever a block fills and on close(): a run that is cut short loses at most one
+// block. A recorder is not thread-safe; one thread appends.
+public class RunRecorder implements Closeable {
+    static final int MAGIC = 0x43525350;   // "PSRC"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 4096;
+    static final int COUNT_OFFSET = 16;
+    public static final int DEFAULT_BLOCK_ROWS = 4096;
+    private static final long WINDOW_BYTES = 64L << 20;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ColumnType[] types;
+    private final int[] columnOffsets;
+    private final int blockRows;
+    private final int blockBytes;
+    private final int windowBlocks;
+
+    private MappedByteBuffer window;
+    private long windowStart = -1;   // first block of the mapped window
+    private long block;
+    private int row;
+    private int blockBase;           // offset of the current block inside the window
+    private long samples;
+    private double lastTime;
+    private boolean closed;
+
+    public RunRecorder(Path file, String[] stateNames, double stepSize) throws IOException {
+        this(file, stateNames, uniform(stateNames.length, ColumnType.DOUBLE), DEFAULT_BLOCK_ROWS, stepSize);
+    }
+
+    // Column 0 is always the DOUBLE "time" column, followed by one column per state name.
+    // stepSize is the integration step of the run, kept so that a replay can re-integrate.
+    public RunRecorder(Path file, String[] stateNames, ColumnType[] stateTypes, int blockRows, double stepSize)
+            throws IOException {
+        this(file, stateNames, stateTypes, blockRows, stepSize, WINDOW_BYTES);
+    }
+
+    // windowBytes is rounded down to whole blocks; tests use small windows to cross them
+    RunRecorder(Path file, String[] stateNames, ColumnType[] stateTypes, int blockRows, double stepSize,
+                long windowBytes) throws IOException {
+        if (stateNames.length != stateTypes.length) {
+            throw new IllegalArgumentException("One type per state column expected");
+        }
+        int columns = stateNames.length + 1;
+        types = new ColumnType[columns];
+        types[0] = ColumnType.DOUBLE;
+        System.arraycopy(stateTypes, 0, types, 1, stateTypes.length);
+
+        this.blockRows = blockRows;
+        columnOffsets = new int[columns];
+        int offset = 0;
+        for (int c = 0; c < columns; c++) {
+            columnOffsets[c] = offset;
+            offset += blockRows * types[c].getWidth();
+        }
+        blockBytes = offset;
+        windowBlocks = (int) Math.max(1, windowBytes / blockBytes);
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                   StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(columns).putInt(blockRows).putLong(0).putDouble(stepSize);
+            putColumn(ColumnType.DOUBLE, "time");
+            for (int c = 0; c < stateNames.length; c++) {
+                putColumn(stateTypes[c], stateNames[c]);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static ColumnType[] uniform(int count, ColumnType type) {
+        ColumnType[] types = new ColumnType[count];
+        Arrays.fill(types, type);
+        return types;
+    }
+
+    private void putColumn(ColumnType type, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (header.remaining() < 3 + bytes.length) {
+            throw new IllegalArgumentException("Column names do not fit in the header");
+        }
+        header.put((byte) type.ordinal());
+        header.putShort((short) bytes.length);
+        header.put(bytes);
+    }
+
+    public long getSampleCount() {
+        return samples;
+    }
+
+    // Time of the last appended sample, 0 before the first
+    public double getLastTime() {
+        return lastTime;
+    }
+
+    // Appends one sample; state holds at least as many values as there are state columns
+    public void append(double time, double[] state) {
+        if (windowStart < 0 || (row == 0 && block - windowStart >= windowBlocks)) {
+            mapWindow();
+        }
+        MappedByteBuffer out = window;
+        int base = blockBase;
+        out.putDouble(base + row * 8, time);
+        for (int c = 1; c < types.length; c++) {
+            double value = state[c - 1];
+            int at = base + columnOffsets[c];
+            switch (types[c]) {
+                case DOUBLE -> out.putDouble(at + row * 8, value);
+                case FLOAT -> out.putFloat(at + row * 4, (float) value);
+                case LONG -> out.putLong(at + row * 8, (long) value);
+                case INT -> out.putInt(at + row * 4, (int) value);
+            }
+        }
+        samples++;
+        lastTime = time;
+        if (++row == blockRows) {
+            row = 0;
+            block++;
+            blockBase += blockBytes;
+            header.putLong(COUNT_OFFSET, samples);
+        }
+    }
+
+    private void mapWindow() {
+        try {
+            windowStart = block;
+            blockBase = 0;
+            window = channel.map(FileChannel.MapMode.READ_WRITE,
+                                 HEADER_SIZE + windowStart * blockBytes, (long) windowBlocks * blockBytes);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Writes the final count and trims the file to the blocks in use
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            header.putLong(COUNT_OFFSET, samples);
+            header.force();
+            if (window != null) {
+                window.force();
+            }
+            long blocks = (samples + blockRows - 1) / blockRows;
+            try {
+                channel.truncate(HEADER_SIZE + blocks * blockBytes);
+            } catch (IOException e) {
+                // Some platforms refuse to shrink a file that is still mapped; the unused
+                // tail is harmless because readers go by the header count
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.physicalapp.physics.record;
+
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.PhysicsModel;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+// Random access into a recorded run. Every row of the recording is a keyframe: time, the
+// model's full state and the parameters in force. Seeking finds the last keyframe at or
+// before the requested time, restores the model from it and re-integrates the remaining
+// steps, which are fewer than one keyframe interval.
+//
+// Times are non-decreasing, so the keyframes are indexed by the time of the first row of
+// every block: a binary search over that small array picks the block, a second one inside
+// the block picks the row. A seek touches a handful of pages however long the run is.
+public class RunReplay implements Closeable {
+    private final RunReader reader;
+    private final PhysicsModel model;
+    private final int stateSize;
+    private final int blockRows;
+    private final double[] blockTimes;
+    private final double endTime;
+    private final double[] row;
+    private final double[] state;
+    private final double[] parameters;
+    private long keyframe = -1;
+
+    public RunReplay(Path file, PhysicsModel model) throws IOException {
+        if (!model.canRestore()) {
+            throw new IllegalArgumentException(model.getClass().getSimpleName() + " cannot restore its state");
+        }
+        reader = new RunReader(file);
+        try {
+            if (!matches(reader, columnNames(model))) {
+                throw new IOException("Recording does not belong to this phenomenon: " + file);
+            }
+            if (reader.getSampleCount() == 0) {
+                throw new IOException("Recording is empty: " + file);
+            }
+            this.model = model;
+            stateSize = model.getStateSize();
+            blockRows = reader.getBlockRows();
+            blockTimes = new double[(int) ((reader.getSampleCount() + blockRows - 1) / blockRows)];
+            for (int b = 0; b < blockTimes.length; b++) {
+                blockTimes[b] = reader.readValue(0, (long) b * blockRows);
+            }
+            endTime = reader.readValue(0, reader.getSampleCount() - 1);
+            row = new double[reader.getColumnCount()];
+            state = new double[stateSize];
+            parameters = new double[model.getSchema().size()];
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    // The columns a keyframe of this model is recorded with, after the time column
+    public static String[] columnNames(PhysicsModel model) {
+        String[] stateNames = model.getStateNames();
+        ParameterSchema schema = model.getSchema();
+        String[] names = new String[stateNames.length + schema.size()];
+        System.arraycopy(stateNames, 0, names, 0, stateNames.length);
+        for (int i = 0; i < schema.size(); i++) {
+            names[stateNames.length + i] = schema.getName(i);
+        }
+        return names;
+    }
+
+    private static boolean matches(RunReader reader, String[] names) {
+        if (reader.getColumnCount() != names.length + 1) {
+            return false;
+        }
+        for (int c = 0; c < names.length; c++) {
+            if (!reader.getColumnName(c + 1).equals(names[c])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double getStartTime() {
+        return blockTimes[0];
+    }
+
+    public double getEndTime() {
+        return endTime;
+    }
+
+    public long getKeyframeCount() {
+        return reader.getSampleCount();
+    }
+
+    // Parameters of the keyframe the last seek started from
+    public double[] getParameters() {
+        return parameters;
+    }
+
+    // Puts the model into its recorded state at time (clamped to the run) and returns the time
+    // actually reached, which is a whole number of steps after a keyframe.
+    public double seek(double time) throws IOException {
+        time = Math.min(time, endTime);
+        long found = findKeyframe(time);
+        if (found != keyframe) {
+            reader.readRow(found, row);
+            System.arraycopy(row, 1, state, 0, stateSize);
+            System.arraycopy(row, 1 + stateSize, parameters, 0, parameters.length);
+            keyframe = found;
+        }
+        model.setParameters(parameters);
+        model.restoreState(state);
+
+        double stepSize = reader.getStepSize();
+        double keyframeTime = row[0];
+        long steps = time > keyframeTime ? (long) ((time - keyframeTime) / stepSize) : 0;
+        if (found + 1 < reader.getSampleCount()) {
+            // Never past the next keyframe, which may follow a parameter change
+            double nextTime = reader.readValue(0, found + 1);
+            steps = Math.min(steps, Math.round((nextTime - keyframeTime) / stepSize));
+        }
+        for (long i = 0; i < steps; i++) {
+            model.step(stepSize);
+        }
+        return keyframeTime + steps * stepSize;
+    }
+
+    // Last keyframe with a time at or before time, or the first one
+    private long findKeyframe(double time) throws IOException {
+        int low = 0;
+        int high = blockTimes.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (blockTimes[mid] <= time) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        long first = (long) low * blockRows;
+        long lo = first;
+        long hi = Math.min(first + blockRows, reader.getSampleCount()) - 1;
+        while (lo < hi) {
+            long mid = (lo + hi + 1) >>> 1;
+            if (reader.readValue(0, mid) <= time) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.physicalapp.physics.record;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded lock-free queue of fixed-width rows of doubles from one producer thread to one
+// consumer thread. Rows live in one flat array; each side publishes its position with a
+// lazySet and keeps a cached copy of the other side's, so a call usually reads no volatile
+// field written by the other thread.
+public class SampleQueue {
+    private final double[] slots;
+    private final int width;
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();   // next row to take, written by the consumer
+    private final AtomicLong tail = new AtomicLong();   // next row to fill, written by the producer
+    private long producerTail;
+    private long cachedHead;
+    private long consumerHead;
+    private long cachedTail;
+
+    // Capacity is rounded up to a power of two rows
+    public SampleQueue(int capacity, int width) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.width = width;
+        this.mask = this.capacity - 1;
+        this.slots = new double[this.capacity * width];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Producer side: copies the first width values of row, false when the queue is full
+    public boolean offer(double[] row) {
+        long position = producerTail;
+        if (position - cachedHead >= capacity) {
+            cachedHead = head.get();
+            if (position - cachedHead >= capacity) {
+                return false;
+            }
+        }
+        System.arraycopy(row, 0, slots, (int) (position & mask) * width, width);
+        producerTail = position + 1;
+        tail.lazySet(producerTail);
+        return true;
+    }
+
+    // Consumer side: moves up to maxRows rows into out and returns how many
+    public int drain(double[] out, int maxRows) {
+        long position = consumerHead;
+        if (cachedTail == position) {
+            cachedTail = tail.get();
+            if (cachedTail == position) {
+                return 0;
+            }
+        }
+        int rows = (int) Math.min(maxRows, cachedTail - position);
+        int start = (int) (position & mask);
+        int first = Math.min(rows, capacity - start);
+        System.arraycopy(slots, start * width, out, 0, first * width);
+        System.arraycopy(slots, 0, out, first * width, (rows - first) * width);
+        consumerHead = position + rows;
+        head.lazySet(consumerHead);
+        return rows;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+}
@@ -0,0 +1,212 @@
+package com.physicalapp.physics.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+// Streams rows of (time, values...) to a CSV or binary file while a simulation runs. The
+// producer only copies a row into a bounded SampleQueue; a background thread drains it in
+// batches and writes through one reusable buffer, so memory stays bounded however long the
+// run is. When the writer falls behind, DROP discards new rows at once and BLOCK waits for
+// room up to the block timeout before discarding; both count what they discard.
+//
+// Binary files are little endian: magic, column count, then per column a short length and
+// UTF-8 name, then rows of doubles.
+public class TimeSeriesExporter implements Closeable {
+    public enum Format { CSV, BINARY }
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    static final int MAGIC = 0x53545350;   // "PSTS"
+    private static final int BATCH_ROWS = 1024;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final long IDLE_NANOS = 1_000_000L;
+    private static final long BLOCK_PARK_NANOS = 50_000L;
+
+    private final FileChannel channel;
+    private final Format format;
+    private final OverflowPolicy policy;
+    private final long blockTimeoutNanos;
+    private final SampleQueue queue;
+    private final double[] row;
+    private final Thread writer;
+    private volatile boolean closing;
+    private volatile IOException failure;
+    private volatile long written;
+    private long dropped;
+
+    // Writer-thread state
+    private final double[] batch;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final StringBuilder line = new StringBuilder(256);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+    // columns names the values after the leading "time" column; capacity is in rows
+    public TimeSeriesExporter(Path file, String[] columns, Format format, int capacity,
+                              OverflowPolicy policy, long blockTimeoutNanos) throws IOException {
+        this.format = format;
+        this.policy = policy;
+        this.blockTimeoutNanos = blockTimeoutNanos;
+        queue = new SampleQueue(capacity, columns.length + 1);
+        row = new double[columns.length + 1];
+        batch = new double[BATCH_ROWS * row.length];
+
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                   StandardOpenOption.WRITE);
+        try {
+            writeHeader(columns);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        writer = new Thread(this::drainLoop, "time-series-export");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void writeHeader(String[] columns) throws IOException {
+        if (format == Format.CSV) {
+            line.append("time");
+            for (String column : columns) {
+                line.append(',').append(column);
+            }
+            line.append('\n');
+            encodeLine();
+        } else {
+            buffer.putInt(MAGIC).putInt(columns.length + 1);
+            putName("time");
+            for (String column : columns) {
+                putName(column);
+            }
+        }
+        flush();
+    }
+
+    private void putName(String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        ensureRoom(2 + bytes.length);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    // Producer side, one thread only. Returns false when the row was dropped.
+    public boolean offer(double time, double[] values) {
+        row[0] = time;
+        System.arraycopy(values, 0, row, 1, row.length - 1);
+        if (queue.offer(row)) {
+            return true;
+        }
+        if (policy == OverflowPolicy.BLOCK && failure == null) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                if (queue.offer(row)) {
+                    return true;
+                }
+            }
+        }
+        dropped++;
+        return false;
+    }
+
+    public long getWrittenCount() {
+        return written;
+    }
+
+    // Rows the producer discarded; read on the producer thread
+    public long getDroppedCount() {
+        return dropped;
+    }
+
+    private void drainLoop() {
+        try {
+            while (true) {
+                int rows = queue.drain(batch, BATCH_ROWS);
+                if (rows > 0) {
+                    writeRows(rows);
+                    continue;
+                }
+                if (closing && queue.isEmpty()) {
+                    break;
+                }
+                // Nothing queued: write out what is buffered and wait for more
+                flush();
+                LockSupport.parkNanos(IDLE_NANOS);
+            }
+            flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void writeRows(int rows) throws IOException {
+        int width = row.length;
+        for (int r = 0; r < rows; r++) {
+            int base = r * width;
+            if (format == Format.CSV) {
+                line.append(batch[base]);
+                for (int c = 1; c < width; c++) {
+                    line.append(',').append(batch[base + c]);
+                }
+                line.append('\n');
+                encodeLine();
+            } else {
+                ensureRoom(width * 8);
+                for (int c = 0; c < width; c++) {
+                    buffer.putDouble(batch[base + c]);
+                }
+            }
+        }
+        written += rows;
+    }
+
+    private void encodeLine() throws IOException {
+        ensureRoom(line.length() * 3);
+        encoder.encode(CharBuffer.wrap(line), buffer, true);
+        encoder.reset();
+        line.setLength(0);
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Lets the writer finish the queued rows, then closes the file. Throws what the writer
+    // failed with, if anything.
+    @Override
+    public void close() throws IOException {
+        if (closing) {
+            return;
+        }
+        closing = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
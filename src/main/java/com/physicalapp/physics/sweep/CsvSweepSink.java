@@ -0,0 +1,56 @@
+package com.physicalapp.physics.sweep;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Writes one CSV line per finished point: its index, the swept parameters and the results.
+// Lines arrive in completion order; sort by the point column to get plan order.
+public class CsvSweepSink implements SweepSink, Closeable {
+    private final BufferedWriter writer;
+    private final int[] parameterIndices;
+    private final StringBuilder line = new StringBuilder(256);
+
+    public CsvSweepSink(Path file, SweepRange[] ranges, int[] parameterIndices, String[] resultNames)
+            throws IOException {
+        this.parameterIndices = parameterIndices.clone();
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        line.append("point");
+        for (SweepRange range : ranges) {
+            line.append(',').append(range.name());
+        }
+        for (String name : resultNames) {
+            line.append(',').append(name);
+        }
+        writer.append(line).append('\n');
+        line.setLength(0);
+    }
+
+    @Override
+    public synchronized void accept(int point, double[] parameters, double[] results) {
+        line.append(point);
+        for (int index : parameterIndices) {
+            line.append(',').append(parameters[index]);
+        }
+        for (double result : results) {
+            line.append(',').append(result);
+        }
+        line.append('\n');
+        try {
+            writer.append(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            line.setLength(0);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,111 @@
+package com.physicalapp.physics.sweep;
+
+import com.physicalapp.physics.PhysicsModel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Runs one independent simulation per point of a SweepPlan on a work-stealing pool. The
+// point range is split in halves down to single points, so idle workers steal whatever is
+// left whatever the cost of each run. Every worker keeps its own model, measure and
+// statistics; partial statistics are merged as the tasks join, and finished rows go straight
+// to the sink, so nothing grows with the number of points.
+public class SweepEngine {
+    private final ForkJoinPool pool;
+    private final Supplier<PhysicsModel> models;
+    private final Supplier<SweepMeasure> measures;
+    private final double stepSize;
+    private final long steps;
+    private final AtomicLong completed = new AtomicLong();
+    private volatile int total;
+
+    public SweepEngine(ForkJoinPool pool, Supplier<PhysicsModel> models, Supplier<SweepMeasure> measures,
+                       double stepSize, long steps) {
+        this.pool = pool;
+        this.models = models;
+        this.measures = measures;
+        this.stepSize = stepSize;
+        this.steps = steps;
+    }
+
+    // Names of the result columns, in the order the sink and the statistics see them
+    public String[] getResultNames() {
+        return measures.get().getNames(models.get());
+    }
+
+    // Progress of the running sweep, safe to poll from any thread
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    // Blocks until every point has run; sink may be null
+    public SweepStatistics run(SweepPlan plan, SweepSink sink) {
+        completed.set(0);
+        total = plan.size();
+        int columns = getResultNames().length;
+        if (plan.size() == 0) {
+            return new SweepStatistics(columns);
+        }
+        return pool.invoke(new SweepTask(plan, sink, columns, 0, plan.size()));
+    }
+
+    private class SweepTask extends RecursiveTask<SweepStatistics> {
+        private final SweepPlan plan;
+        private final SweepSink sink;
+        private final int columns;
+        private final int from;
+        private final int to;
+
+        SweepTask(SweepPlan plan, SweepSink sink, int columns, int from, int to) {
+            this.plan = plan;
+            this.sink = sink;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SweepStatistics compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                SweepTask right = new SweepTask(plan, sink, columns, mid, to);
+                right.fork();
+                SweepStatistics statistics = new SweepTask(plan, sink, columns, from, mid).compute();
+                statistics.merge(right.join());
+                return statistics;
+            }
+            SweepStatistics statistics = new SweepStatistics(columns);
+            double[] results = new double[columns];
+            double[] parameters = new double[plan.getParameterCount()];
+            runPoint(from, parameters, results);
+            statistics.add(results);
+            if (sink != null) {
+                sink.accept(from, parameters, results);
+            }
+            completed.incrementAndGet();
+            return statistics;
+        }
+
+        private void runPoint(int point, double[] parameters, double[] results) {
+            plan.point(point, parameters);
+            PhysicsModel model = models.get();
+            model.setParameters(parameters);
+            SweepMeasure measure = measures.get();
+            double[] state = new double[model.getStateSize()];
+            model.copyState(state);
+            measure.begin(model, parameters);
+            measure.sample(0, state);
+            for (long i = 1; i <= steps; i++) {
+                model.step(stepSize);
+                model.copyState(state);
+                measure.sample(i * stepSize, state);
+            }
+            measure.finish(results);
+        }
+    }
+}
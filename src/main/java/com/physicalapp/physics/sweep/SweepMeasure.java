@@ -0,0 +1,98 @@
+package com.physicalapp.physics.sweep;
+
+import com.physicalapp.physics.PhysicsModel;
+
+// What a sweep reports for each run. An instance is used by one thread for one run at a
+// time: begin(), then sample() after every step, then finish().
+public interface SweepMeasure {
+    String[] getNames(PhysicsModel model);
+
+    void begin(PhysicsModel model, double[] parameters);
+
+    void sample(double time, double[] state);
+
+    void finish(double[] results);
+
+    // Mean period of state[0] (an angle) from its upward zero crossings; NaN with fewer than two
+    static SweepMeasure period() {
+        return new SweepMeasure() {
+            private double previousTime;
+            private double previousValue;
+            private double firstCrossing;
+            private double lastCrossing;
+            private int crossings;
+
+            @Override
+            public String[] getNames(PhysicsModel model) {
+                return new String[] {"period", "crossings"};
+            }
+
+            @Override
+            public void begin(PhysicsModel model, double[] parameters) {
+                previousTime = 0;
+                previousValue = Double.NaN;
+                crossings = 0;
+            }
+
+            @Override
+            public void sample(double time, double[] state) {
+                double value = state[0];
+                if (previousValue < 0 && value >= 0) {
+                    double crossing = previousTime + (time - previousTime) * -previousValue / (value - previousValue);
+                    if (crossings == 0) {
+                        firstCrossing = crossing;
+                    }
+                    lastCrossing = crossing;
+                    crossings++;
+                }
+                previousTime = time;
+                previousValue = value;
+            }
+
+            @Override
+            public void finish(double[] results) {
+                results[0] = crossings < 2 ? Double.NaN : (lastCrossing - firstCrossing) / (crossings - 1);
+                results[1] = crossings;
+            }
+        };
+    }
+
+    // The state and observables at the end of the run, e.g. final velocities after collisions
+    static SweepMeasure finalState() {
+        return new SweepMeasure() {
+            private PhysicsModel model;
+            private double[] parameters;
+            private double[] state;
+
+            @Override
+            public String[] getNames(PhysicsModel model) {
+                String[] stateNames = model.getStateNames();
+                String[] observableNames = model.getObservableNames();
+                String[] names = new String[stateNames.length + observableNames.length];
+                System.arraycopy(stateNames, 0, names, 0, stateNames.length);
+                System.arraycopy(observableNames, 0, names, stateNames.length, observableNames.length);
+                return names;
+            }
+
+            @Override
+            public void begin(PhysicsModel model, double[] parameters) {
+                this.model = model;
+                this.parameters = parameters;
+            }
+
+            @Override
+            public void sample(double time, double[] state) {
+                this.state = state;
+            }
+
+            @Override
+            public void finish(double[] results) {
+                int stateSize = model.getStateSize();
+                System.arraycopy(state, 0, results, 0, stateSize);
+                double[] observables = new double[model.getObservableNames().length];
+                model.computeObservables(state, parameters, observables);
+                System.arraycopy(observables, 0, results, stateSize, observables.length);
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.physicalapp.physics.sweep;
+
+import com.physicalapp.physics.ParameterSchema;
+import java.util.Random;
+
+// The parameter sets of a sweep. Points are generated on demand from their index, so a plan
+// of millions of points costs no memory beyond the Latin-hypercube permutations.
+public final class SweepPlan {
+    private final double[] base;
+    private final SweepRange[] ranges;
+    private final int[] indices;
+    private final int size;
+    // Latin hypercube only: per range, the stratum of every sample, plus a jitter seed
+    private final int[][] strata;
+    private final long seed;
+
+    private SweepPlan(ParameterSchema schema, double[] base, SweepRange[] ranges, int size, int[][] strata,
+                      long seed) {
+        this.base = base.clone();
+        this.ranges = ranges.clone();
+        this.size = size;
+        this.strata = strata;
+        this.seed = seed;
+        indices = new int[ranges.length];
+        for (int r = 0; r < ranges.length; r++) {
+            indices[r] = schema.indexOf(ranges[r].name());
+            if (indices[r] < 0) {
+                throw new IllegalArgumentException("Unknown parameter " + ranges[r].name());
+            }
+        }
+    }
+
+    // Every combination of the ranges' grid values; the first range varies slowest
+    public static SweepPlan grid(ParameterSchema schema, double[] base, SweepRange... ranges) {
+        long size = 1;
+        for (SweepRange range : ranges) {
+            size *= range.points();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Grid has more than " + Integer.MAX_VALUE + " points");
+            }
+        }
+        return new SweepPlan(schema, base, ranges, (int) size, null, 0);
+    }
+
+    // samples points such that every range, cut into samples equal strata, has exactly one
+    // point in each stratum, placed at random inside it
+    public static SweepPlan latinHypercube(ParameterSchema schema, double[] base, int samples, long seed,
+                                           SweepRange... ranges) {
+        Random random = new Random(seed);
+        int[][] strata = new int[ranges.length][samples];
+        for (int[] permutation : strata) {
+            for (int i = 0; i < samples; i++) {
+                permutation[i] = i;
+            }
+            for (int i = samples - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = swap;
+            }
+        }
+        return new SweepPlan(schema, base, ranges, samples, strata, random.nextLong());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getParameterCount() {
+        return base.length;
+    }
+
+    public SweepRange[] getRanges() {
+        return ranges.clone();
+    }
+
+    // Schema index of every range's parameter
+    public int[] getParameterIndices() {
+        return indices.clone();
+    }
+
+    // Writes the full parameter set of point into target (schema order)
+    public void point(int point, double[] target) {
+        System.arraycopy(base, 0, target, 0, base.length);
+        if (strata == null) {
+            int rest = point;
+            for (int r = ranges.length - 1; r >= 0; r--) {
+                int points = ranges[r].points();
+                target[indices[r]] = ranges[r].at(rest % points);
+                rest /= points;
+            }
+            return;
+        }
+        for (int r = 0; r < ranges.length; r++) {
+            // Jitter derived from (seed, point, range) so that a point is the same whichever
+            // thread generates it and in whatever order
+            double jitter = unitHash(seed + 0x9E3779B97F4A7C15L * (point * (long) ranges.length + r));
+            SweepRange range = ranges[r];
+            target[indices[r]] = range.from() + (range.to() - range.from()) * (strata[r][point] + jitter) / size;
+        }
+    }
+
+    // SplitMix64 finalizer mapped to [0, 1)
+    private static double unitHash(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,39 @@
+package com.physicalapp.physics.sweep;
+
+// One swept parameter: values from..to, both included. points is the number of grid values;
+// a Latin-hypercube plan ignores it and draws its own count of samples.
+public record SweepRange(String name, double from, double to, int points) {
+    public SweepRange {
+        if (points < 1) {
+            throw new IllegalArgumentException("A range needs at least one point: " + name);
+        }
+    }
+
+    // Parses name=from:to:points, or name=value for a single point
+    public static SweepRange parse(String text) {
+        int separator = text.indexOf('=');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Expected name=from:to:points, got " + text);
+        }
+        String name = text.substring(0, separator);
+        String[] parts = text.substring(separator + 1).split(":");
+        try {
+            if (parts.length == 1) {
+                double value = Double.parseDouble(parts[0]);
+                return new SweepRange(name, value, value, 1);
+            }
+            if (parts.length == 3) {
+                return new SweepRange(name, Double.parseDouble(parts[0]), Double.parseDouble(parts[1]),
+                                      (int) Double.parseDouble(parts[2]));
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Expected name=from:to:points, got " + text);
+    }
+
+    // Grid value i of points, evenly spaced
+    double at(int i) {
+        return points == 1 ? from : from + (to - from) * i / (points - 1);
+    }
+}
@@ -0,0 +1,7 @@
+package com.physicalapp.physics.sweep;
+
+// Receives every finished point of a sweep as soon as it is done, from the worker threads and
+// in no particular order, so implementations must be thread-safe.
+public interface SweepSink {
+    void accept(int point, double[] parameters, double[] results);
+}
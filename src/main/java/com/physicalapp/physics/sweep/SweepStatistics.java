@@ -0,0 +1,82 @@
+package com.physicalapp.physics.sweep;
+
+import java.util.Arrays;
+
+// Running count, mean, variance, minimum and maximum of every result column, merged across
+// threads without keeping the rows. NaN results (e.g. no period found) are counted apart.
+public final class SweepStatistics {
+    private final long[] counts;
+    private final long[] missing;
+    private final double[] means;
+    private final double[] squares;   // sum of squared deviations from the mean
+    private final double[] minimums;
+    private final double[] maximums;
+
+    public SweepStatistics(int columns) {
+        counts = new long[columns];
+        missing = new long[columns];
+        means = new double[columns];
+        squares = new double[columns];
+        minimums = new double[columns];
+        maximums = new double[columns];
+        Arrays.fill(minimums, Double.POSITIVE_INFINITY);
+        Arrays.fill(maximums, Double.NEGATIVE_INFINITY);
+    }
+
+    public void add(double[] results) {
+        for (int c = 0; c < counts.length; c++) {
+            double value = results[c];
+            if (Double.isNaN(value)) {
+                missing[c]++;
+                continue;
+            }
+            long count = ++counts[c];
+            double delta = value - means[c];
+            means[c] += delta / count;
+            squares[c] += delta * (value - means[c]);
+            minimums[c] = value < minimums[c] ? value : minimums[c];
+            maximums[c] = value > maximums[c] ? value : maximums[c];
+        }
+    }
+
+    // Chan et al. pairwise combination of two partial results
+    public void merge(SweepStatistics other) {
+        for (int c = 0; c < counts.length; c++) {
+            missing[c] += other.missing[c];
+            long count = counts[c] + other.counts[c];
+            if (other.counts[c] == 0) {
+                continue;
+            }
+            double delta = other.means[c] - means[c];
+            means[c] += delta * other.counts[c] / count;
+            squares[c] += other.squares[c] + delta * delta * counts[c] * other.counts[c] / count;
+            counts[c] = count;
+            minimums[c] = Math.min(minimums[c], other.minimums[c]);
+            maximums[c] = Math.max(maximums[c], other.maximums[c]);
+        }
+    }
+
+    public long getCount(int column) {
+        return counts[column];
+    }
+
+    public long getMissing(int column) {
+        return missing[column];
+    }
+
+    public double getMean(int column) {
+        return counts[column] > 0 ? means[column] : Double.NaN;
+    }
+
+    public double getStandardDeviation(int column) {
+        return counts[column] > 1 ? Math.sqrt(squares[column] / (counts[column] - 1)) : Double.NaN;
+    }
+
+    public double getMinimum(int column) {
+        return counts[column] > 0 ? minimums[column] : Double.NaN;
+    }
+
+    public double getMaximum(int column) {
+        return counts[column] > 0 ? maximums[column] : Double.NaN;
+    }
+}
@@ -0,0 +1,66 @@
+package com.physicalapp.physics.wave;
+
+// In-place iterative radix-2 FFT for one power-of-two size. The bit-reversal permutation
+// and twiddle factors are tabulated in the constructor, so transform() allocates nothing.
+public final class Fft {
+    private final int size;
+    private final int[] reversed;
+    private final double[] cos;
+    private final double[] sin;
+
+    public Fft(int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("FFT size must be a power of two: " + size);
+        }
+        this.size = size;
+        int bits = Integer.numberOfTrailingZeros(size);
+        reversed = new int[size];
+        for (int i = 0; i < size; i++) {
+            reversed[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+        cos = new double[size / 2];
+        sin = new double[size / 2];
+        for (int i = 0; i < size / 2; i++) {
+            double angle = -2 * Math.PI * i / size;
+            cos[i] = Math.cos(angle);
+            sin[i] = Math.sin(angle);
+        }
+    }
+
+    // Forward transform, X[k] = sum x[n] e^(-2 pi i k n / N), replacing re and im
+    public void transform(double[] re, double[] im) {
+        for (int i = 0; i < size; i++) {
+            int j = reversed[i];
+            if (j > i) {
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+
+        for (int half = 1; half < size; half <<= 1) {
+            int stride = size / (2 * half);   // twiddle step for this stage
+            for (int start = 0; start < size; start += 2 * half) {
+                for (int k = 0; k < half; k++) {
+                    double wr = cos[k * stride];
+                    double wi = sin[k * stride];
+                    int a = start + k;
+                    int b = a + half;
+                    double tr = re[b] * wr - im[b] * wi;
+                    double ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+}
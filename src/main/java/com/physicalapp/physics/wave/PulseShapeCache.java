@@ -0,0 +1,95 @@
+package com.physicalapp.physics.wave;
+
+import com.physicalapp.physics.Waves;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Sampled pulse shapes for a pulse that slides across the canvas unchanged. A shape is
+// tabulated once per (type, width, canvas width) at SAMPLES_PER_PIXEL over every offset
+// the visible range can reach; a frame is then a shift into the table plus linear
+// interpolation. Because pixels are one unit apart, the interpolation weight is the same
+// for the whole frame. Recently used shapes are kept in an LRU map so switching back and
+// forth between pulse types does not rebuild them.
+public class PulseShapeCache {
+    private static final int SAMPLES_PER_PIXEL = 4;
+
+    private record Key(int type, double pixelWidth, int canvasWidth) {
+    }
+
+    private final Map<Key, double[]> shapes;
+
+    // Last shape used, so a steady frame does not even touch the map
+    private int lastType = -1;
+    private double lastPixelWidth = Double.NaN;
+    private int lastCanvasWidth = -1;
+    private double[] lastTable;
+    private int builds;
+
+    public PulseShapeCache(int maxShapes) {
+        shapes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest) {
+                return size() > maxShapes;
+            }
+        };
+    }
+
+    // Writes Waves.impulse(type, (x - center) / pixelWidth) for x = 0..canvasWidth into out.
+    // The table covers centres from -canvasWidth / 4 to 5 * canvasWidth / 4.
+    public void sample(int type, double pixelWidth, int canvasWidth, double center, double[] out) {
+        double[] table = table(type, pixelWidth, canvasWidth);
+        int half = halfRange(canvasWidth);
+
+        // Table index of pixel x is (x - center + half) * SAMPLES_PER_PIXEL
+        double start = (half - center) * SAMPLES_PER_PIXEL;
+        int base = (int) Math.floor(start);
+        double fraction = start - base;
+        int last = table.length - 2;
+
+        for (int x = 0; x <= canvasWidth; x++) {
+            int i = base + x * SAMPLES_PER_PIXEL;
+            if (i < 0 || i > last) {
+                out[x] = 0;
+            } else {
+                out[x] = table[i] + fraction * (table[i + 1] - table[i]);
+            }
+        }
+    }
+
+    private double[] table(int type, double pixelWidth, int canvasWidth) {
+        if (type == lastType && pixelWidth == lastPixelWidth && canvasWidth == lastCanvasWidth) {
+            return lastTable;
+        }
+        Key key = new Key(type, pixelWidth, canvasWidth);
+        double[] table = shapes.get(key);
+        if (table == null) {
+            table = build(type, pixelWidth, canvasWidth);
+            shapes.put(key, table);
+        }
+        lastType = type;
+        lastPixelWidth = pixelWidth;
+        lastCanvasWidth = canvasWidth;
+        lastTable = table;
+        return table;
+    }
+
+    private double[] build(int type, double pixelWidth, int canvasWidth) {
+        int half = halfRange(canvasWidth);
+        double[] table = new double[2 * half * SAMPLES_PER_PIXEL + 2];
+        for (int i = 0; i < table.length; i++) {
+            double offset = (double) i / SAMPLES_PER_PIXEL - half;
+            table[i] = Waves.impulse(type, offset / pixelWidth);
+        }
+        builds++;
+        return table;
+    }
+
+    // Largest |x - center| the visible range can produce, plus a pixel of margin
+    private static int halfRange(int canvasWidth) {
+        return (canvasWidth * 5 + 3) / 4 + 1;
+    }
+
+    public int getBuildCount() {
+        return builds;
+    }
+}
@@ -0,0 +1,65 @@
+package com.physicalapp.physics.wave;
+
+import com.physicalapp.physics.Waves;
+
+// Magnitude spectrum of a pulse shape, computed with an FFT over a window much longer
+// than the pulse. The pulse sits at sample 0 and wraps around the window, so the spectrum
+// of the symmetric pulses is real; moving the pulse would only change the phase, so the
+// magnitude needs recomputing only when the type or width changes. Nothing is allocated
+// after construction.
+public class PulseSpectrum {
+    public static final double FLOOR_DB = -80;
+
+    private final Fft fft;
+    private final double[] re;
+    private final double[] im;
+
+    public PulseSpectrum(int size) {
+        fft = new Fft(size);
+        re = new double[size];
+        im = new double[size];
+    }
+
+    // Fills out with the magnitude in dB relative to the peak, for spatial frequencies
+    // from 0 to maxCycles / pixelWidth cycles per pixel spread over out.length columns.
+    // Each column keeps the largest bin it covers so narrow side lobes stay visible.
+    public void compute(int type, double pixelWidth, double maxCycles, double[] out) {
+        transform(type, pixelWidth);
+
+        int size = fft.size();
+        int bins = Math.min(size / 2, Math.max(out.length, (int) (maxCycles * size / pixelWidth)));
+        double peak = 0;
+        for (int k = 0; k <= bins; k++) {
+            peak = Math.max(peak, re[k]);
+        }
+
+        for (int column = 0; column < out.length; column++) {
+            int from = (int) ((long) column * bins / out.length);
+            int to = Math.max(from + 1, (int) ((long) (column + 1) * bins / out.length));
+            double magnitude = 0;
+            for (int k = from; k < to; k++) {
+                magnitude = Math.max(magnitude, re[k]);
+            }
+            double db = magnitude > 0 && peak > 0 ? 20 * Math.log10(magnitude / peak) : FLOOR_DB;
+            out[column] = Math.max(FLOOR_DB, db);
+        }
+    }
+
+    // Leaves |X[k]| in re
+    private void transform(int type, double pixelWidth) {
+        int size = fft.size();
+        for (int i = 0; i < size; i++) {
+            int offset = i < size / 2 ? i : i - size;
+            re[i] = Waves.impulse(type, offset / pixelWidth);
+            im[i] = 0;
+        }
+        fft.transform(re, im);
+        for (int k = 0; k < size; k++) {
+            re[k] = Math.sqrt(re[k] * re[k] + im[k] * im[k]);
+        }
+    }
+
+    public int size() {
+        return fft.size();
+    }
+}
@@ -0,0 +1,16 @@
+package com.physicalapp.physics.wave;
+
+final class ScalarStencil implements StencilKernel {
+    static final ScalarStencil INSTANCE = new ScalarStencil();
+
+    @Override
+    public void apply(double[] prev, double[] cur, int from, int to, double c0, double c1, double c2) {
+        applyRange(prev, cur, from, to, c0, c1, c2);
+    }
+
+    static void applyRange(double[] prev, double[] cur, int from, int to, double c0, double c1, double c2) {
+        for (int i = from; i < to; i++) {
+            prev[i] = c0 * cur[i] + c1 * (cur[i - 1] + cur[i + 1]) + c2 * prev[i];
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.physicalapp.physics.wave;
+
+import java.util.Arrays;
+
+// Standing waves on a string fixed at both ends, synthesized as a sum of normal modes:
+// y(x, t) = sum a_m sin(n_m pi x / L) cos(omega_m t), omega_m = n_m pi c / L.
+// The spatial factors depend only on the sample count and mode numbers, so they are
+// tabulated once; a frame then computes one cosine per mode and accumulates
+// samples * modes multiply-adds with no trigonometry in the inner loop.
+//
+// The modes form a string plucked at every antinode of mode `fundamental`: odd multiples
+// n = fundamental * (2j + 1) with a_j ~ (-1)^j / (2j + 1)^2, which add up to a triangle
+// shape. A single mode is the plain sin(kx) cos(wt) wave; every mode keeps the nodes of
+// the fundamental.
+public class StandingWaveModel {
+    public static final int MAX_MODES = 64;
+
+    private final int[] modeNumbers = new int[MAX_MODES];
+    private final double[] amplitudes = new double[MAX_MODES];
+    private final double[] coefficients = new double[MAX_MODES];
+    private int modeCount;
+
+    private int samples;
+    private double length;
+    private double[] table = new double[0];   // modeCount rows of samples values
+    private boolean tableValid;
+
+    private double speed = 5.0;
+    private double amplitude = 0.5;
+
+    // Sample i sits at x = i * length / (samples - 1)
+    public void setSampling(int samples, double length) {
+        if (samples != this.samples || length != this.length) {
+            this.samples = samples;
+            this.length = length;
+            tableValid = false;
+        }
+    }
+
+    public void setModes(int fundamental, int count) {
+        fundamental = Math.max(1, fundamental);
+        count = Math.max(1, Math.min(MAX_MODES, count));
+
+        double norm = 0;
+        for (int j = 0; j < count; j++) {
+            norm += 1.0 / ((2 * j + 1) * (2 * j + 1));
+        }
+        boolean changed = count != modeCount;
+        for (int j = 0; j < count; j++) {
+            int n = fundamental * (2 * j + 1);
+            changed |= modeNumbers[j] != n;
+            modeNumbers[j] = n;
+            double sign = (j & 1) == 0 ? 1 : -1;
+            amplitudes[j] = sign / ((2 * j + 1) * (2 * j + 1) * norm);
+        }
+        modeCount = count;
+        if (changed) {
+            tableValid = false;
+        }
+    }
+
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public void setAmplitude(double amplitude) {
+        this.amplitude = amplitude;
+    }
+
+    // Writes y at every sample into out[offset .. offset + samples)
+    public void evaluate(double time, double[] out, int offset) {
+        if (!tableValid) {
+            buildTable();
+        }
+        for (int m = 0; m < modeCount; m++) {
+            double omega = modeNumbers[m] * Math.PI * speed / length;
+            coefficients[m] = amplitude * amplitudes[m] * Math.cos(omega * time);
+        }
+
+        Arrays.fill(out, offset, offset + samples, 0);
+        for (int m = 0; m < modeCount; m++) {
+            double c = coefficients[m];
+            int row = m * samples;
+            for (int i = 0; i < samples; i++) {
+                out[offset + i] += c * table[row + i];
+            }
+        }
+    }
+
+    private void buildTable() {
+        if (table.length < modeCount * samples) {
+            table = new double[MAX_MODES * samples];
+        }
+        double dx = samples > 1 ? 1.0 / (samples - 1) : 0;
+        for (int m = 0; m < modeCount; m++) {
+            double k = modeNumbers[m] * Math.PI * dx;
+            int row = m * samples;
+            for (int i = 0; i < samples; i++) {
+                table[row + i] = Math.sin(k * i);
+            }
+        }
+        tableValid = true;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public int getModeCount() {
+        return modeCount;
+    }
+}
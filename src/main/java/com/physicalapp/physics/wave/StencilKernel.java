@@ -0,0 +1,25 @@
+package com.physicalapp.physics.wave;
+
+// One leapfrog update of the 1D wave equation over the interior nodes from..to-1, written
+// in place over the previous time level since each node only reads its own old value:
+// prev[i] = c0 * cur[i] + c1 * (cur[i - 1] + cur[i + 1]) + c2 * prev[i]
+interface StencilKernel {
+    void apply(double[] prev, double[] cur, int from, int to, double c0, double c1, double c2);
+
+    static StencilKernel scalar() {
+        return ScalarStencil.INSTANCE;
+    }
+
+    // The vector kernel needs the incubating jdk.incubator.vector module, which is only
+    // resolved when the JVM is started with --add-modules jdk.incubator.vector
+    static StencilKernel vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return new VectorStencil();
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+}
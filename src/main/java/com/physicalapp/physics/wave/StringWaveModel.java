@@ -0,0 +1,121 @@
+package com.physicalapp.physics.wave;
+
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.ParameterSchemas.StringWave;
+import com.physicalapp.physics.PhysicsModel;
+
+// Transverse waves on a string solved with leapfrog finite differences:
+// u_tt = c^2 u_xx - gamma u_t with c = sqrt(T / mu). The left end is driven sinusoidally,
+// the right end is fixed (u = 0) or free (u_x = 0). Each frame is split into substeps
+// that keep the Courant number c dt / dx below CFL, so the scheme stays stable for any
+// tension and node spacing.
+public class StringWaveModel implements PhysicsModel {
+    public static final double LINEAR_DENSITY = 4.0;    // kg/m
+    private static final double CFL = 0.9;
+    private static final double DAMPING = 0.2;          // 1/s, keeps resonances bounded
+    private static final int FIXED = 0;
+
+    private final int nodes;
+    private final double spacing;
+    private double[] previous;
+    private double[] current;
+    private StencilKernel kernel;
+
+    private double tension = 50.0;
+    private double amplitude = 0.5;
+    private double frequency = 1.0;
+    private int boundary = FIXED;
+    private double time;
+
+    public StringWaveModel(int nodes, double spacing) {
+        this.nodes = Math.max(nodes, 3);
+        this.spacing = spacing;
+        previous = new double[this.nodes];
+        current = new double[this.nodes];
+        setVectorized(true);
+    }
+
+    @Override
+    public void step(double deltaTime) {
+        double speed = getWaveSpeed();
+        int substeps = Math.max(1, (int) Math.ceil(speed * deltaTime / (CFL * spacing)));
+        double dt = deltaTime / substeps;
+
+        double r = speed * dt / spacing;
+        double r2 = r * r;
+        double g = DAMPING * dt / 2;
+        double c0 = (2 - 2 * r2) / (1 + g);
+        double c1 = r2 / (1 + g);
+        double c2 = -(1 - g) / (1 + g);
+        double omega = 2 * Math.PI * frequency;
+        int last = nodes - 1;
+
+        for (int s = 0; s < substeps; s++) {
+            // The new time level overwrites the oldest one, then the two swap roles
+            kernel.apply(previous, current, 1, last, c0, c1, c2);
+            time += dt;
+            previous[0] = amplitude * Math.sin(omega * time);
+            if (boundary == FIXED) {
+                previous[last] = 0;
+            } else {
+                // Mirror ghost node u[last + 1] = u[last - 1]
+                previous[last] = c0 * current[last] + 2 * c1 * current[last - 1] + c2 * previous[last];
+            }
+
+            double[] newest = previous;
+            previous = current;
+            current = newest;
+        }
+    }
+
+    @Override
+    public ParameterSchema getSchema() {
+        return StringWave.SCHEMA;
+    }
+
+    @Override
+    public void setParameter(int index, double value) {
+        switch (index) {
+            case StringWave.TENSION -> tension = Math.max(0, value);
+            case StringWave.AMPLITUDE -> amplitude = value;
+            case StringWave.FREQUENCY -> frequency = value;
+            case StringWave.BOUNDARY -> boundary = (int) Math.round(value);
+        }
+    }
+
+    @Override
+    public int getStateSize() {
+        return nodes;
+    }
+
+    @Override
+    public void copyState(double[] target) {
+        System.arraycopy(current, 0, target, 0, nodes);
+    }
+
+    // Falls back to the scalar kernel when the vector module is not available
+    public void setVectorized(boolean vectorized) {
+        StencilKernel vector = vectorized ? StencilKernel.vector() : null;
+        kernel = vector != null ? vector : StencilKernel.scalar();
+    }
+
+    public boolean isVectorized() {
+        return kernel != StencilKernel.scalar();
+    }
+
+    public double getWaveSpeed() {
+        return Math.sqrt(tension / LINEAR_DENSITY);
+    }
+
+    public double getDisplacement(int node) {
+        return current[node];
+    }
+
+    public int getNodes() {
+        return nodes;
+    }
+
+    public double getSpacing() {
+        return spacing;
+    }
+}
@@ -0,0 +1,27 @@
+package com.physicalapp.physics.wave;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD version of the stencil; the shifted loads read cur[i - 1] and cur[i + 1] directly,
+// and the remainder that does not fill a vector falls back to the scalar loop.
+final class VectorStencil implements StencilKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void apply(double[] prev, double[] cur, int from, int to, double c0, double c1, double c2) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector left = DoubleVector.fromArray(SPECIES, cur, i - 1);
+            DoubleVector right = DoubleVector.fromArray(SPECIES, cur, i + 1);
+            DoubleVector center = DoubleVector.fromArray(SPECIES, cur, i);
+            DoubleVector old = DoubleVector.fromArray(SPECIES, prev, i);
+            center.mul(c0)
+                .add(left.add(right).mul(c1))
+                .add(old.mul(c2))
+                .intoArray(prev, i);
+        }
+        ScalarStencil.applyRange(prev, cur, i, to, c0, c1, c2);
+    }
+}
@@ -0,0 +1,89 @@
+package com.physicalapp.render;
+
+import javafx.scene.canvas.GraphicsContext;
+
+// Polyline for the graph of a densely sampled curve y(x), thinned to the vertices needed to
+// stay within a tolerance of the samples. Straight and gently bending stretches collapse to
+// a few long segments, tight bends keep every sample, and the result is stroked with a
+// single strokePolyline().
+//
+// Thinning is one greedy pass that grows each segment while its slope stays inside the
+// window allowed by every sample it spans: a sample i constrains the slope from the anchor
+// to within +-tolerance / (x[i] - x[anchor]). The vertical error bounds the perpendicular
+// one, so no sample is further than the tolerance from the stroked line.
+public class CurvePath {
+    public static final double HALF_PIXEL = 0.5;
+
+    private final double tolerance;
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private int size;
+
+    public CurvePath() {
+        this(HALF_PIXEL);
+    }
+
+    public CurvePath(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double[] getXs() {
+        return xs;
+    }
+
+    public double[] getYs() {
+        return ys;
+    }
+
+    // Samples ys[0..count) taken at x = x0 + i * step, step > 0
+    public void setSamples(double x0, double step, double[] samples, int count) {
+        if (xs.length < count) {
+            xs = new double[count];
+            ys = new double[count];
+        }
+        size = 0;
+        if (count == 0) {
+            return;
+        }
+
+        int anchor = 0;
+        double anchorY = samples[0];
+        double low = Double.NEGATIVE_INFINITY;
+        double high = Double.POSITIVE_INFINITY;
+        emit(x0, anchorY);
+        for (int i = 1; i < count; i++) {
+            double dx = (i - anchor) * step;
+            double slope = (samples[i] - anchorY) / dx;
+            if (slope < low || slope > high) {
+                // The segment cannot reach i; it ends on the previous sample
+                anchor = i - 1;
+                anchorY = samples[anchor];
+                emit(x0 + anchor * step, anchorY);
+                dx = step;
+                low = Double.NEGATIVE_INFINITY;
+                high = Double.POSITIVE_INFINITY;
+            }
+            low = Math.max(low, (samples[i] - tolerance - anchorY) / dx);
+            high = Math.min(high, (samples[i] + tolerance - anchorY) / dx);
+        }
+        if (anchor != count - 1) {
+            emit(x0 + (count - 1) * step, samples[count - 1]);
+        }
+    }
+
+    private void emit(double x, double y) {
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+    }
+
+    public void stroke(GraphicsContext gc) {
+        if (size > 1) {
+            gc.strokePolyline(xs, ys, size);
+        }
+    }
+}
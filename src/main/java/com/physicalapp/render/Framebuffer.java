@@ -0,0 +1,302 @@
+package com.physicalapp.render;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelBuffer;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+// Software raster target for dense content: trails, particle clouds and density maps are
+// written straight into an int[] of premultiplied ARGB and shown through a PixelBuffer, so
+// a frame is one drawImage() instead of thousands of canvas commands and the pixels are
+// never copied into the image.
+//
+// Primitives are blended additively with per-channel saturation, which makes overlapping
+// points brighter instead of hiding each other. Large batches are rasterized in parallel
+// over horizontal bands of rows; every band owns its rows, so no two threads write the
+// same pixel.
+public class Framebuffer {
+    private static final int MIN_PARALLEL_ITEMS = 16_384;
+    private static final int MIN_BAND_HEIGHT = 16;
+
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+    private final PixelBuffer<IntBuffer> pixelBuffer;
+    private final WritableImage image;
+    private final ForkJoinPool pool;
+    private final int bandHeight;
+    private final int bands;
+
+    // Point indices sorted by band, reused between frames
+    private final int[] bandStarts;
+    private final int[] bandCursor;
+    private int[] order = new int[0];
+
+    public Framebuffer(int width, int height) {
+        this(width, height, ForkJoinPool.commonPool());
+    }
+
+    public Framebuffer(int width, int height, ForkJoinPool pool) {
+        this.width = width;
+        this.height = height;
+        this.pool = pool;
+        pixels = new int[width * height];
+        pixelBuffer = new PixelBuffer<>(width, height, IntBuffer.wrap(pixels), PixelFormat.getIntArgbPreInstance());
+        image = new WritableImage(pixelBuffer);
+
+        // A single worker gains nothing from bands, so everything then runs inline
+        int parallelism = pool.getParallelism();
+        bandHeight = parallelism > 1
+            ? Math.max(MIN_BAND_HEIGHT, (height + 4 * parallelism - 1) / (4 * parallelism))
+            : Math.max(1, height);
+        bands = Math.max(1, (height + bandHeight - 1) / bandHeight);
+        bandStarts = new int[bands + 1];
+        bandCursor = new int[bands];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    // Direct access for callers that compute whole images themselves
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    public void clear(int argb) {
+        Arrays.fill(pixels, argb);
+    }
+
+    // Publishes the pixels written since the last call; must run on the FX thread
+    public Image present() {
+        pixelBuffer.updateBuffer(buffer -> null);
+        return image;
+    }
+
+    public void addPoint(double x, double y, int argb) {
+        int px = (int) Math.floor(x);
+        int py = (int) Math.floor(y);
+        if (px >= 0 && py >= 0 && px < width && py < height) {
+            int index = py * width + px;
+            pixels[index] = add(pixels[index], argb);
+        }
+    }
+
+    public void addPoints(double[] xs, double[] ys, int count, int argb) {
+        if (count < MIN_PARALLEL_ITEMS || bands == 1) {
+            for (int i = 0; i < count; i++) {
+                addPoint(xs[i], ys[i], argb);
+            }
+            return;
+        }
+
+        // Counting sort of point indices by band
+        if (order.length < count) {
+            order = new int[count];
+        }
+        Arrays.fill(bandStarts, 0);
+        for (int i = 0; i < count; i++) {
+            int band = bandOf(ys[i]);
+            if (band >= 0) {
+                bandStarts[band + 1]++;
+            }
+        }
+        for (int b = 0; b < bands; b++) {
+            bandStarts[b + 1] += bandStarts[b];
+        }
+        System.arraycopy(bandStarts, 0, bandCursor, 0, bands);
+        for (int i = 0; i < count; i++) {
+            int band = bandOf(ys[i]);
+            if (band >= 0) {
+                order[bandCursor[band]++] = i;
+            }
+        }
+
+        pool.invoke(new BandTask(0, bands, band -> {
+            for (int k = bandStarts[band]; k < bandStarts[band + 1]; k++) {
+                int i = order[k];
+                addPoint(xs[i], ys[i], argb);
+            }
+        }));
+    }
+
+    // Consecutive points joined by one-pixel lines. Each segment leaves out its last pixel,
+    // which the next segment starts on, so joints are not blended twice.
+    public void addPolyline(double[] xs, double[] ys, int count, int argb) {
+        if (count < MIN_PARALLEL_ITEMS || bands == 1) {
+            for (int i = 1; i < count; i++) {
+                addSegment(xs[i - 1], ys[i - 1], xs[i], ys[i], argb, 0, height);
+            }
+            return;
+        }
+        pool.invoke(new BandTask(0, bands, band -> {
+            int top = band * bandHeight;
+            int bottom = Math.min(height, top + bandHeight);
+            for (int i = 1; i < count; i++) {
+                double y0 = ys[i - 1];
+                double y1 = ys[i];
+                if (Math.max(y0, y1) >= top && Math.min(y0, y1) < bottom) {
+                    addSegment(xs[i - 1], y0, xs[i], y1, argb, top, bottom);
+                }
+            }
+        }));
+    }
+
+    // Many short polylines stored with a fixed stride: polyline i has lengths[i] points
+    // starting at i * stride. Large batches run in parallel over bands like addPolyline().
+    public void addPolylines(double[] xs, double[] ys, int stride, int[] lengths, int count, int argb) {
+        if (count * stride < MIN_PARALLEL_ITEMS || bands == 1) {
+            for (int p = 0; p < count; p++) {
+                int start = p * stride;
+                for (int i = start + 1; i < start + lengths[p]; i++) {
+                    addSegment(xs[i - 1], ys[i - 1], xs[i], ys[i], argb, 0, height);
+                }
+            }
+            return;
+        }
+        pool.invoke(new BandTask(0, bands, band -> {
+            int top = band * bandHeight;
+            int bottom = Math.min(height, top + bandHeight);
+            for (int p = 0; p < count; p++) {
+                int start = p * stride;
+                for (int i = start + 1; i < start + lengths[p]; i++) {
+                    double y0 = ys[i - 1];
+                    double y1 = ys[i];
+                    if (Math.max(y0, y1) >= top && Math.min(y0, y1) < bottom) {
+                        addSegment(xs[i - 1], y0, xs[i], y1, argb, top, bottom);
+                    }
+                }
+            }
+        }));
+    }
+
+    // DDA along the major axis, writing only rows in [top, bottom). The segment is first
+    // clipped to the visible columns and those rows, so long lines running off the image
+    // cost only their visible part.
+    private void addSegment(double x0, double y0, double x1, double y1, int argb, int top, int bottom) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double enter = 0;
+        double exit = 1;
+        if (dx != 0) {
+            double a = -x0 / dx;
+            double b = (width - x0) / dx;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        } else if (x0 < 0 || x0 >= width) {
+            return;
+        }
+        if (dy != 0) {
+            double a = (top - y0) / dy;
+            double b = (bottom - y0) / dy;
+            enter = Math.max(enter, Math.min(a, b));
+            exit = Math.min(exit, Math.max(a, b));
+        } else if (y0 < top || y0 >= bottom) {
+            return;
+        }
+        if (enter >= exit) {
+            return;
+        }
+        if (enter > 0 || exit < 1) {
+            x1 = x0 + exit * dx;
+            y1 = y0 + exit * dy;
+            x0 += enter * dx;
+            y0 += enter * dy;
+            dx = x1 - x0;
+            dy = y1 - y0;
+        }
+        int steps = (int) Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)));
+        if (steps == 0) {
+            return;
+        }
+        double stepX = dx / steps;
+        double stepY = dy / steps;
+        double x = x0;
+        double y = y0;
+        for (int s = 0; s < steps; s++) {
+            int px = (int) Math.floor(x);
+            int py = (int) Math.floor(y);
+            if (px >= 0 && px < width && py >= top && py < bottom) {
+                int index = py * width + px;
+                pixels[index] = add(pixels[index], argb);
+            }
+            x += stepX;
+            y += stepY;
+        }
+    }
+
+    // pixels[i] = palette[min(values[i], palette.length - 1)], in parallel over bands
+    public void applyPalette(int[] values, int[] palette) {
+        int last = palette.length - 1;
+        if (pixels.length < MIN_PARALLEL_ITEMS || bands == 1) {
+            for (int i = 0; i < pixels.length; i++) {
+                pixels[i] = palette[Math.min(values[i], last)];
+            }
+            return;
+        }
+        pool.invoke(new BandTask(0, bands, band -> {
+            int from = band * bandHeight * width;
+            int to = Math.min(height, (band + 1) * bandHeight) * width;
+            for (int i = from; i < to; i++) {
+                pixels[i] = palette[Math.min(values[i], last)];
+            }
+        }));
+    }
+
+    private int bandOf(double y) {
+        int py = (int) Math.floor(y);
+        return py >= 0 && py < height ? py / bandHeight : -1;
+    }
+
+    public static int premultiplied(Color color) {
+        double alpha = color.getOpacity();
+        return ((int) Math.round(alpha * 255) << 24)
+            | ((int) Math.round(color.getRed() * alpha * 255) << 16)
+            | ((int) Math.round(color.getGreen() * alpha * 255) << 8)
+            | (int) Math.round(color.getBlue() * alpha * 255);
+    }
+
+    // Per-channel saturating sum of two premultiplied ARGB values
+    static int add(int a, int b) {
+        int alpha = Math.min(255, (a >>> 24) + (b >>> 24));
+        int red = Math.min(255, ((a >>> 16) & 0xff) + ((b >>> 16) & 0xff));
+        int green = Math.min(255, ((a >>> 8) & 0xff) + ((b >>> 8) & 0xff));
+        int blue = Math.min(255, (a & 0xff) + (b & 0xff));
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    private interface BandWork {
+        void run(int band);
+    }
+
+    private static class BandTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final BandWork work;
+
+        BandTask(int from, int to, BandWork work) {
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                work.run(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BandTask(from, mid, work), new BandTask(mid, to, work));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.physicalapp.simulation;
+
+import com.physicalapp.physics.DoublePendulumEnsemble;
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.ParameterSchemas.Ensemble;
+import com.physicalapp.render.Framebuffer;
+import javafx.scene.canvas.GraphicsContext;
+import java.util.Arrays;
+
+public class DoublePendulumEnsembleSimulation implements PhysicsSimulation {
+    private static final double PIXELS_PER_METER = 100;
+    private static final double MAX_STEP = 1.0 / 120;
+    private static final double MAX_FRAME_TIME = 0.05;
+    private static final int PALETTE_SIZE = 1024;
+
+    private final DoublePendulumEnsemble ensemble = new DoublePendulumEnsemble();
+    private final int[] palette = buildPalette();
+    
+    private int count = 100_000;
+    private double angle1 = 120;      // degrees
+    private double angle2 = 120;      // degrees
+    private double spread = 0.01;     // degrees between first and last pendulum
+    private boolean resetPending = true;
+    
+    // Density map, reused while the canvas keeps its size
+    private Framebuffer framebuffer;
+    private int[] counts;
+    
+    @Override
+    public void update(double deltaTime) {
+        if (resetPending) {
+            ensemble.initialize(count, Math.toRadians(angle1), Math.toRadians(angle2), Math.toRadians(spread));
+            resetPending = false;
+        }
+        
+        deltaTime = Math.min(deltaTime, MAX_FRAME_TIME);
+        if (deltaTime > 0) {
+            int substeps = (int) Math.ceil(deltaTime / MAX_STEP);
+            ensemble.step(deltaTime / substeps, substeps);
+        }
+    }
+    
+    @Override
+    public void draw(GraphicsContext gc) {
+        int width = (int) gc.getCanvas().getWidth();
+        int height = (int) gc.getCanvas().getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        
+        if (framebuffer == null || framebuffer.getWidth() != width || framebuffer.getHeight() != height) {
+            framebuffer = new Framebuffer(width, height);
+            counts = new int[width * height];
+            ensemble.setDensityGrid(width, height, width / 2.0, height / 3.0, PIXELS_PER_METER);
+        }
+        
+        Arrays.fill(counts, 0);
+        ensemble.accumulateDensity(counts);
+        framebuffer.applyPalette(counts, palette);
+        gc.drawImage(framebuffer.present(), 0, 0);
+    }
+    
+    @Override
+    public ParameterSchema getSchema() {
+        return Ensemble.SCHEMA;
+    }
+    
+    @Override
+    public void updateParameter(int index, double value) {
+        switch (index) {
+            case Ensemble.COUNT -> {
+                count = Math.max(1, (int) Math.round(value * 1000));
+                resetPending = true;
+            }
+            case Ensemble.ANGLE1 -> {
+                angle1 = value;
+                resetPending = true;
+            }
+            case Ensemble.ANGLE2 -> {
+                angle2 = value;
+                resetPending = true;
+            }
+            case Ensemble.SPREAD -> {
+                spread = value;
+                resetPending = true;
+            }
+            case Ensemble.LENGTH1 -> ensemble.setLength1(value);
+            case Ensemble.LENGTH2 -> ensemble.setLength2(value);
+            case Ensemble.MASS1 -> ensemble.setMass1(value);
+            case Ensemble.MASS2 -> ensemble.setMass2(value);
+        }
+    }
+    
+    // Premultiplied ARGB colours for bob counts per pixel, log-scaled from blue to red.
+    private static int[] buildPalette() {
+        int[] palette = new int[PALETTE_SIZE];
+        double maxLevel = Math.log(PALETTE_SIZE);
+        for (int c = 1; c < PALETTE_SIZE; c++) {
+            double level = Math.log(1 + c) / maxLevel;
+            double alpha = Math.min(1, 0.35 + level);
+            double r = (0x34 + (0xe7 - 0x34) * level) * alpha;
+            double g = (0x98 + (0x4c - 0x98) * level) * alpha;
+            double b = (0xdb + (0x3c - 0xdb) * level) * alpha;
+            palette[c] = ((int) (alpha * 255) << 24) | ((int) r << 16) | ((int) g << 8) | (int) b;
+        }
+        return palette;
+    }
+}
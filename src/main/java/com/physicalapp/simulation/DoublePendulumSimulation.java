@@ -1,69 +1,42 @@
 package com.physicalapp.simulation;
 
+import com.physicalapp.physics.DoublePendulumModel;
+import com.physicalapp.physics.ParameterSchema;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
-import java.util.ArrayList;
-import java.util.List;
 
 public class DoublePendulumSimulation implements PhysicsSimulation {
-    // Physics constants
-    private double g = 9.81;          // gravity
-    private double length1 = 120;     // length of first pendulum arm
-    private double length2 = 120;     // length of second pendulum arm
-    private double mass1 = 10;        // mass of first bob
-    private double mass2 = 10;        // mass of second bob
-
-    // State variables
-    private double angle1 = Math.PI / 4;    // initial angle of first pendulum (45 degrees)
-    private double angle2 = Math.PI / 2;    // initial angle of second pendulum (90 degrees)
-    private double angleVelocity1 = 0;      // angular velocity of first pendulum
-    private double angleVelocity2 = 0;      // angular velocity of second pendulum
+    private final DoublePendulumModel model = new DoublePendulumModel();
+    
+    // The arms are 120 units long in pixel scale, which swings slowly under g = 9.81;
+    // simulated time runs twice as fast as wall time to compensate.
+    private static final double TIME_SCALE = 2.0;
+    private static final double MAX_FRAME_TIME = 0.25;
     
     // Trail effect
-    private List<Point> trail = new ArrayList<>();
-    private static final int MAX_TRAIL_LENGTH = 50;
+    private static final int DEFAULT_TRAIL_CAPACITY = 100_000;
+    private static final Color TRAIL_COLOR = Color.rgb(0, 150, 255, 0.2);
+    private final TrailLayer trail;
     
-    private static class Point {
-        double x, y;
-        Point(double x, double y) {
-            this.x = x;
-            this.y = y;
-        }
+    public DoublePendulumSimulation() {
+        this(DEFAULT_TRAIL_CAPACITY);
+    }
+    
+    public DoublePendulumSimulation(int trailCapacity) {
+        trail = new TrailLayer(trailCapacity, TRAIL_COLOR);
+        
+        model.setLength1(120);
+        model.setLength2(120);
+        model.setMass1(10);
+        model.setMass2(10);
     }
     
     @Override
     public void update(double deltaTime) {
-
-        deltaTime = Math.min(deltaTime, 0.016); // Max 16ms (roughly 60 FPS)
-        
-
-        double scaleFactor = 2.0;
+        // Only guards against stalls; the adaptive integrator keeps long frames accurate
+        deltaTime = Math.min(deltaTime, MAX_FRAME_TIME);
         
-
-        double num1 = -g * (2 * mass1 + mass2) * Math.sin(angle1);
-        double num2 = -mass2 * g * Math.sin(angle1 - 2 * angle2);
-        double num3 = -2 * Math.sin(angle1 - angle2) * mass2;
-        double num4 = angleVelocity2 * angleVelocity2 * length2 
-                     + angleVelocity1 * angleVelocity1 * length1 * Math.cos(angle1 - angle2);
-        double den = length1 * (2 * mass1 + mass2 - mass2 * Math.cos(2 * angle1 - 2 * angle2));
-        double angleAcceleration1 = (num1 + num2 + num3 * num4) / den;
-
-        double num5 = 2 * Math.sin(angle1 - angle2);
-        double num6 = angleVelocity1 * angleVelocity1 * length1 * (mass1 + mass2);
-        double num7 = g * (mass1 + mass2) * Math.cos(angle1);
-        double num8 = angleVelocity2 * angleVelocity2 * length2 * mass2 * Math.cos(angle1 - angle2);
-        double den2 = length2 * (2 * mass1 + mass2 - mass2 * Math.cos(2 * angle1 - 2 * angle2));
-        double angleAcceleration2 = (num5 * (num6 + num7 + num8)) / den2;
-
-
-        angleVelocity1 += angleAcceleration1 * deltaTime * scaleFactor;
-        angleVelocity2 += angleAcceleration2 * deltaTime * scaleFactor;
-        angle1 += angleVelocity1 * deltaTime * scaleFactor;
-        angle2 += angleVelocity2 * deltaTime * scaleFactor;
-
-
-        angleVelocity1 *= 0.9999;
-        angleVelocity2 *= 0.9999;
+        model.step(deltaTime * TIME_SCALE);
     }
     
     @Override
@@ -78,6 +51,10 @@ public class DoublePendulumSimulation implements PhysicsSimulation {
 
         double originX = width / 2;
         double originY = height / 3;
+        double length1 = model.getLength1();
+        double length2 = model.getLength2();
+        double angle1 = model.getAngle1();
+        double angle2 = model.getAngle2();
         
 
         double x1 = originX + length1 * Math.sin(angle1);
@@ -86,20 +63,10 @@ public class DoublePendulumSimulation implements PhysicsSimulation {
         double y2 = y1 + length2 * Math.cos(angle2);
         
 
-        gc.setStroke(Color.rgb(0, 150, 255, 0.2));
-        gc.beginPath();
-        for (int i = 0; i < trail.size() - 1; i++) {
-            Point p1 = trail.get(i);
-            Point p2 = trail.get(i + 1);
-            gc.strokeLine(p1.x, p1.y, p2.x, p2.y);
-        }
-        gc.stroke();
+        trail.draw(gc);
         
 
-        trail.add(new Point(x2, y2));
-        if (trail.size() > MAX_TRAIL_LENGTH) {
-            trail.remove(0);
-        }
+        trail.add(x2, y2);
         
 
         gc.setStroke(Color.BLACK);
@@ -115,29 +82,13 @@ public class DoublePendulumSimulation implements PhysicsSimulation {
     }
     
     @Override
-    public void updateParameter(String paramName, double value) {
-        switch (paramName) {
-            case "length1":
-                length1 = value;
-                break;
-            case "length2":
-                length2 = value;
-                break;
-            case "mass1":
-                mass1 = value;
-                break;
-            case "mass2":
-                mass2 = value;
-                break;
-            case "gravity":
-                g = value;
-                break;
-            case "angle1":
-                angle1 = value;
-                break;
-            case "angle2":
-                angle2 = value;
-                break;
-        }
+    public ParameterSchema getSchema() {
+        return model.getSchema();
+    }
+    
+    // Lengths are in canvas pixels here; angles in degrees, as everywhere in the schema.
+    @Override
+    public void updateParameter(int index, double value) {
+        model.setParameter(index, value);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,111 @@
+package com.physicalapp.simulation;
+
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.ParameterSchemas.FlipMap;
+import com.physicalapp.physics.chaos.FlipTimeMap;
+import com.physicalapp.render.Framebuffer;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+// Shows a FlipTimeMap as a square image in the middle of the canvas. The map is computed on
+// its own pool at minimum priority while frames only turn the codes written so far into
+// colours, so the picture sharpens level by level without holding up the frame pulse. Any
+// parameter change restarts the map; the stale one is cancelled at once.
+public class FlipMapSimulation implements PhysicsSimulation {
+    private static final int PALETTE_SIZE = FlipTimeMap.FIRST_BUCKET + FlipTimeMap.BUCKETS;
+
+    private final FlipTimeMap map = new FlipTimeMap(createPool());
+    private final int[] palette = buildPalette();
+
+    private double length1 = 1.0;
+    private double length2 = 1.0;
+    private double mass1 = 1.0;
+    private double mass2 = 1.0;
+    private double maxTime = 10.0;
+    private boolean restartPending = true;
+
+    private Framebuffer framebuffer;
+    private Image image;
+    private int[] codes;
+    private boolean shownComplete;
+
+    private static ForkJoinPool createPool() {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("flip-map-worker-" + worker.getPoolIndex());
+            worker.setPriority(Thread.MIN_PRIORITY);
+            return worker;
+        }, null, false);
+    }
+
+    @Override
+    public void update(double deltaTime) {
+    }
+
+    @Override
+    public void draw(GraphicsContext gc) {
+        double canvasWidth = gc.getCanvas().getWidth();
+        double canvasHeight = gc.getCanvas().getHeight();
+        int size = (int) Math.min(canvasWidth, canvasHeight);
+        if (size <= 0) {
+            return;
+        }
+
+        if (framebuffer == null || framebuffer.getWidth() != size) {
+            framebuffer = new Framebuffer(size, size);
+            restartPending = true;
+        }
+        if (restartPending) {
+            codes = map.start(size, size, length1, length2, mass1, mass2, maxTime);
+            restartPending = false;
+            shownComplete = false;
+        }
+
+        // Recolour while levels are still arriving and once more after the last one
+        if (!shownComplete) {
+            shownComplete = map.getCompletedLevels() == FlipTimeMap.getLevelCount();
+            framebuffer.applyPalette(codes, palette);
+            image = framebuffer.present();
+        }
+        gc.drawImage(image, (canvasWidth - size) / 2, (canvasHeight - size) / 2);
+    }
+
+    @Override
+    public ParameterSchema getSchema() {
+        return FlipMap.SCHEMA;
+    }
+
+    @Override
+    public void updateParameter(int index, double value) {
+        switch (index) {
+            case FlipMap.LENGTH1 -> length1 = value;
+            case FlipMap.LENGTH2 -> length2 = value;
+            case FlipMap.MASS1 -> mass1 = value;
+            case FlipMap.MASS2 -> mass2 = value;
+            case FlipMap.MAX_TIME -> maxTime = value;
+        }
+        restartPending = true;
+    }
+
+    @Override
+    public void stop() {
+        map.cancel();
+        restartPending = true;
+    }
+
+    // Premultiplied ARGB per code: unknown pixels stay transparent, flip times run from red
+    // for the fastest through the spectrum to blue for the slowest.
+    private static int[] buildPalette() {
+        int[] palette = new int[PALETTE_SIZE];
+        palette[FlipTimeMap.CANNOT_FLIP] = Framebuffer.premultiplied(Color.web("#2c3e50"));
+        palette[FlipTimeMap.NO_FLIP] = Framebuffer.premultiplied(Color.BLACK);
+        for (int b = 0; b < FlipTimeMap.BUCKETS; b++) {
+            double level = (double) b / (FlipTimeMap.BUCKETS - 1);
+            palette[FlipTimeMap.FIRST_BUCKET + b] = Framebuffer.premultiplied(Color.hsb(240 * level, 0.75, 0.9));
+        }
+        return palette;
+    }
+}
@@ -0,0 +1,344 @@
+package com.physicalapp.simulation;
+
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.ParameterSchemas.MirrorReflection;
+import com.physicalapp.physics.optics.MirrorScene;
+import com.physicalapp.physics.optics.RayTracer;
+import com.physicalapp.render.Framebuffer;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+// A parallel beam sent up into one mirror (flat, concave or convex spherical, parabolic),
+// optionally between two flat side walls for multiple reflections. Nothing moves, so the
+// beam is traced again only when a parameter or the canvas size changes. Up to VECTOR_RAYS
+// rays are traced on the spot and stroked as lines.
+//
+// Denser beams take far longer than a frame, so they are traced and rasterized on their own
+// pool at minimum priority while the frames keep showing the previous image. Every change
+// moves the generation on, which cancels the running trace before its next ray; the FX
+// thread swaps in a finished image only if nothing changed since it was started.
+public class MirrorReflectionSimulation implements PhysicsSimulation {
+    private static final double MIRROR_HALF_WIDTH = 100;
+    private static final double CURVE_HALF_ANGLE = Math.PI / 3;
+    private static final double WALL_MARGIN = 40;
+    private static final double ESCAPE_LENGTH = 2000;
+    private static final int OUTLINE_POINTS = 128;
+    private static final int VECTOR_RAYS = 64;
+    private static final int ANNOTATED_RAYS = 10;
+    private static final double[] DASHES = {5};
+    private static final BooleanSupplier NOT_CANCELLED = () -> false;
+
+    private final double[] parameters = MirrorReflection.SCHEMA.createDefaults();
+    // Traced on the FX thread; its scene also provides the mirror outlines
+    private final Beam vectorBeam = new Beam(ForkJoinPool.commonPool());
+    private final double[] outlineXs = new double[OUTLINE_POINTS];
+    private final double[] outlineYs = new double[OUTLINE_POINTS];
+    private double[] rayXs = new double[0];
+    private double[] rayYs = new double[0];
+
+    private final ForkJoinPool pool = createPool();
+    private final AtomicLong generation = new AtomicLong();
+    private final ConcurrentLinkedQueue<Beam> freeBeams = new ConcurrentLinkedQueue<>();
+    private volatile Beam finished;
+    private Beam shown;
+    private Image rayImage;
+    private boolean dense;
+    private boolean dirty = true;
+    private double width;
+    private double height;
+
+    private static ForkJoinPool createPool() {
+        return new ForkJoinPool(Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("mirror-trace-worker-" + worker.getPoolIndex());
+            worker.setPriority(Thread.MIN_PRIORITY);
+            return worker;
+        }, null, false);
+    }
+
+    @Override
+    public void update(double deltaTime) {
+    }
+
+    @Override
+    public void drawBackground(GraphicsContext gc) {
+        prepare(gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
+        double centerX = width / 2;
+        double centerY = height / 2;
+        double focalLength = 100 / parameters[MirrorReflection.CURVATURE];
+
+        gc.setStroke(Color.LIGHTGRAY);
+        gc.strokeLine(0, centerY, width, centerY);  // Ось X
+        gc.strokeLine(centerX, 0, centerX, height); // Ось Y
+
+        gc.setStroke(Color.BLUE);
+        gc.setLineWidth(3);
+        MirrorScene scene = vectorBeam.scene;
+        for (int m = 0; m < scene.getMirrorCount(); m++) {
+            scene.outline(m, OUTLINE_POINTS, outlineXs, outlineYs);
+            gc.strokePolyline(outlineXs, outlineYs, OUTLINE_POINTS);
+        }
+
+        switch (mirrorType(parameters)) {
+            case 0 -> {
+                // Нормаль к плоскому зеркалу
+                gc.setStroke(Color.GREEN);
+                gc.setLineDashes(DASHES);
+                gc.strokeLine(centerX, centerY - 50, centerX, centerY + 50);
+                gc.setLineDashes(null);
+            }
+            case 1, 3 -> {
+                gc.setFill(Color.RED);
+                gc.fillOval(centerX - 5, centerY + focalLength - 5, 10, 10);
+                gc.strokeText("F", centerX + 10, centerY + focalLength);
+            }
+            case 2 -> {
+                // Мнимый фокус за зеркалом
+                gc.setStroke(Color.RED);
+                gc.setLineDashes(DASHES);
+                gc.strokeOval(centerX - 5, centerY - focalLength - 5, 10, 10);
+                gc.setLineDashes(null);
+                gc.strokeText("F", centerX + 10, centerY - focalLength);
+            }
+        }
+    }
+
+    @Override
+    public void draw(GraphicsContext gc) {
+        prepare(gc.getCanvas().getWidth(), gc.getCanvas().getHeight());
+        if (dense) {
+            Beam done = finished;
+            if (done != null && done != shown && done.id == generation.get()) {
+                if (shown != null) {
+                    freeBeams.add(shown);
+                }
+                shown = done;
+                rayImage = done.framebuffer.present();
+            }
+            if (rayImage != null) {
+                gc.drawImage(rayImage, 0, 0);
+            }
+            return;
+        }
+
+        RayTracer tracer = vectorBeam.tracer;
+        int rays = tracer.getRayCount();
+        int stride = tracer.getStride();
+        if (rayXs.length < stride) {
+            rayXs = new double[stride];
+            rayYs = new double[stride];
+        }
+        for (int i = 0; i < rays; i++) {
+            int length = tracer.getPathLength(i);
+            System.arraycopy(tracer.getPathXs(), i * stride, rayXs, 0, length);
+            System.arraycopy(tracer.getPathYs(), i * stride, rayYs, 0, length);
+            gc.setStroke(Color.GOLD);
+            gc.setLineWidth(2);
+            gc.strokePolyline(rayXs, rayYs, length);
+            if (rays <= ANNOTATED_RAYS && length >= 3) {
+                annotateFirstReflection(gc);
+            }
+        }
+    }
+
+    // Arrows on the incident and reflected ray and the normal at the first mirror hit
+    private void annotateFirstReflection(GraphicsContext gc) {
+        double hitX = rayXs[1];
+        double hitY = rayYs[1];
+        double incident = Math.atan2(hitY - rayYs[0], hitX - rayXs[0]);
+        double reflected = Math.atan2(rayYs[2] - hitY, rayXs[2] - hitX);
+        drawArrow(gc, hitX - 20 * Math.cos(incident), hitY - 20 * Math.sin(incident), incident);
+        drawArrow(gc, hitX + 20 * Math.cos(reflected), hitY + 20 * Math.sin(reflected), reflected);
+
+        // The normal bisects the reversed incident and the reflected direction
+        double nx = Math.cos(reflected) - Math.cos(incident);
+        double ny = Math.sin(reflected) - Math.sin(incident);
+        double length = Math.sqrt(nx * nx + ny * ny);
+        if (length < 1e-9) {
+            return;
+        }
+        nx *= 30 / length;
+        ny *= 30 / length;
+        gc.setStroke(Color.GREEN);
+        gc.setLineDashes(DASHES);
+        gc.strokeLine(hitX - nx, hitY - ny, hitX + nx, hitY + ny);
+        gc.setLineDashes(null);
+    }
+
+    private static void drawArrow(GraphicsContext gc, double x, double y, double angle) {
+        double arrowSize = 10;
+        double arrowAngle = Math.PI / 6;
+
+        gc.strokeLine(x, y,
+                     x - arrowSize * Math.cos(angle + arrowAngle),
+                     y - arrowSize * Math.sin(angle + arrowAngle));
+        gc.strokeLine(x, y,
+                     x - arrowSize * Math.cos(angle - arrowAngle),
+                     y - arrowSize * Math.sin(angle - arrowAngle));
+    }
+
+    private static int mirrorType(double[] parameters) {
+        return (int) Math.round(parameters[MirrorReflection.MIRROR_TYPE]);
+    }
+
+    // Rebuilds the scene after a parameter or size change and traces the beam, or hands a
+    // dense one to the pool
+    private void prepare(double canvasWidth, double canvasHeight) {
+        if (!dirty && canvasWidth == width && canvasHeight == height) {
+            return;
+        }
+        width = canvasWidth;
+        height = canvasHeight;
+        dirty = false;
+        long id = generation.incrementAndGet();
+
+        vectorBeam.setUp(parameters, width, height);
+        dense = vectorBeam.rays > VECTOR_RAYS;
+        if (!dense) {
+            vectorBeam.trace(NOT_CANCELLED);
+            return;
+        }
+
+        Beam polled = freeBeams.poll();
+        Beam beam = polled != null ? polled : new Beam(pool);
+        beam.id = id;
+        double[] snapshot = parameters.clone();
+        double beamWidth = width;
+        double beamHeight = height;
+        BooleanSupplier cancelled = () -> generation.get() != id;
+        pool.execute(() -> {
+            beam.setUp(snapshot, beamWidth, beamHeight);
+            beam.trace(cancelled);
+            if (!cancelled.getAsBoolean() && beam.rasterize((int) beamWidth, (int) beamHeight)
+                    && !cancelled.getAsBoolean()) {
+                finished = beam;
+            } else {
+                freeBeams.add(beam);
+            }
+        });
+    }
+
+    private static void buildScene(MirrorScene scene, double[] parameters, double width, double height) {
+        double centerX = width / 2;
+        double centerY = height / 2;
+        double radius = 200 / parameters[MirrorReflection.CURVATURE];
+
+        scene.clear();
+        switch (mirrorType(parameters)) {
+            case 0 -> scene.addFlat(centerX - MIRROR_HALF_WIDTH, centerY, centerX + MIRROR_HALF_WIDTH, centerY);
+            case 1 -> scene.addArc(centerX, centerY + radius, radius,
+                                   -Math.PI / 2 - CURVE_HALF_ANGLE, -Math.PI / 2 + CURVE_HALF_ANGLE);
+            case 2 -> scene.addArc(centerX, centerY - radius, radius,
+                                   Math.PI / 2 - CURVE_HALF_ANGLE, Math.PI / 2 + CURVE_HALF_ANGLE);
+            case 3 -> {
+                double halfWidth = radius * Math.sin(CURVE_HALF_ANGLE);
+                scene.addParabola(centerX, centerY, 0, 1, radius / 2, -halfWidth, halfWidth);
+            }
+        }
+        if (Math.round(parameters[MirrorReflection.BOUNCES]) > 1) {
+            scene.addFlat(WALL_MARGIN, WALL_MARGIN, WALL_MARGIN, height - WALL_MARGIN);
+            scene.addFlat(width - WALL_MARGIN, WALL_MARGIN, width - WALL_MARGIN, height - WALL_MARGIN);
+        }
+    }
+
+    // Scene, rays and raster of one traced beam. Background beams are owned by one job at a
+    // time and recycled through freeBeams once they are neither running nor shown.
+    private static final class Beam {
+        final MirrorScene scene = new MirrorScene();
+        final RayTracer tracer;
+        final ForkJoinPool pool;
+        double[] originXs = new double[0];
+        double[] originYs = new double[0];
+        double[] directionXs = new double[0];
+        double[] directionYs = new double[0];
+        int[] rayLengths = new int[0];
+        Framebuffer framebuffer;
+        int rays;
+        int bounces;
+        long id;
+
+        Beam(ForkJoinPool pool) {
+            this.pool = pool;
+            tracer = new RayTracer(pool);
+        }
+
+        void setUp(double[] parameters, double width, double height) {
+            buildScene(scene, parameters, width, height);
+
+            rays = Math.max(1, (int) Math.round(parameters[MirrorReflection.RAYS]));
+            bounces = Math.max(1, (int) Math.round(parameters[MirrorReflection.BOUNCES]));
+            if (originXs.length < rays) {
+                originXs = new double[rays];
+                originYs = new double[rays];
+                directionXs = new double[rays];
+                directionYs = new double[rays];
+            }
+            // Parallel rays at the incidence angle from the axis, coming up from below the mirror
+            double angle = Math.toRadians(parameters[MirrorReflection.ANGLE]);
+            double dx = Math.sin(angle);
+            double dy = -Math.cos(angle);
+            double distance = height / 2 + 50;
+            for (int i = 0; i < rays; i++) {
+                double offset = MIRROR_HALF_WIDTH * (2 * (i + 0.5) / rays - 1);
+                originXs[i] = width / 2 - distance * dx - offset * dy;
+                originYs[i] = height / 2 - distance * dy + offset * dx;
+                directionXs[i] = dx;
+                directionYs[i] = dy;
+            }
+        }
+
+        void trace(BooleanSupplier cancelled) {
+            tracer.trace(scene, originXs, originYs, directionXs, directionYs, rays, bounces, ESCAPE_LENGTH,
+                         cancelled);
+        }
+
+        // Additive, so brightness shows how many rays cross a pixel. Leaves presenting the
+        // pixels to the FX thread.
+        boolean rasterize(int pixelWidth, int pixelHeight) {
+            if (pixelWidth <= 0 || pixelHeight <= 0) {
+                return false;
+            }
+            if (framebuffer == null || framebuffer.getWidth() != pixelWidth
+                    || framebuffer.getHeight() != pixelHeight) {
+                framebuffer = new Framebuffer(pixelWidth, pixelHeight, pool);
+            }
+            if (rayLengths.length < rays) {
+                rayLengths = new int[rays];
+            }
+            for (int i = 0; i < rays; i++) {
+                rayLengths[i] = tracer.getPathLength(i);
+            }
+            double opacity = Math.max(1.0 / 255, Math.min(1, 2.0 * VECTOR_RAYS / rays));
+            Color gold = Color.GOLD;
+            int argb = Framebuffer.premultiplied(Color.color(gold.getRed(), gold.getGreen(), gold.getBlue(), opacity));
+
+            framebuffer.clear(0);
+            framebuffer.addPolylines(tracer.getPathXs(), tracer.getPathYs(), tracer.getStride(), rayLengths, rays,
+                                     argb);
+            return true;
+        }
+    }
+
+    @Override
+    public ParameterSchema getSchema() {
+        return MirrorReflection.SCHEMA;
+    }
+
+    @Override
+    public void updateParameter(int index, double value) {
+        parameters[index] = value;
+        dirty = true;
+    }
+
+    @Override
+    public void stop() {
+        generation.incrementAndGet();
+        dirty = true;
+    }
+}
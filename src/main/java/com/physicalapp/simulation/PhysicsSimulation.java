@@ -1,9 +1,27 @@
 package com.physicalapp.simulation;
 
+import com.physicalapp.physics.ParameterSchema;
 import javafx.scene.canvas.GraphicsContext;
 
 public interface PhysicsSimulation {
     void update(double deltaTime);
     void draw(GraphicsContext gc);
-    void updateParameter(String paramName, double value);
-} 
\ No newline at end of file
+    ParameterSchema getSchema();
+    void updateParameter(int index, double value);
+
+    default void updateParameter(String paramName, double value) {
+        int index = getSchema().indexOf(paramName);
+        if (index >= 0) {
+            updateParameter(index, value);
+        }
+    }
+
+    // Content that changes only with the parameters or the canvas size, drawn onto the
+    // retained layer under draw()
+    default void drawBackground(GraphicsContext gc) {
+    }
+
+    // Stops background work; the next update() or draw() may start it again
+    default void stop() {
+    }
+}
@@ -1,5 +1,7 @@
 package com.physicalapp.simulation;
 
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.ParameterSchemas.SpringOscillator;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
@@ -19,7 +21,12 @@ public class SpringOscillatorSimulation implements PhysicsSimulation {
     }
     
     @Override
-    public void updateParameter(String paramName, double value) {
+    public ParameterSchema getSchema() {
+        return SpringOscillator.SCHEMA;
+    }
+    
+    @Override
+    public void updateParameter(int index, double value) {
 
     }
 } 
\ No newline at end of file
@@ -1,25 +1,80 @@
 package com.physicalapp.simulation;
 
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.ParameterSchemas.StandingWaves;
+import com.physicalapp.physics.wave.StandingWaveModel;
+import com.physicalapp.render.CurvePath;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
 
 public class StandingWaveSimulation implements PhysicsSimulation {
+    private static final double PIXELS_PER_UNIT = 100;
+    private static final LinearGradient STRING_GRADIENT = new LinearGradient(
+        0, 0, 0, 1,
+        true, CycleMethod.NO_CYCLE,
+        new Stop(0, Color.web("#3498db")), new Stop(1, Color.web("#2980b9"))
+    );
 
+    private final StandingWaveModel model = new StandingWaveModel();
+    private int nodes = 3;
+    private int modes = 1;
+    private double time;
+    private double[] ys = new double[0];
+    private final CurvePath curve = new CurvePath();
+    
+    public StandingWaveSimulation() {
+        model.setModes(nodes, modes);
+    }
     
     @Override
     public void update(double deltaTime) {
-
+        time += deltaTime;
     }
     
     @Override
     public void draw(GraphicsContext gc) {
-
-        gc.setFill(Color.BLACK);
-        gc.fillText("Standing Wave Simulation (Not Implemented)", 10, 20);
+        int width = (int) gc.getCanvas().getWidth();
+        if (width <= 0) {
+            return;
+        }
+        if (ys.length != width + 1) {
+            ys = new double[width + 1];
+        }
+        model.setSampling(width + 1, width);
+        model.evaluate(time, ys, 0);
+        
+        double centerY = gc.getCanvas().getHeight() / 2;
+        for (int i = 0; i <= width; i++) {
+            ys[i] = centerY + ys[i] * PIXELS_PER_UNIT;
+        }
+        
+        gc.setStroke(STRING_GRADIENT);
+        gc.setLineWidth(3);
+        curve.setSamples(0, 1, ys, ys.length);
+        curve.stroke(gc);
     }
     
     @Override
-    public void updateParameter(String paramName, double value) {
-
+    public ParameterSchema getSchema() {
+        return StandingWaves.SCHEMA;
+    }
+    
+    @Override
+    public void updateParameter(int index, double value) {
+        switch (index) {
+            case StandingWaves.SPEED -> model.setSpeed(value);
+            case StandingWaves.AMPLITUDE -> model.setAmplitude(value);
+            case StandingWaves.NODES -> {
+                nodes = (int) value;
+                model.setModes(nodes, modes);
+            }
+            case StandingWaves.MODES -> {
+                modes = (int) Math.round(value);
+                model.setModes(nodes, modes);
+            }
+        }
     }
-} 
\ No newline at end of file
+}
@@ -1,25 +1,70 @@
 package com.physicalapp.simulation;
 
+import com.physicalapp.physics.ParameterSchema;
+import com.physicalapp.physics.ParameterSchemas.StringWave;
+import com.physicalapp.physics.wave.StringWaveModel;
+import com.physicalapp.render.CurvePath;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.scene.paint.CycleMethod;
+import javafx.scene.paint.LinearGradient;
+import javafx.scene.paint.Stop;
 
 public class StringWaveSimulation implements PhysicsSimulation {
+    private static final double PIXELS_PER_METER = 100;
+    private static final double MAX_FRAME_TIME = 0.05;
+    private static final LinearGradient STRING_GRADIENT = new LinearGradient(
+        0, 0, 0, 1,
+        true, CycleMethod.NO_CYCLE,
+        new Stop(0, Color.web("#3498db")), new Stop(1, Color.web("#2980b9"))
+    );
 
+    // One node per pixel; created on the first frame once the canvas width is known
+    private StringWaveModel model;
+    private final double[] parameters = StringWave.SCHEMA.createDefaults();
+    private double[] ys;
+    private final CurvePath curve = new CurvePath();
     
     @Override
     public void update(double deltaTime) {
-
+        if (model != null) {
+            model.step(Math.min(deltaTime, MAX_FRAME_TIME));
+        }
     }
     
     @Override
     public void draw(GraphicsContext gc) {
-
-        gc.setFill(Color.BLACK);
-        gc.fillText("String Wave Simulation (Not Implemented)", 10, 20);
+        int width = (int) gc.getCanvas().getWidth();
+        if (width <= 0) {
+            return;
+        }
+        if (model == null || model.getNodes() != width + 1) {
+            model = new StringWaveModel(width + 1, 1 / PIXELS_PER_METER);
+            model.setParameters(parameters);
+            ys = new double[width + 1];
+        }
+        
+        double centerY = gc.getCanvas().getHeight() / 2;
+        for (int i = 0; i <= width; i++) {
+            ys[i] = centerY + model.getDisplacement(i) * PIXELS_PER_METER;
+        }
+        
+        gc.setStroke(STRING_GRADIENT);
+        gc.setLineWidth(3);
+        curve.setSamples(0, 1, ys, ys.length);
+        curve.stroke(gc);
     }
     
     @Override
-    public void updateParameter(String paramName, double value) {
-
+    public ParameterSchema getSchema() {
+        return StringWave.SCHEMA;
+    }
+    
+    @Override
+    public void updateParameter(int index, double value) {
+        parameters[index] = value;
+        if (model != null) {
+            model.setParameter(index, value);
+        }
     }
-} 
\ No newline at end of file
+}
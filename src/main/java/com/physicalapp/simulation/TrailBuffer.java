@@ -0,0 +1,94 @@
+package com.physicalapp.simulation;
+
+// Trail of 2D points in primitive ring buffers with progressive decimation: the newest
+// points are kept at full resolution, and each older level keeps every second point of
+// the level before it. Memory and drawing cost stay bounded by levelCapacity * levels
+// while the trail spans roughly levelCapacity * (2^levels - 1) added points.
+public class TrailBuffer {
+    private final int levelCapacity;
+    private final double[][] xs;
+    private final double[][] ys;
+    private final int[] heads;     // index of the oldest point of each level
+    private final int[] sizes;
+    private final boolean[] carry; // whether the next point evicted from a level moves down
+
+    public TrailBuffer(int capacity, int levelCapacity) {
+        if (capacity < 1 || levelCapacity < 2) {
+            throw new IllegalArgumentException("Invalid trail capacity: " + capacity + "/" + levelCapacity);
+        }
+        this.levelCapacity = Math.min(capacity, levelCapacity);
+        int levels = 1;
+        while ((long) this.levelCapacity * ((1L << levels) - 1) < capacity) {
+            levels++;
+        }
+        xs = new double[levels][this.levelCapacity];
+        ys = new double[levels][this.levelCapacity];
+        heads = new int[levels];
+        sizes = new int[levels];
+        carry = new boolean[levels];
+    }
+
+    public void add(double x, double y) {
+        for (int level = 0; level < xs.length; level++) {
+            if (sizes[level] < levelCapacity) {
+                int tail = (heads[level] + sizes[level]) % levelCapacity;
+                xs[level][tail] = x;
+                ys[level][tail] = y;
+                sizes[level]++;
+                return;
+            }
+
+            // Level is full: the new point replaces the oldest one, which may move down a level
+            int head = heads[level];
+            double evictedX = xs[level][head];
+            double evictedY = ys[level][head];
+            xs[level][head] = x;
+            ys[level][head] = y;
+            heads[level] = (head + 1) % levelCapacity;
+
+            carry[level] = !carry[level];
+            if (!carry[level]) {
+                return;
+            }
+            x = evictedX;
+            y = evictedY;
+        }
+    }
+
+    public void clear() {
+        for (int level = 0; level < xs.length; level++) {
+            heads[level] = 0;
+            sizes[level] = 0;
+            carry[level] = false;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int levelSize : sizes) {
+            size += levelSize;
+        }
+        return size;
+    }
+
+    // Upper bound of size(), for sizing the arrays passed to copyTo.
+    public int getMaxPoints() {
+        return levelCapacity * xs.length;
+    }
+
+    // Copies the points from oldest to newest into the given arrays and returns their count.
+    public int copyTo(double[] targetX, double[] targetY) {
+        int count = 0;
+        for (int level = xs.length - 1; level >= 0; level--) {
+            int head = heads[level];
+            int size = sizes[level];
+            int firstPart = Math.min(size, levelCapacity - head);
+            System.arraycopy(xs[level], head, targetX, count, firstPart);
+            System.arraycopy(ys[level], head, targetY, count, firstPart);
+            System.arraycopy(xs[level], 0, targetX, count + firstPart, size - firstPart);
+            System.arraycopy(ys[level], 0, targetY, count + firstPart, size - firstPart);
+            count += size;
+        }
+        return count;
+    }
+}
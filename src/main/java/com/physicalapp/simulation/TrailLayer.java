@@ -0,0 +1,62 @@
+package com.physicalapp.simulation;
+
+import com.physicalapp.render.Framebuffer;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+// Draws a TrailBuffer: short trails as one canvas polyline, long ones rasterized additively
+// into a pixel buffer, which keeps a dense trail at a single drawImage(). The decimated
+// trail never holds more than getMaxPoints(), so the raster takes over once the
+// full-resolution level is full. The copy arrays and the raster are reused, so once the
+// trail and the canvas size are stable a frame allocates nothing of its own.
+public class TrailLayer {
+    private static final int LEVEL_CAPACITY = 1024;
+
+    private final TrailBuffer trail;
+    private final double[] xs;
+    private final double[] ys;
+    private final Color color;
+    private final int argb;
+    private final int rasterPoints;
+    private Framebuffer raster;
+
+    public TrailLayer(int capacity, Color color) {
+        trail = new TrailBuffer(capacity, LEVEL_CAPACITY);
+        xs = new double[trail.getMaxPoints()];
+        ys = new double[trail.getMaxPoints()];
+        rasterPoints = Math.min(trail.getMaxPoints(), LEVEL_CAPACITY);
+        this.color = color;
+        argb = Framebuffer.premultiplied(color);
+    }
+
+    public void add(double x, double y) {
+        trail.add(x, y);
+    }
+
+    public void clear() {
+        trail.clear();
+    }
+
+    public void draw(GraphicsContext gc) {
+        int count = trail.copyTo(xs, ys);
+        if (count >= rasterPoints) {
+            drawRaster(gc, count, (int) gc.getCanvas().getWidth(), (int) gc.getCanvas().getHeight());
+        } else if (count > 1) {
+            gc.setStroke(color);
+            gc.setLineWidth(1);
+            gc.strokePolyline(xs, ys, count);
+        }
+    }
+
+    private void drawRaster(GraphicsContext gc, int count, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (raster == null || raster.getWidth() != width || raster.getHeight() != height) {
+            raster = new Framebuffer(width, height);
+        }
+        raster.clear(0);
+        raster.addPolyline(xs, ys, count, argb);
+        gc.drawImage(raster.present(), 0, 0);
+    }
+}
@@ -1,26 +1,44 @@
 package com.physicalapp.view;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Slider;
 import javafx.scene.control.TextArea;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.FileChooser;
+import javafx.util.Duration;
 import com.physicalapp.model.Phenomenon;
 import com.physicalapp.controller.SimulationController;
+import com.physicalapp.physics.chaos.LyapunovEstimator;
+import com.physicalapp.physics.record.TimeSeriesExporter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 
 public class SimulationWindow {
     private Canvas simulationCanvas;
+    private Canvas backgroundCanvas;
     private VBox parametersPanel;
     private TextArea descriptionView;
     private SimulationController controller;
     private VBox root;
+    private Timeline lyapunovRefresh;
+    private ToggleButton exportButton;
     
     private static final String FONT_FAMILY = "-fx-font-family: 'Segoe UI', 'Roboto', sans-serif;";
     
@@ -99,8 +117,10 @@ public class SimulationWindow {
         VBox leftSide = new VBox(20);
         leftSide.setPrefWidth(700);
 
+        // Static content lives on its own canvas under the animated one
+        backgroundCanvas = new Canvas(700, 400);
         simulationCanvas = new Canvas(700, 400);
-        VBox canvasContainer = new VBox(simulationCanvas);
+        VBox canvasContainer = new VBox(new StackPane(backgroundCanvas, simulationCanvas));
         canvasContainer.setStyle(PANEL_STYLE);
         canvasContainer.setPadding(new Insets(15));
 
@@ -162,7 +182,14 @@ public class SimulationWindow {
         root.getChildren().addAll(title, mainScroll);
 
 
-        controller = new SimulationController(phenomenon, simulationCanvas);
+        controller = new SimulationController(phenomenon, backgroundCanvas, simulationCanvas);
+        if (controller.canRecord()) {
+            parametersPanel.getChildren().add(createRecordingGroup(phenomenon));
+            parametersPanel.getChildren().add(createExportGroup(phenomenon));
+        }
+        if (controller.canEstimateLyapunov()) {
+            parametersPanel.getChildren().add(createLyapunovGroup());
+        }
 
 
         loadDescription(phenomenon);
@@ -173,11 +200,223 @@ public class SimulationWindow {
     }
 
     public void stop() {
+        if (lyapunovRefresh != null) {
+            lyapunovRefresh.stop();
+        }
         if (controller != null) {
+            controller.stopLyapunov();
+            try {
+                controller.stopRecording();
+                controller.stopExport();
+                if (controller.isReplaying()) {
+                    controller.closeReplay();
+                }
+            } catch (IOException e) {
+                // The window is closing; there is nowhere left to report it
+            }
             controller.stop();
         }
     }
 
+    private static final DateTimeFormatter RECORDING_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int KEYFRAMES_PER_SECOND = 10;
+
+    // Runs are written to ~/physics-recordings/<phenomenon>-<timestamp>.psrc
+    private VBox createRecordingGroup(Phenomenon phenomenon) {
+        VBox group = createParameterGroup("Запись");
+        Path directory = Path.of(System.getProperty("user.home"), "physics-recordings");
+        
+        ToggleButton recordButton = new ToggleButton("Записывать прогон");
+        CheckBox keyframesOnly = new CheckBox("Только ключевые кадры (" + KEYFRAMES_PER_SECOND + " в секунду)");
+        Label status = new Label("Каждый шаг физики сохраняется в файл");
+        status.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
+        status.setWrapText(true);
+        
+        recordButton.selectedProperty().addListener((obs, old, selected) -> {
+            try {
+                if (selected) {
+                    Files.createDirectories(directory);
+                    Path file = directory.resolve(phenomenon.getId() + "-"
+                        + LocalDateTime.now().format(RECORDING_TIMESTAMP) + ".psrc");
+                    int interval = keyframesOnly.isSelected()
+                        ? (int) Math.max(1, Math.round(controller.getPhysicsRate() / KEYFRAMES_PER_SECOND)) : 1;
+                    controller.startRecording(file, interval);
+                    status.setText("Запись в " + file);
+                } else if (controller.isRecording()) {
+                    long samples = controller.stopRecording();
+                    status.setText("Сохранено кадров: " + samples);
+                }
+            } catch (IOException | IllegalStateException e) {
+                status.setText("Ошибка записи: " + e.getMessage());
+                recordButton.setSelected(false);
+            }
+            keyframesOnly.setDisable(selected);
+        });
+        
+        // Replay: the timeline seeks to the nearest keyframe and re-integrates from there
+        Button openButton = new Button("Открыть запись…");
+        Button closeButton = new Button("Вернуться к симуляции");
+        VBox timelineContainer = createParameterSlider("Время (с)", 0, 1, 0);
+        Slider timeline = (Slider)timelineContainer.getUserData();
+        timeline.setShowTickMarks(false);
+        Label replayHint = new Label();
+        replayHint.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
+        timelineContainer.getChildren().add(replayHint);
+        timelineContainer.setDisable(true);
+        closeButton.setDisable(true);
+        
+        timeline.valueProperty().addListener((obs, old, val) -> {
+            if (!controller.isReplaying()) {
+                return;
+            }
+            try {
+                double reached = controller.seekReplay(val.doubleValue());
+                replayHint.setText(String.format("Показан момент t = %.3f с", reached));
+            } catch (IOException e) {
+                replayHint.setText("Ошибка чтения: " + e.getMessage());
+            }
+        });
+        
+        openButton.setOnAction(event -> {
+            FileChooser chooser = new FileChooser();
+            chooser.setTitle("Открыть запись");
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Записи прогонов", "*.psrc"));
+            if (Files.isDirectory(directory)) {
+                chooser.setInitialDirectory(directory.toFile());
+            }
+            File file = chooser.showOpenDialog(root.getScene().getWindow());
+            if (file == null) {
+                return;
+            }
+            recordButton.setSelected(false);
+            setExportEnabled(false);
+            try {
+                controller.openReplay(file.toPath());
+                double start = controller.getReplayStart();
+                double end = controller.getReplayEnd();
+                timeline.setMin(start);
+                timeline.setMax(Math.max(end, start + 1e-9));
+                timeline.setMajorTickUnit(Math.max(end - start, 1e-9) / 4);
+                timeline.setValue(start);
+                replayHint.setText(String.format("Запись %.3f–%.3f с", start, end));
+                timelineContainer.setDisable(false);
+                closeButton.setDisable(false);
+                recordButton.setDisable(true);
+            } catch (IOException e) {
+                status.setText("Ошибка чтения: " + e.getMessage());
+                timelineContainer.setDisable(true);
+                closeButton.setDisable(true);
+                recordButton.setDisable(false);
+                setExportEnabled(true);
+            }
+        });
+        
+        closeButton.setOnAction(event -> {
+            try {
+                controller.closeReplay();
+            } catch (IOException e) {
+                status.setText("Ошибка чтения: " + e.getMessage());
+            }
+            timelineContainer.setDisable(true);
+            closeButton.setDisable(true);
+            recordButton.setDisable(false);
+            setExportEnabled(true);
+        });
+        
+        HBox replayButtons = new HBox(10, openButton, closeButton);
+        group.getChildren().addAll(recordButton, keyframesOnly, status, replayButtons, timelineContainer);
+        return group;
+    }
+
+    // Observables are streamed to ~/physics-recordings/<phenomenon>-<timestamp>.csv (or .psts)
+    private VBox createExportGroup(Phenomenon phenomenon) {
+        VBox group = createParameterGroup("Экспорт");
+        
+        exportButton = new ToggleButton("Экспортировать величины");
+        CheckBox binary = new CheckBox("Двоичный формат вместо CSV");
+        CheckBox lossless = new CheckBox("Ждать диск вместо пропуска кадров");
+        Label status = new Label("Углы, скорости, энергия и импульс каждого кадра");
+        status.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
+        status.setWrapText(true);
+        
+        exportButton.selectedProperty().addListener((obs, old, selected) -> {
+            try {
+                if (selected) {
+                    Path directory = Path.of(System.getProperty("user.home"), "physics-recordings");
+                    Files.createDirectories(directory);
+                    Path file = directory.resolve(phenomenon.getId() + "-"
+                        + LocalDateTime.now().format(RECORDING_TIMESTAMP) + (binary.isSelected() ? ".psts" : ".csv"));
+                    controller.startExport(file,
+                        binary.isSelected() ? TimeSeriesExporter.Format.BINARY : TimeSeriesExporter.Format.CSV,
+                        lossless.isSelected() ? TimeSeriesExporter.OverflowPolicy.BLOCK
+                                              : TimeSeriesExporter.OverflowPolicy.DROP);
+                    status.setText("Экспорт в " + file);
+                } else if (controller.isExporting()) {
+                    long[] counts = controller.stopExport();
+                    status.setText("Записано строк: " + counts[0] + ", пропущено: " + counts[1]);
+                }
+            } catch (IOException e) {
+                status.setText("Ошибка экспорта: " + e.getMessage());
+                exportButton.setSelected(false);
+            }
+            binary.setDisable(exportButton.isSelected());
+            lossless.setDisable(exportButton.isSelected());
+        });
+        
+        group.getChildren().addAll(exportButton, binary, lossless, status);
+        return group;
+    }
+
+    // A replay only redraws recorded states, so exporting is switched off while one is open
+    private void setExportEnabled(boolean enabled) {
+        if (exportButton == null) {
+            return;
+        }
+        if (!enabled) {
+            exportButton.setSelected(false);
+        }
+        exportButton.setDisable(!enabled);
+    }
+
+    // The estimate is computed off the FX thread; the label only polls the published value
+    private VBox createLyapunovGroup() {
+        VBox group = createParameterGroup("Хаос");
+        
+        ToggleButton estimateButton = new ToggleButton("Оценивать показатель Ляпунова");
+        Label value = new Label("λ не вычисляется");
+        value.setStyle(VALUE_LABEL_STYLE);
+        Label hint = new Label("Старший показатель по методу Бенеттина, среднее по траекториям "
+            + "с углами в пределах ±1° от заданных; пересчитывается при изменении параметров");
+        hint.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
+        hint.setWrapText(true);
+        
+        lyapunovRefresh = new Timeline(new KeyFrame(Duration.millis(500), event -> {
+            LyapunovEstimator.Estimate estimate = controller.getLyapunovEstimate();
+            if (estimate == null) {
+                value.setText("λ вычисляется…");
+            } else {
+                value.setText(String.format("λ ≈ %.3f ± %.3f 1/с (%d нач. условий, t = %.0f с)",
+                    estimate.exponent(), estimate.standardDeviation(), estimate.trajectories(), estimate.time()));
+            }
+        }));
+        lyapunovRefresh.setCycleCount(Timeline.INDEFINITE);
+        
+        estimateButton.selectedProperty().addListener((obs, old, selected) -> {
+            if (selected) {
+                controller.startLyapunov();
+                value.setText("λ вычисляется…");
+                lyapunovRefresh.play();
+            } else {
+                lyapunovRefresh.stop();
+                controller.stopLyapunov();
+                value.setText("λ не вычисляется");
+            }
+        });
+        
+        group.getChildren().addAll(estimateButton, value, hint);
+        return group;
+    }
+
     private VBox createParameterGroup(String title) {
         VBox group = new VBox(10);
         group.setStyle(PARAM_GROUP_STYLE);
@@ -224,10 +463,37 @@ public class SimulationWindow {
         return container;
     }
 
+    // 0 - RK4, 1 - Dormand-Prince 4(5), 2 - Verlet, 3 - Yoshida 4, 4 - semi-implicit Euler
+    private static final String[] INTEGRATOR_NAMES = {
+        "RK4", "Дорманд-Принс 4(5)", "Верле", "Йосида 4", "Полунеявный Эйлер"
+    };
+
+    private VBox createIntegratorSlider(String parameter, int value) {
+        VBox container = createParameterSlider("Интегратор", 0, INTEGRATOR_NAMES.length - 1, value);
+        Slider slider = (Slider)container.getUserData();
+        slider.setMajorTickUnit(1);
+        slider.setMinorTickCount(0);
+        slider.setBlockIncrement(1);
+        slider.setSnapToTicks(true);
+        
+        Label hint = new Label(INTEGRATOR_NAMES[value]);
+        hint.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
+        container.getChildren().add(hint);
+        
+        slider.valueProperty().addListener((obs, old, val) -> {
+            int index = (int)Math.round(val.doubleValue());
+            hint.setText(INTEGRATOR_NAMES[index]);
+            controller.updateParameters(parameter, index);
+        });
+        return container;
+    }
+
     private void setupParameters(Phenomenon phenomenon) {
         switch (phenomenon.getId()) {
             case "simple-pendulum" -> setupSimplePendulumParams();
             case "double-pendulum" -> setupDoublePendulumParams();
+            case "double-pendulum-ensemble" -> setupEnsembleParams();
+            case "double-pendulum-flip-map" -> setupFlipMapParams();
             case "string-wave" -> setupStringWaveParams();
             case "spring-oscillator" -> setupSpringOscillatorParams();
             case "standing-waves" -> setupStandingWaveParams();
@@ -253,11 +519,14 @@ public class SimulationWindow {
         ((Slider)dampingContainer.getUserData()).valueProperty().addListener((obs, old, val) -> 
             controller.updateParameters("damping", val.doubleValue()));
 
+        VBox integratorContainer = createIntegratorSlider("integrator", 0);
+
         parametersPanel.getChildren().addAll(
             createParameterGroup("Простой маятник:"),
             lengthContainer,
             angleContainer,
-            dampingContainer
+            dampingContainer,
+            integratorContainer
         );
     }
 
@@ -281,12 +550,102 @@ public class SimulationWindow {
         ((Slider)angle2Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
             controller.updateParameters("angle2", val.doubleValue()));
 
+        VBox integratorContainer = createIntegratorSlider("integrator", 1);
+
         parametersPanel.getChildren().addAll(
             createParameterGroup("Двойной Маятник:"),
             length1Container,
             length2Container,
             angle1Container,
-            angle2Container
+            angle2Container,
+            integratorContainer
+        );
+    }
+
+    private void setupEnsembleParams() {
+
+        VBox countContainer = createParameterSlider("Маятников (тыс.)", 1, 1000, 100);
+        Slider countSlider = (Slider)countContainer.getUserData();
+        countSlider.valueProperty().addListener((obs, old, val) -> {
+            if (!countSlider.isValueChanging()) {
+                controller.updateParameters("count", val.doubleValue());
+            }
+        });
+        countSlider.valueChangingProperty().addListener((obs, old, changing) -> {
+            if (!changing) {
+                controller.updateParameters("count", countSlider.getValue());
+            }
+        });
+
+
+        VBox spreadContainer = createParameterSlider("Разброс углов (degrees)", 0, 1, 0.01);
+        ((Slider)spreadContainer.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("spread", val.doubleValue()));
+
+
+        VBox angle1Container = createParameterSlider("Угол 1 (degrees)", -180, 180, 120);
+        ((Slider)angle1Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("angle1", val.doubleValue()));
+
+        VBox angle2Container = createParameterSlider("Угол 2 (degrees)", -180, 180, 120);
+        ((Slider)angle2Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("angle2", val.doubleValue()));
+
+
+        VBox length1Container = createParameterSlider("Длина 1 (m)", 0.1, 2.0, 1.0);
+        ((Slider)length1Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("length1", val.doubleValue()));
+
+        VBox length2Container = createParameterSlider("Длина 2 (m)", 0.1, 2.0, 1.0);
+        ((Slider)length2Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("length2", val.doubleValue()));
+
+        parametersPanel.getChildren().addAll(
+            createParameterGroup("Ансамбль маятников:"),
+            countContainer,
+            spreadContainer,
+            angle1Container,
+            angle2Container,
+            length1Container,
+            length2Container
+        );
+    }
+
+    private void setupFlipMapParams() {
+
+        VBox length1Container = createParameterSlider("Длина 1 (m)", 0.1, 2.0, 1.0);
+        ((Slider)length1Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("length1", val.doubleValue()));
+
+        VBox length2Container = createParameterSlider("Длина 2 (m)", 0.1, 2.0, 1.0);
+        ((Slider)length2Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("length2", val.doubleValue()));
+
+        VBox mass1Container = createParameterSlider("Масса 1 (kg)", 0.1, 5.0, 1.0);
+        ((Slider)mass1Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("mass1", val.doubleValue()));
+
+        VBox mass2Container = createParameterSlider("Масса 2 (kg)", 0.1, 5.0, 1.0);
+        ((Slider)mass2Container.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("mass2", val.doubleValue()));
+
+        VBox maxTimeContainer = createParameterSlider("Предел времени (s)", 1, 30, 10);
+        ((Slider)maxTimeContainer.getUserData()).valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("maxTime", val.doubleValue()));
+
+        Label hint = new Label("По горизонтали угол 1, по вертикали угол 2 (от -180° до 180°). "
+            + "Тёмная область - переворот невозможен по энергии, чёрная - не успел за предел времени");
+        hint.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
+        hint.setWrapText(true);
+
+        parametersPanel.getChildren().addAll(
+            createParameterGroup("Карта переворотов:"),
+            length1Container,
+            length2Container,
+            mass1Container,
+            mass2Container,
+            maxTimeContainer,
+            hint
         );
     }
 
@@ -306,11 +665,25 @@ public class SimulationWindow {
         ((Slider)frequencyContainer.getUserData()).valueProperty().addListener((obs, old, val) -> 
             controller.updateParameters("frequency", val.doubleValue()));
 
+
+        VBox boundaryContainer = createParameterSlider("Правый конец", 0, 1, 0);
+        Slider boundarySlider = (Slider)boundaryContainer.getUserData();
+        boundarySlider.setSnapToTicks(true);
+        boundarySlider.setMajorTickUnit(1);
+        boundarySlider.setMinorTickCount(0);
+        boundarySlider.valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("boundary", val.doubleValue()));
+
+        Label boundaryHint = new Label("0 - закреплённый, 1 - свободный");
+        boundaryHint.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
+
         parametersPanel.getChildren().addAll(
             createParameterGroup("Прямая волна:"),
             tensionContainer,
             amplitudeContainer,
-            frequencyContainer
+            frequencyContainer,
+            boundaryContainer,
+            boundaryHint
         );
     }
 
@@ -354,11 +727,21 @@ public class SimulationWindow {
         ((Slider)amplitudeContainer.getUserData()).valueProperty().addListener((obs, old, val) -> 
             controller.updateParameters("amplitude", val.doubleValue()));
 
+
+        VBox modesContainer = createParameterSlider("Число гармоник", 1, 64, 1);
+        Slider modesSlider = (Slider)modesContainer.getUserData();
+        modesSlider.setSnapToTicks(true);
+        modesSlider.setMajorTickUnit(21);
+        modesSlider.setMinorTickCount(20);
+        modesSlider.valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("modes", val.doubleValue()));
+
         parametersPanel.getChildren().addAll(
             createParameterGroup("Параметры стоячей волны:"),
             speedContainer,
             nodesContainer,
-            amplitudeContainer
+            amplitudeContainer,
+            modesContainer
         );
     }
 
@@ -437,7 +820,7 @@ public class SimulationWindow {
         VBox group = createParameterGroup("Параметры отражения");
         
 
-        VBox mirrorTypeContainer = createParameterSlider("Тип зеркала", 0, 2, 0);
+        VBox mirrorTypeContainer = createParameterSlider("Тип зеркала", 0, 3, 0);
         Slider mirrorTypeSlider = (Slider)mirrorTypeContainer.getUserData();
         mirrorTypeSlider.setSnapToTicks(true);
         mirrorTypeSlider.setMajorTickUnit(1);
@@ -445,7 +828,7 @@ public class SimulationWindow {
         mirrorTypeSlider.valueProperty().addListener((obs, old, val) -> 
             controller.updateParameters("mirrorType", val.doubleValue()));
 
-        Label typeHint = new Label("0 - плоское, 1 - вогнутое, 2 - выпуклое");
+        Label typeHint = new Label("0 - плоское, 1 - вогнутое, 2 - выпуклое, 3 - параболическое");
         typeHint.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
         
 
@@ -457,20 +840,38 @@ public class SimulationWindow {
         ((Slider)angleContainer.getUserData()).valueProperty().addListener((obs, old, val) -> 
             controller.updateParameters("angle", val.doubleValue()));
 
-        VBox raysContainer = createParameterSlider("Количество лучей", 1, 10, 3);
+        // Logarithmic: the slider value is log10 of the ray count, from 1 to 100 000
+        VBox raysContainer = createParameterSlider("Количество лучей (10^x)", 0, 5, Math.log10(3));
         Slider raysSlider = (Slider)raysContainer.getUserData();
-        raysSlider.setSnapToTicks(true);
         raysSlider.setMajorTickUnit(1);
-        raysSlider.setMinorTickCount(0);
-        raysSlider.valueProperty().addListener((obs, old, val) -> 
-            controller.updateParameters("rays", val.doubleValue()));
+        Label raysHint = new Label("3 луча");
+        raysHint.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
+        raysContainer.getChildren().add(raysHint);
+        raysSlider.valueProperty().addListener((obs, old, val) -> {
+            long rays = Math.round(Math.pow(10, val.doubleValue()));
+            raysHint.setText(rays + " лучей");
+            controller.updateParameters("rays", rays);
+        });
+
+        VBox bouncesContainer = createParameterSlider("Отражений", 1, 8, 1);
+        Slider bouncesSlider = (Slider)bouncesContainer.getUserData();
+        bouncesSlider.setSnapToTicks(true);
+        bouncesSlider.setMajorTickUnit(1);
+        bouncesSlider.setMinorTickCount(0);
+        bouncesSlider.valueProperty().addListener((obs, old, val) -> 
+            controller.updateParameters("bounces", val.doubleValue()));
+
+        Label bouncesHint = new Label("Больше одного - по бокам появляются плоские зеркала");
+        bouncesHint.setStyle("-fx-text-fill: #95a5a6; -fx-font-size: 11px;");
 
         group.getChildren().addAll(
             mirrorTypeContainer,
             typeHint,
             curvatureContainer,
             angleContainer,
-            raysContainer
+            raysContainer,
+            bouncesContainer,
+            bouncesHint
         );
         
         parametersPanel.getChildren().add(group);
@@ -507,6 +908,44 @@ public class SimulationWindow {
                 - Система очень чувствительна к начальным условиям
                 """;
                 
+            case "double-pendulum-ensemble" -> """
+                Ансамбль двойных маятников
+                
+                Одновременно моделируются до миллиона двойных маятников,
+                начальные углы которых отличаются на доли градуса.
+                
+                Вначале все маятники движутся как один, но из-за хаотической
+                динамики малые различия быстро растут, и облако концов
+                маятников расплывается по всей доступной области.
+                
+                Цвет точки показывает, сколько маятников находится в этом месте.
+                
+                Параметры:
+                - Количество маятников (в тысячах)
+                - Разброс начальных углов
+                - Начальные углы и длины плеч
+                """;
+                
+            case "double-pendulum-flip-map" -> """
+                Карта переворотов двойного маятника
+                
+                Каждая точка карты - двойной маятник, отпущенный без начальной
+                скорости с углами, равными её координатам. Цвет показывает,
+                через сколько секунд одно из плеч впервые перевернётся через
+                верхнюю точку: красные - быстро, синие - медленно.
+                
+                В центре маятнику не хватает энергии, чтобы перевернуться
+                вообще. Вокруг этой области граница между быстрыми и медленными
+                переворотами фрактальна - это след хаотической динамики.
+                
+                Карта сначала появляется грубой и постепенно уточняется;
+                при изменении параметров вычисление начинается заново.
+                
+                Параметры:
+                - Длины и массы плеч
+                - Предел времени моделирования
+                """;
+                
             case "string-wave" -> """
                 Волна на струне
                 
@@ -518,10 +957,14 @@ public class SimulationWindow {
                 T - натяжение струны
                 μ - линейная плотность
                 
+                Уравнение решается методом конечных разностей,
+                левый конец струны колеблется с заданной частотой.
+                
                 Параметры:
                 - Натяжение влияет на скорость волны
                 - Амплитуда определяет высоту волны
                 - Частота определяет количество колебаний
+                - Правый конец закреплён или свободен
                 """;
                 
             case "spring-oscillator" -> """
@@ -557,6 +1000,8 @@ public class SimulationWindow {
                 - Скорость волны влияет на длину волны
                 - Число узлов определяет моду колебаний
                 - Амплитуда определяет максимальное смещение
+                - Гармоники (нечётные кратные основной моды) складываются
+                  в форму струны, оттянутой в пучностях
                 """;
                 
             case "impulse-types" -> """
@@ -585,6 +1030,10 @@ public class SimulationWindow {
                 - Амплитуда задает максимальное значение
                 - Ширина влияет на длительность импульса
                 - Скорость определяет распространение в пространстве
+                
+                В правом верхнем углу показан амплитудный спектр
+                импульса (БПФ на 65536 точек): чем уже импульс,
+                тем шире его спектр.
                 """;
                 
             case "collisions" -> """
@@ -636,6 +1085,11 @@ public class SimulationWindow {
                    - Всегда дает мнимое уменьшенное изображение
                    - Применяется в обзорных зеркалах
                 
+                4. Параболическое зеркало:
+                   - Все лучи, параллельные оси, точно собираются в фокусе
+                   - У сферического зеркала крайние лучи фокусируются ближе
+                     (сферическая аберрация)
+                
                 Основные законы:
                 - Луч падает, отражается и нормаль лежат в одной плоскости
                 - Угол падения равен углу отражения
@@ -645,7 +1099,10 @@ public class SimulationWindow {
                 - Тип зеркала определяет характер отражения
                 - Кривизна влияет на фокусное расстояние
                 - Угол падения определяет направление лучей
-                - Количество лучей для наглядности
+                - Количество лучей: при большом числе яркость показывает
+                  плотность лучей
+                - Отражений: сколько раз прослеживается каждый луч; при
+                  значении больше одного лучи отражаются и от боковых зеркал
                 """;
             default -> "Описание для данного типа симуляции отсутствует.";
         };
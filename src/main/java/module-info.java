@@ -1,9 +1,11 @@
 module com.physicalapp {
     requires javafx.controls;
     requires javafx.graphics;
+    requires static jdk.incubator.vector;
     
     exports com.physicalapp;
     exports com.physicalapp.view;
     exports com.physicalapp.model;
     exports com.physicalapp.controller;
+    exports com.physicalapp.physics;
 }
\ No newline at end of file
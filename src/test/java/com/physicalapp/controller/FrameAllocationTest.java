@@ -0,0 +1,137 @@
+package com.physicalapp.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.physicalapp.model.Phenomenon;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.layout.StackPane;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+// Steady-state frames of the phenomena the controller draws itself must not allocate. Each
+// frame is driven on the FX thread from an animation pulse, so the canvas buffers are handed
+// to the renderer between frames as in the app, and only the bytes the frame itself
+// allocates on that thread are counted.
+//
+// A canvas whose renderer falls behind makes the next full clear allocate a fresh drawing
+// state inside JavaFX. That is what happens to every frame with text when the platform
+// cannot lay out text at all (no Pango on a bare build machine), so phenomena with a HUD
+// are only measured where text works. Publishing a PixelBuffer walks its image list with an
+// iterator inside JavaFX, so phenomena that present a raster every frame get room for that.
+class FrameAllocationTest {
+    private static final int WARMUP_FRAMES = 2000;
+    private static final int MEASURED_FRAMES = 500;
+    // TLAB accounting is exact, but leave room for a stray one-off allocation in the window
+    private static final double MAX_BYTES_PER_FRAME = 16;
+    private static final double MAX_BYTES_PER_PRESENT = 32;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final Set<String> DRAWS_TEXT = Set.of("impulse-types", "collisions");
+    private static final Set<String> PRESENTS_RASTER = Set.of("double-pendulum");
+
+    private static Stage stage;
+    private static boolean textAvailable;
+
+    @BeforeAll
+    static void startToolkit() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        assertTrue(started.await(10, TimeUnit.SECONDS), "JavaFX did not start");
+        Platform.setImplicitExit(false);
+
+        CompletableFuture<Boolean> text = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                text.complete(new Text("0").getLayoutBounds().getWidth() > 0);
+            } catch (LinkageError e) {
+                text.complete(false);
+            }
+        });
+        textAvailable = text.get(10, TimeUnit.SECONDS);
+    }
+
+    @AfterAll
+    static void stopToolkit() {
+        Platform.exit();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"simple-pendulum", "double-pendulum", "spring-oscillator", "impulse-types", "collisions"})
+    void steadyStateFramesDoNotAllocate(String id) throws Exception {
+        assertFramesDoNotAllocate(id, false);
+    }
+
+    // The default mode: a physics thread steps the model and frames interpolate its snapshots
+    @ParameterizedTest
+    @ValueSource(strings = {"simple-pendulum", "double-pendulum", "collisions"})
+    void framesFromThePhysicsThreadDoNotAllocate(String id) throws Exception {
+        assertFramesDoNotAllocate(id, true);
+    }
+
+    private void assertFramesDoNotAllocate(String id, boolean physicsThread) throws Exception {
+        assumeTrue(textAvailable || !DRAWS_TEXT.contains(id), "text cannot be laid out on this platform");
+        Phenomenon phenomenon = Arrays.stream(Phenomenon.getAvailablePhenomena())
+            .filter(p -> p.getId().equals(id))
+            .findFirst()
+            .orElseThrow();
+        CompletableFuture<Double> bytesPerFrame = new CompletableFuture<>();
+
+        Platform.runLater(() -> {
+            Canvas backgroundCanvas = new Canvas(700, 400);
+            Canvas canvas = new Canvas(700, 400);
+            if (stage == null) {
+                stage = new Stage();
+            }
+            stage.setScene(new Scene(new StackPane(backgroundCanvas, canvas)));
+            stage.show();
+
+            SimulationController controller = new SimulationController(phenomenon, backgroundCanvas, canvas);
+            if (!physicsThread) {
+                // Step the model from the frames instead
+                controller.setPhysicsRate(0);
+            }
+            // Keep the controller's own timer out of the way
+            controller.stopAnimationTimer();
+
+            new AnimationTimer() {
+                private int frame;
+                private long allocated;
+
+                @Override
+                public void handle(long now) {
+                    long before = THREADS.getCurrentThreadAllocatedBytes();
+                    controller.updateSimulation(1.0 / 60, now);
+                    long after = THREADS.getCurrentThreadAllocatedBytes();
+                    if (frame++ >= WARMUP_FRAMES) {
+                        allocated += after - before;
+                    }
+                    if (frame == WARMUP_FRAMES + MEASURED_FRAMES) {
+                        stop();
+                        controller.stop();
+                        bytesPerFrame.complete((double) allocated / MEASURED_FRAMES);
+                    }
+                }
+            }.start();
+        });
+
+        double bytes = bytesPerFrame.get(120, TimeUnit.SECONDS);
+        double limit = MAX_BYTES_PER_FRAME + (PRESENTS_RASTER.contains(id) ? MAX_BYTES_PER_PRESENT : 0);
+        assertTrue(bytes <= limit, id + " allocates " + bytes + " bytes per frame");
+    }
+}
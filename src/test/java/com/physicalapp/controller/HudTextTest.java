@@ -0,0 +1,46 @@
+package com.physicalapp.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HudTextTest {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void matchesStringFormat() {
+        HudText text = new HudText("v = ", " м/с");
+        double[] values = {0.0, -0.0, -0.001, -0.004, -0.005, 0.005, 0.29, 1.005, 2.675, 0.125, -73.695,
+                           581.935, 99.995, -99.999, 123456.785};
+        for (double value : values) {
+            assertEquals("v = " + String.format("%.2f", value) + " м/с", text.format(value), "value " + value);
+        }
+
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            // Thousandths hit the halfway points; the rest spreads over magnitudes
+            double value = i % 2 == 0
+                ? (random.nextInt(2_000_000) - 1_000_000) / 1000.0
+                : (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4);
+            assertEquals("v = " + String.format("%.2f", value) + " м/с", text.format(value), "value " + value);
+        }
+    }
+
+    @Test
+    void steadyValueDoesNotAllocate() {
+        HudText text = new HudText("E = ", " Дж");
+        // Values that show the same digits reuse the text
+        for (int i = 0; i < 10_000; i++) {
+            text.format(1.2 + (i % 10) * 1e-4);
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            text.format(1.2 + (i % 10) * 1e-4);
+        }
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - before;
+        assertEquals(0, allocated, "bytes allocated by 100 000 calls");
+    }
+}
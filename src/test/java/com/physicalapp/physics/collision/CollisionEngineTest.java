@@ -0,0 +1,134 @@
+package com.physicalapp.physics.collision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CollisionEngineTest {
+    @Test
+    void fastBodiesCollideWithinALongFrame() {
+        // 1D: both on y = 0 in a box of height 0. Without events they would pass through
+        // each other many times over within one frame.
+        CollisionEngine engine = new CollisionEngine(2, 1e6, 0);
+        int a = engine.add(500_000, 0, 1e4, 0, 1, 1);
+        int b = engine.add(500_020, 0, -1e4, 0, 1, 1);
+
+        engine.advance(0.01);
+
+        assertEquals(1, engine.getEventCount());
+        assertEquals(-1e4, engine.getVx(a));
+        assertEquals(1e4, engine.getVx(b));
+        // They touch at t = 18 / 2e4 with centres at 500 009 and 500 011, then move apart
+        double contact = 18 / 2e4;
+        assertEquals(500_009 - 1e4 * (0.01 - contact), engine.getX(a), 1e-6);
+        assertEquals(500_011 + 1e4 * (0.01 - contact), engine.getX(b), 1e-6);
+    }
+
+    @Test
+    void wallsReflectTheNormalVelocity() {
+        CollisionEngine engine = new CollisionEngine(1, 100, 100);
+        int disk = engine.add(50, 50, 100, 60, 5, 1);
+
+        engine.advance(1.0);
+
+        // Right wall at t = 0.45, bottom wall at t = 0.75
+        assertEquals(2, engine.getEventCount());
+        assertEquals(-100, engine.getVx(disk));
+        assertEquals(-60, engine.getVy(disk));
+        assertEquals(95 - 100 * 0.55, engine.getX(disk), 1e-9);
+        assertEquals(95 - 60 * 0.25, engine.getY(disk), 1e-9);
+    }
+
+    @Test
+    void restitutionMatchesTheClosedForm() {
+        double m1 = 1;
+        double m2 = 3;
+        double v1 = 5;
+        double v2 = -2;
+        for (double k : new double[] {0, 0.5, 1}) {
+            CollisionEngine engine = new CollisionEngine(2, 1e6, 0);
+            engine.setRestitution(k);
+            int a = engine.add(500_000, 0, v1, 0, 1, m1);
+            int b = engine.add(500_010, 0, v2, 0, 1, m2);
+
+            engine.advance(10);
+
+            // Velocities the frame-stepped model used before the event engine
+            double elastic1 = ((m1 - m2) * v1 + 2 * m2 * v2) / (m1 + m2);
+            double elastic2 = (2 * m1 * v1 - (m1 - m2) * v2) / (m1 + m2);
+            double centre = (m1 * v1 + m2 * v2) / (m1 + m2);
+            assertEquals(1, engine.getEventCount(), "restitution " + k);
+            assertEquals(centre + k * (elastic1 - centre), engine.getVx(a), 1e-12, "restitution " + k);
+            assertEquals(centre + k * (elastic2 - centre), engine.getVx(b), 1e-12, "restitution " + k);
+        }
+    }
+
+    @Test
+    void elasticGasConservesMomentumAndEnergy() {
+        // A dense cluster in a box too large for any disk to reach a wall, so momentum is
+        // conserved as well; enough disks to use the grid
+        CollisionEngine engine = new CollisionEngine(256, 1e6, 1e6);
+        Random random = new Random(7);
+        for (int row = 0; row < 16; row++) {
+            for (int column = 0; column < 16; column++) {
+                engine.add(500_000 + 6 * column, 500_000 + 6 * row,
+                           10 * random.nextGaussian(), 10 * random.nextGaussian(), 2, 1 + random.nextDouble());
+            }
+        }
+        double[] momentum = momentum(engine);
+        double energy = engine.getKineticEnergy();
+
+        for (int frame = 0; frame < 100; frame++) {
+            engine.advance(0.05);
+        }
+
+        assertTrue(engine.getEventCount() > 1000, "only " + engine.getEventCount() + " collisions");
+        double[] after = momentum(engine);
+        assertEquals(momentum[0], after[0], 1e-9 * energy);
+        assertEquals(momentum[1], after[1], 1e-9 * energy);
+        assertEquals(energy, engine.getKineticEnergy(), 1e-9 * energy);
+        assertNoOverlap(engine);
+    }
+
+    @Test
+    void gasInABoxConservesEnergy() {
+        CollisionEngine engine = new CollisionEngine(200, 400, 400);
+        Random random = new Random(3);
+        for (int i = 0; i < 200; i++) {
+            engine.add(20 + 25 * (i % 15), 20 + 25 * (i / 15), 100 * random.nextGaussian(),
+                       100 * random.nextGaussian(), 4, 1);
+        }
+        double energy = engine.getKineticEnergy();
+
+        for (int frame = 0; frame < 300; frame++) {
+            engine.advance(1.0 / 60);
+        }
+
+        assertTrue(engine.getEventCount() > 1000, "only " + engine.getEventCount() + " events");
+        assertEquals(energy, engine.getKineticEnergy(), 1e-9 * energy);
+        assertNoOverlap(engine);
+    }
+
+    private static double[] momentum(CollisionEngine engine) {
+        double px = 0;
+        double py = 0;
+        for (int i = 0; i < engine.size(); i++) {
+            px += engine.getMass(i) * engine.getVx(i);
+            py += engine.getMass(i) * engine.getVy(i);
+        }
+        return new double[] {px, py};
+    }
+
+    private static void assertNoOverlap(CollisionEngine engine) {
+        for (int i = 0; i < engine.size(); i++) {
+            for (int j = i + 1; j < engine.size(); j++) {
+                double dx = engine.getX(j) - engine.getX(i);
+                double dy = engine.getY(j) - engine.getY(i);
+                double sigma = engine.getRadius(i) + engine.getRadius(j);
+                assertTrue(Math.sqrt(dx * dx + dy * dy) > sigma - 1e-6, "disks " + i + " and " + j + " overlap");
+            }
+        }
+    }
+}
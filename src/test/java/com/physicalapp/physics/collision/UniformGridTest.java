@@ -0,0 +1,47 @@
+package com.physicalapp.physics.collision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// The grid only narrows down which pairs are tested, so with and without it the engine must
+// process the same events. Transits re-sync positions at cell boundaries, which changes the
+// rounding of the straight-line motion, so states agree to a tolerance rather than exactly;
+// the run is kept short enough for that difference not to grow into a different history.
+class UniformGridTest {
+    private static final int DISKS = 300;
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    void gridFindsTheSameEventsAsBruteForce() {
+        CollisionEngine grid = createGas(true);
+        CollisionEngine bruteForce = createGas(false);
+
+        for (int frame = 0; frame < 60; frame++) {
+            grid.advance(1.0 / 60);
+            bruteForce.advance(1.0 / 60);
+            assertEquals(bruteForce.getEventCount(), grid.getEventCount(), "events by frame " + frame);
+        }
+
+        assertTrue(grid.getEventCount() > 500, "only " + grid.getEventCount() + " events");
+        for (int i = 0; i < DISKS; i++) {
+            assertEquals(bruteForce.getX(i), grid.getX(i), TOLERANCE, "x of disk " + i);
+            assertEquals(bruteForce.getY(i), grid.getY(i), TOLERANCE, "y of disk " + i);
+            assertEquals(bruteForce.getVx(i), grid.getVx(i), TOLERANCE, "vx of disk " + i);
+            assertEquals(bruteForce.getVy(i), grid.getVy(i), TOLERANCE, "vy of disk " + i);
+        }
+    }
+
+    private static CollisionEngine createGas(boolean gridEnabled) {
+        CollisionEngine engine = new CollisionEngine(DISKS, 600, 400);
+        engine.setGridEnabled(gridEnabled);
+        Random random = new Random(11);
+        for (int i = 0; i < DISKS; i++) {
+            engine.add(15 + 30 * (i % 20), 15 + 27 * (i / 20), 80 * random.nextGaussian(), 80 * random.nextGaussian(),
+                       3 + 3 * random.nextDouble(), 1 + random.nextDouble());
+        }
+        return engine;
+    }
+}
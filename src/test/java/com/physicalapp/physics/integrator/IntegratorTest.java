@@ -0,0 +1,146 @@
+package com.physicalapp.physics.integrator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+// Orders are measured on the harmonic oscillator x'' = -x, whose solution is known; energy
+// is followed on the nonlinear pendulum x'' = -sin x over many periods.
+class IntegratorTest {
+    private static final double T = 2;
+
+    @Test
+    void fixedStepIntegratorsConvergeAtTheirOrder() {
+        assertOrder(IntegratorType.RK4, 4, 20);
+        assertOrder(IntegratorType.YOSHIDA4, 4, 20);
+        assertOrder(IntegratorType.VELOCITY_VERLET, 2, 50);
+        assertOrder(IntegratorType.SEMI_IMPLICIT_EULER, 1, 200);
+    }
+
+    @Test
+    void dormandPrinceErrorFollowsTheTolerance() {
+        double previous = Double.POSITIVE_INFINITY;
+        for (double tolerance : new double[] {1e-5, 1e-7, 1e-9, 1e-11}) {
+            double error = oscillatorError(new DormandPrince45(tolerance, tolerance), 10);
+            assertTrue(error < 100 * tolerance, "error " + error + " at tolerance " + tolerance);
+            assertTrue(error < previous, "error " + error + " did not drop at tolerance " + tolerance);
+            previous = error;
+        }
+    }
+
+    @Test
+    void symplecticIntegratorsKeepTheEnergyBounded() {
+        for (IntegratorType type : new IntegratorType[] {
+                IntegratorType.VELOCITY_VERLET, IntegratorType.YOSHIDA4, IntegratorType.SEMI_IMPLICIT_EULER}) {
+            double[] deviation = energyDeviation(type.create(), 0.05, 100_000);
+            // A modified energy is conserved: the error oscillates at the size it had early on
+            assertTrue(deviation[1] < 1.5 * deviation[0],
+                       type + ": " + deviation[0] + " early, " + deviation[1] + " late");
+            assertTrue(deviation[1] < 0.05, type + ": " + deviation[1]);
+        }
+    }
+
+    @Test
+    void rungeKuttaEnergyDriftIsSmall() {
+        double[] rk4 = energyDeviation(IntegratorType.RK4.create(), 0.05, 100_000);
+        assertTrue(rk4[1] < 1e-5, "RK4: " + rk4[1]);
+        double[] dormandPrince = energyDeviation(IntegratorType.DORMAND_PRINCE.create(), 0.05, 100_000);
+        assertTrue(dormandPrince[1] < 1e-6, "Dormand-Prince: " + dormandPrince[1]);
+    }
+
+    @Test
+    void dormandPrinceFailsFastOnNonFiniteDerivatives() {
+        DormandPrince45 integrator = new DormandPrince45();
+        double[] y = {1, 0};
+        OdeSystem broken = system((t, state, dydt) -> {
+            dydt[0] = state[1];
+            dydt[1] = t > 0.5 ? Double.NaN : -state[0];
+        });
+        assertThrows(ArithmeticException.class, () -> integrator.step(broken, 0, y, 1));
+        assertTrue(integrator.getAcceptedSteps() + integrator.getRejectedSteps() < 1000);
+        assertTrue(Double.isFinite(y[0]) && Double.isFinite(y[1]), "the last accepted state is kept");
+    }
+
+    @Test
+    void dormandPrinceReportsHowFarItGot() {
+        DormandPrince45 integrator = new DormandPrince45();
+        double[] y = {1, 0};
+        // Period of about 6 ms: a 1000 s call needs millions of internal steps
+        OdeSystem stiff = system((t, state, dydt) -> {
+            dydt[0] = state[1];
+            dydt[1] = -1e6 * state[0];
+        });
+        double reached = integrator.step(stiff, 0, y, 1000);
+        assertTrue(reached > 0 && reached < 1000, "reached " + reached);
+        assertTrue(Double.isFinite(y[0]) && Double.isFinite(y[1]));
+    }
+
+    private static void assertOrder(IntegratorType type, int order, int steps) {
+        double coarse = oscillatorError(type.create(), steps);
+        double fine = oscillatorError(type.create(), 2 * steps);
+        double measured = Math.log(coarse / fine) / Math.log(2);
+        assertEquals(order, measured, 0.15, type + " errors " + coarse + ", " + fine);
+    }
+
+    // Distance from the exact state after integrating x'' = -x from (1, 0) over T in steps
+    private static double oscillatorError(Integrator integrator, int steps) {
+        OdeSystem oscillator = system((t, state, dydt) -> {
+            dydt[0] = state[1];
+            dydt[1] = -state[0];
+        });
+        double[] y = {1, 0};
+        double dt = T / steps;
+        double t = 0;
+        for (int i = 0; i < steps; i++) {
+            t = integrator.step(oscillator, t, y, dt);
+        }
+        return Math.hypot(y[0] - Math.cos(T), y[1] + Math.sin(T));
+    }
+
+    // Largest |E - E0| of the pendulum over the first and over the last tenth of the steps
+    private static double[] energyDeviation(Integrator integrator, double dt, int steps) {
+        OdeSystem pendulum = system((t, state, dydt) -> {
+            dydt[0] = state[1];
+            dydt[1] = -Math.sin(state[0]);
+        });
+        double[] y = {1, 0};
+        double initial = energy(y);
+        double early = 0;
+        double late = 0;
+        double t = 0;
+        for (int i = 0; i < steps; i++) {
+            t = integrator.step(pendulum, t, y, dt);
+            double deviation = Math.abs(energy(y) - initial);
+            if (i < steps / 10) {
+                early = Math.max(early, deviation);
+            } else if (i >= steps - steps / 10) {
+                late = Math.max(late, deviation);
+            }
+        }
+        return new double[] {early, late};
+    }
+
+    private static double energy(double[] y) {
+        return 0.5 * y[1] * y[1] - Math.cos(y[0]);
+    }
+
+    private interface Derivatives {
+        void compute(double t, double[] y, double[] dydt);
+    }
+
+    private static OdeSystem system(Derivatives derivatives) {
+        return new OdeSystem() {
+            @Override
+            public int getDimension() {
+                return 2;
+            }
+
+            @Override
+            public void derivatives(double t, double[] y, double[] dydt) {
+                derivatives.compute(t, y, dydt);
+            }
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package com.physicalapp.physics.record;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// Small blocks and windows of three blocks, so that a short run crosses both on either side;
+// the run ends inside a block.
+class RunRecorderTest {
+    private static final int BLOCK_ROWS = 100;
+    private static final int SAMPLES = 1234;
+    private static final String[] NAMES = {"d", "f", "l", "i"};
+    private static final ColumnType[] TYPES = {ColumnType.DOUBLE, ColumnType.FLOAT, ColumnType.LONG, ColumnType.INT};
+    private static final int BLOCK_BYTES = BLOCK_ROWS * (8 + 8 + 4 + 8 + 4);
+    private static final long WINDOW_BYTES = 3L * BLOCK_BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void columnsSurviveARoundTrip() throws IOException {
+        Path file = directory.resolve("run.psrc");
+        double[] state = new double[NAMES.length];
+        try (RunRecorder recorder = new RunRecorder(file, NAMES, TYPES, BLOCK_ROWS, 0.25, WINDOW_BYTES)) {
+            for (int n = 0; n < SAMPLES; n++) {
+                fill(n, state);
+                recorder.append(time(n), state);
+            }
+            assertEquals(SAMPLES, recorder.getSampleCount());
+            assertEquals(time(SAMPLES - 1), recorder.getLastTime());
+        }
+
+        try (RunReader reader = new RunReader(file, WINDOW_BYTES)) {
+            assertEquals(SAMPLES, reader.getSampleCount());
+            assertEquals(0.25, reader.getStepSize());
+            assertEquals(BLOCK_ROWS, reader.getBlockRows());
+            assertEquals(NAMES.length + 1, reader.getColumnCount());
+            assertEquals("time", reader.getColumnName(0));
+            for (int c = 0; c < NAMES.length; c++) {
+                assertEquals(NAMES[c], reader.getColumnName(c + 1));
+                assertEquals(TYPES[c], reader.getColumnType(c + 1));
+            }
+            assertEquals(3, reader.indexOf("l"));
+
+            double[] row = new double[reader.getColumnCount()];
+            double[] expected = new double[reader.getColumnCount()];
+            for (int n = 0; n < SAMPLES; n++) {
+                expected[0] = time(n);
+                fill(n, state);
+                System.arraycopy(state, 0, expected, 1, state.length);
+                reader.readRow(n, row);
+                assertArrayEquals(expected, row, "sample " + n);
+            }
+            // Backwards, so earlier windows are mapped again
+            for (int n = SAMPLES - 1; n >= 0; n -= 97) {
+                assertEquals(time(n), reader.readValue(0, n));
+                assertEquals(-n, reader.readValue(4, n));
+            }
+        }
+    }
+
+    @Test
+    void columnReadsSpanBlocksAndWindows() throws IOException {
+        Path file = directory.resolve("run.psrc");
+        double[] state = new double[NAMES.length];
+        try (RunRecorder recorder = new RunRecorder(file, NAMES, TYPES, BLOCK_ROWS, 1, WINDOW_BYTES)) {
+            for (int n = 0; n < SAMPLES; n++) {
+                fill(n, state);
+                recorder.append(time(n), state);
+            }
+        }
+
+        try (RunReader reader = new RunReader(file, WINDOW_BYTES)) {
+            int from = 250;
+            int count = SAMPLES - from;
+            double[] out = new double[count + 2];
+            for (int c = 0; c < reader.getColumnCount(); c++) {
+                reader.readColumn(c, from, out, 2, count);
+                for (int i = 0; i < count; i++) {
+                    int n = from + i;
+                    fill(n, state);
+                    double expected = c == 0 ? time(n) : state[c - 1];
+                    assertEquals(expected, out[2 + i], "column " + c + ", sample " + n);
+                }
+            }
+        }
+    }
+
+    private static double time(int n) {
+        return n * 0.25;
+    }
+
+    // Values every column type holds exactly
+    private static void fill(int n, double[] state) {
+        state[0] = Math.sin(n);
+        state[1] = n * 0.5;
+        state[2] = 1L << 40 | n;
+        state[3] = -n;
+    }
+}
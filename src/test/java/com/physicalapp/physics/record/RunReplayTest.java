@@ -0,0 +1,99 @@
+package com.physicalapp.physics.record;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.physicalapp.physics.ParameterSchemas.SimplePendulum;
+import com.physicalapp.physics.SimplePendulumModel;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+// A pendulum run with a keyframe every KEYFRAME_INTERVAL steps and one more where the damping
+// changes, written like the physics thread writes it, in blocks of a few keyframes. Seeking
+// re-integrates from a keyframe with the same steps as the run, so the replayed state must
+// equal the recorded one exactly.
+class RunReplayTest {
+    private static final double DT = 1e-3;
+    private static final int STEPS = 1000;
+    private static final int KEYFRAME_INTERVAL = 10;
+    private static final int CHANGE = 505;
+    private static final int BLOCK_ROWS = 8;
+
+    @TempDir
+    Path directory;
+
+    private Path file;
+    private final double[][] states = new double[STEPS + 1][];
+
+    @BeforeEach
+    void recordRun() throws IOException {
+        SimplePendulumModel model = new SimplePendulumModel();
+        double[] parameters = SimplePendulum.SCHEMA.createDefaults();
+        model.setParameters(parameters);
+        String[] names = RunReplay.columnNames(model);
+        ColumnType[] types = new ColumnType[names.length];
+        Arrays.fill(types, ColumnType.DOUBLE);
+        double[] row = new double[names.length];
+
+        file = directory.resolve("pendulum.psrc");
+        try (RunRecorder recorder = new RunRecorder(file, names, types, BLOCK_ROWS, DT)) {
+            for (int n = 0; n <= STEPS; n++) {
+                if (n == CHANGE) {
+                    parameters[SimplePendulum.DAMPING] = 0.5;
+                    model.setParameter(SimplePendulum.DAMPING, 0.5);
+                }
+                states[n] = new double[model.getStateSize()];
+                model.copyState(states[n]);
+                if (n % KEYFRAME_INTERVAL == 0 || n == CHANGE) {
+                    System.arraycopy(states[n], 0, row, 0, states[n].length);
+                    System.arraycopy(parameters, 0, row, states[n].length, parameters.length);
+                    recorder.append(n * DT, row);
+                }
+                if (n < STEPS) {
+                    model.step(DT);
+                }
+            }
+        }
+    }
+
+    @Test
+    void seekRestoresTheRecordedState() throws IOException {
+        SimplePendulumModel model = new SimplePendulumModel();
+        double[] state = new double[model.getStateSize()];
+        try (RunReplay replay = new RunReplay(file, model)) {
+            assertEquals(STEPS / KEYFRAME_INTERVAL + 2, replay.getKeyframeCount());
+            assertEquals(0, replay.getStartTime());
+            assertEquals(STEPS * DT, replay.getEndTime());
+
+            // Out of order, so the keyframe cache is both hit and replaced
+            int[] targets = {0, 1, 9, 10, 11, 999, 504, 505, 507, 23, 23, 510, 640, 128, 1000};
+            for (int n : targets) {
+                double reached = replay.seek((n + 0.5) * DT);
+                assertEquals(n * DT, reached, 1e-12, "time reached for step " + n);
+                model.copyState(state);
+                assertArrayEquals(states[n], state, "state at step " + n);
+                double damping = n < CHANGE ? 0.1 : 0.5;
+                assertEquals(damping, replay.getParameters()[SimplePendulum.DAMPING], "damping at step " + n);
+            }
+        }
+    }
+
+    @Test
+    void seekIsClampedToTheRun() throws IOException {
+        SimplePendulumModel model = new SimplePendulumModel();
+        double[] state = new double[model.getStateSize()];
+        try (RunReplay replay = new RunReplay(file, model)) {
+            assertEquals(STEPS * DT, replay.seek(10));
+            model.copyState(state);
+            assertArrayEquals(states[STEPS], state);
+
+            assertEquals(0, replay.seek(-1));
+            model.copyState(state);
+            assertArrayEquals(states[0], state);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.physicalapp.physics.wave;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FftTest {
+    private static final int[] SIZES = {2, 4, 8, 16, 64, 256, 1024};
+
+    @Test
+    void matchesTheNaiveTransform() {
+        Random random = new Random(3);
+        for (int size : SIZES) {
+            double[] re = randomSignal(random, size);
+            double[] im = randomSignal(random, size);
+            double[] expectedRe = new double[size];
+            double[] expectedIm = new double[size];
+            for (int k = 0; k < size; k++) {
+                for (int n = 0; n < size; n++) {
+                    // Reduce k * n first so the angle stays small and exact
+                    double angle = -2 * Math.PI * ((long) k * n % size) / size;
+                    expectedRe[k] += re[n] * Math.cos(angle) - im[n] * Math.sin(angle);
+                    expectedIm[k] += re[n] * Math.sin(angle) + im[n] * Math.cos(angle);
+                }
+            }
+
+            new Fft(size).transform(re, im);
+            double tolerance = 1e-12 * size;
+            for (int k = 0; k < size; k++) {
+                assertEquals(expectedRe[k], re[k], tolerance, "re of bin " + k + " of " + size);
+                assertEquals(expectedIm[k], im[k], tolerance, "im of bin " + k + " of " + size);
+            }
+        }
+    }
+
+    @Test
+    void preservesEnergy() {
+        Random random = new Random(5);
+        for (int size : SIZES) {
+            double[] re = randomSignal(random, size);
+            double[] im = randomSignal(random, size);
+            double signal = 0;
+            for (int n = 0; n < size; n++) {
+                signal += re[n] * re[n] + im[n] * im[n];
+            }
+
+            new Fft(size).transform(re, im);
+            double spectrum = 0;
+            for (int k = 0; k < size; k++) {
+                spectrum += re[k] * re[k] + im[k] * im[k];
+            }
+            // Parseval: sum |x|^2 = sum |X|^2 / N for the unnormalized transform
+            assertEquals(signal, spectrum / size, 1e-12 * signal, "size " + size);
+        }
+    }
+
+    @Test
+    void rejectsSizesThatAreNotPowersOfTwo() {
+        for (int size : new int[] {0, 1, 3, 12, 1000}) {
+            assertThrows(IllegalArgumentException.class, () -> new Fft(size), "size " + size);
+        }
+    }
+
+    private static double[] randomSignal(Random random, int size) {
+        double[] signal = new double[size];
+        for (int n = 0; n < size; n++) {
+            signal[n] = 2 * random.nextDouble() - 1;
+        }
+        return signal;
+    }
+}
@@ -0,0 +1,32 @@
+package com.physicalapp.physics.wave;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+// The Gaussian pulse exp(-x^2 / 2w^2) has the Gaussian spectrum exp(-2 pi^2 w^2 f^2), which
+// is -20 log10(e) 2 pi^2 w^2 f^2 dB below its peak. The window is long enough for neither
+// the pulse nor its spectrum to alias measurably.
+class PulseSpectrumTest {
+    private static final int GAUSSIAN = 0;
+
+    @Test
+    void gaussianPulseHasAGaussianSpectrum() {
+        int size = 1024;
+        double width = 8;
+        // One column per bin: maxCycles * size / width == out.length
+        double[] out = new double[128];
+        new PulseSpectrum(size).compute(GAUSSIAN, width, out.length * width / size, out);
+
+        for (int column = 0; column < out.length; column++) {
+            double f = (double) column / size;
+            double expected = -20 * Math.log10(Math.E) * 2 * Math.PI * Math.PI * width * width * f * f;
+            if (expected > PulseSpectrum.FLOOR_DB + 10) {
+                assertEquals(expected, out[column], 1e-6, "column " + column);
+            } else if (expected < PulseSpectrum.FLOOR_DB - 10) {
+                assertEquals(PulseSpectrum.FLOOR_DB, out[column], "column " + column);
+            }
+        }
+        assertEquals(0, out[0]);
+    }
+}